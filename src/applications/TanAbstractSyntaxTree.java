@@ -5,10 +5,8 @@ import java.io.PrintStream;
 
 import parseTree.ParseNode;
 import parseTree.ParseTreePrinter;
-import parser.Parser;
+import parser.ParseCache;
 
-import lexicalAnalyzer.LexicalAnalyzer;
-import lexicalAnalyzer.Scanner;
 import tokens.Tokens;
 
 public class TanAbstractSyntaxTree extends TanApplication {
@@ -30,9 +28,8 @@ public class TanAbstractSyntaxTree extends TanApplication {
 	 * @throws FileNotFoundException 
 	 */
 	public static void parseFileToAST(String filename, PrintStream out) throws FileNotFoundException {
-		Scanner scanner     = LexicalAnalyzer.make(filename);
-		ParseNode syntaxTree    = Parser.parse(scanner);
+		ParseNode syntaxTree    = ParseCache.parse(filename);
 		
-		out.print(syntaxTree);
+		ParseTreePrinter.print(syntaxTree, out);
 	}
 }
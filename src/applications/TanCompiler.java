@@ -7,10 +7,9 @@ import java.io.PrintStream;
 
 import asmCodeGenerator.ASMCodeGenerator;
 import asmCodeGenerator.codeStorage.ASMCodeFragment;
-import lexicalAnalyzer.LexicalAnalyzer;
-import lexicalAnalyzer.Scanner;
 import parseTree.ParseNode;
-import parser.Parser;
+import parser.ParseCache;
+import semanticAnalyzer.CommonSubexpressionEliminator;
 import semanticAnalyzer.SemanticAnalyzer;
 import tokens.Tokens;
 
@@ -32,8 +31,7 @@ public class TanCompiler extends TanApplication {
 	 * @throws FileNotFoundException 
 	 */
 	public static void compile(String filename) throws FileNotFoundException {
-		Scanner scanner         = LexicalAnalyzer.make(filename);
-		ParseNode syntaxTree    = Parser.parse(scanner);
+		ParseNode syntaxTree    = ParseCache.parse(filename);
 		ParseNode decoratedTree = SemanticAnalyzer.analyze(syntaxTree);
 
 		generateCodeIfNoErrors(filename, decoratedTree);
@@ -70,7 +68,8 @@ public class TanCompiler extends TanApplication {
 	// normal code generation.
 	private static void generateAndPrintCode(String outfile, ParseNode decoratedTree) 
 			throws FileNotFoundException {
-		ASMCodeFragment code = ASMCodeGenerator.generate(decoratedTree);
+		ParseNode optimizedTree = CommonSubexpressionEliminator.eliminate(decoratedTree);
+		ASMCodeFragment code = ASMCodeGenerator.generate(optimizedTree);
 		printCodeToFile(outfile, code);
 	}
 	private static void printCodeToFile(String filename, ASMCodeFragment code)
@@ -0,0 +1,83 @@
+package applications;
+
+import java.io.PrintStream;
+
+import inputHandler.SourceBuffer;
+import lexicalAnalyzer.DFALexicalAnalyzer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.ParallelLexer;
+import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
+import lexicalAnalyzer.TokenBufferScanner;
+
+public class TanLexerBenchmark extends TanApplication {
+	private static final int WARMUP_RUNS = 3;
+	private static final int TIMED_RUNS = 10;
+
+	private interface ScannerFactory {
+		Scanner make(SourceBuffer source);
+	}
+
+	/** Times each lexer on a tan file.
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		checkArguments(args, className());
+
+		benchmark(args[0], System.out);
+	}
+
+	/** Scans the file specified by filename with each lexer, and prints
+	 * the number of tokens and the average time per scan to the given PrintStream.
+	 * The file is read once; only scanning is timed.
+	 * @param filename the name of the file to be scanned.
+	 * @param out the PrintStream to print to.
+	 */
+	public static void benchmark(String filename, PrintStream out) {
+		SourceBuffer source = SourceBuffer.fromFilename(filename);
+
+		time("LexicalAnalyzer", source, out, new ScannerFactory() {
+			public Scanner make(SourceBuffer source) {
+				return LexicalAnalyzer.make(source);
+			}
+		});
+		time("DFALexicalAnalyzer", source, out, new ScannerFactory() {
+			public Scanner make(SourceBuffer source) {
+				return DFALexicalAnalyzer.make(source);
+			}
+		});
+		time("TokenBuffer", source, out, new ScannerFactory() {
+			public Scanner make(SourceBuffer source) {
+				return new TokenBufferScanner(TokenBuffer.make(source));
+			}
+		});
+		time("ParallelLexer", source, out, new ScannerFactory() {
+			public Scanner make(SourceBuffer source) {
+				return new TokenBufferScanner(ParallelLexer.lex(source));
+			}
+		});
+	}
+
+	private static void time(String name, SourceBuffer source, PrintStream out, ScannerFactory factory) {
+		int numTokens = 0;
+		for(int i = 0; i < WARMUP_RUNS; i++) {
+			numTokens = countTokens(factory.make(source));
+		}
+		long startTime = System.nanoTime();
+		for(int i = 0; i < TIMED_RUNS; i++) {
+			countTokens(factory.make(source));
+		}
+		long elapsed = System.nanoTime() - startTime;
+
+		double milliseconds = elapsed / (TIMED_RUNS * 1e6);
+		out.println(String.format("%-24s %10d tokens %12.3f ms", name, numTokens, milliseconds));
+	}
+	private static int countTokens(Scanner scanner) {
+		int result = 0;
+		while(scanner.hasNext()) {
+			scanner.next();
+			result++;
+		}
+		return result;
+	}
+}
@@ -3,11 +3,9 @@ package applications;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 
-import lexicalAnalyzer.LexicalAnalyzer;
-import lexicalAnalyzer.Scanner;
 import parseTree.ParseNode;
 import parseTree.ParseTreePrinter;
-import parser.Parser;
+import parser.ParseCache;
 import semanticAnalyzer.SemanticAnalyzer;
 import tokens.Tokens;
 
@@ -33,10 +31,9 @@ public class TanSemanticChecker extends TanApplication {
 	 * @throws FileNotFoundException 
 	 */
 	public static void checkFileSemantics(String filename, PrintStream out) throws FileNotFoundException {
-		Scanner scanner         = LexicalAnalyzer.make(filename);
-		ParseNode syntaxTree    = Parser.parse(scanner);
+		ParseNode syntaxTree    = ParseCache.parse(filename);
 		ParseNode decoratedTree = SemanticAnalyzer.analyze(syntaxTree);
 		
-		out.print(decoratedTree);
+		ParseTreePrinter.print(decoratedTree, out);
 	}
 }
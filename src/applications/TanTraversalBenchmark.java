@@ -0,0 +1,99 @@
+package applications;
+
+import java.io.PrintStream;
+
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseNodeKindVisitor;
+import parseTree.ParseNodeVisitor;
+import parser.Parser;
+
+public class TanTraversalBenchmark extends TanApplication {
+	private static final int WARMUP_RUNS = 10;
+	private static final int TIMED_RUNS = 20;
+
+	private interface Traversal {
+		int countNodes(ParseNode root);
+	}
+
+	/** Times each way of visiting the parse tree of a tan file.
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		checkArguments(args, className());
+
+		benchmark(args[0], System.out);
+	}
+
+	/** Parses the file specified by filename, then visits its parse tree with
+	 * accept() and a ParseNodeVisitor, with acceptIteratively() and a ParseNodeVisitor,
+	 * and with acceptIteratively() and a ParseNodeKindVisitor.  Prints the number of
+	 * nodes visited and the average time per traversal to the given PrintStream.
+	 * Only the traversals are timed.  Use a large file: the tree of a small one is
+	 * traversed too quickly to time.
+	 * @param filename the name of the file to be parsed.
+	 * @param out the PrintStream to print to.
+	 */
+	public static void benchmark(String filename, PrintStream out) {
+		ParseNode root = Parser.parse(LexicalAnalyzer.make(filename));
+
+		time("accept", root, out, new Traversal() {
+			public int countNodes(ParseNode root) {
+				CountingVisitor visitor = new CountingVisitor();
+				root.accept(visitor);
+				return visitor.count;
+			}
+		});
+		time("acceptIteratively", root, out, new Traversal() {
+			public int countNodes(ParseNode root) {
+				CountingVisitor visitor = new CountingVisitor();
+				root.acceptIteratively(visitor);
+				return visitor.count;
+			}
+		});
+		time("kind switch", root, out, new Traversal() {
+			public int countNodes(ParseNode root) {
+				CountingKindVisitor visitor = new CountingKindVisitor();
+				root.acceptIteratively(visitor);
+				return visitor.count;
+			}
+		});
+	}
+
+	private static void time(String name, ParseNode root, PrintStream out, Traversal traversal) {
+		int numNodes = 0;
+		for(int i = 0; i < WARMUP_RUNS; i++) {
+			numNodes = traversal.countNodes(root);
+		}
+		long startTime = System.nanoTime();
+		for(int i = 0; i < TIMED_RUNS; i++) {
+			traversal.countNodes(root);
+		}
+		long elapsed = System.nanoTime() - startTime;
+
+		double milliseconds = elapsed / (TIMED_RUNS * 1e6);
+		out.println(String.format("%-24s %10d nodes %12.3f ms", name, numNodes, milliseconds));
+	}
+
+	// the two visitors do the same work: count each node once, on entry.
+	private static class CountingVisitor extends ParseNodeVisitor.Default {
+		private int count = 0;
+
+		public void defaultVisitEnter(ParseNode node) {
+			count++;
+		}
+		public void defaultVisitForLeaf(ParseNode node) {
+			count++;
+		}
+	}
+	private static class CountingKindVisitor extends ParseNodeKindVisitor {
+		private int count = 0;
+
+		public void defaultVisitEnter(ParseNode node) {
+			count++;
+		}
+		public void defaultVisitForLeaf(ParseNode node) {
+			count++;
+		}
+	}
+}
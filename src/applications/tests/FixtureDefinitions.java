@@ -15,4 +15,9 @@ public class FixtureDefinitions {
 
 	public static final String SEMANTIC_INPUT_FILENAME          = FIXTURE_DIRECTORY + "coinTest.tan";
 	public static final String SEMANTIC_EXPECTED_FILENAME       = FIXTURE_DIRECTORY + "coinTestSemantics.txt";
+
+	public static final String COMPILER_INPUT_FILENAME          = FIXTURE_DIRECTORY + "commonSubexpressions.tan";
+	public static final String COMPILER_EXPECTED_FILENAME       = FIXTURE_DIRECTORY + "expected/commonSubexpressions.txt";
+	public static final String EMULATOR_JAR                     = "ASM_Emulator/ASM_Simulator.jar";
+	public static final String EMULATOR_CLASS                   = "asm.application.Main";
 }
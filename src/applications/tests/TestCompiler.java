@@ -0,0 +1,52 @@
+package applications.tests;
+
+import static applications.tests.FixtureDefinitions.*;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import asmCodeGenerator.ASMCodeGenerator;
+import asmCodeGenerator.codeStorage.ASMCodeFragment;
+import logging.TanLogger;
+import parseTree.ParseNode;
+import parser.ParseCache;
+import semanticAnalyzer.CommonSubexpressionEliminator;
+import semanticAnalyzer.SemanticAnalyzer;
+import tests.FileFixturesTestCase;
+
+public class TestCompiler extends FileFixturesTestCase {
+	// values reused across assignments, in a loop and in blocks that shadow the operands.
+	public void testCommonSubexpressionsRun() throws Exception {
+		File asmFile = File.createTempFile("commonSubexpressions", ".asm");
+		try {
+			compile(COMPILER_INPUT_FILENAME, asmFile);
+			String expectedOutput = getContents(COMPILER_EXPECTED_FILENAME);
+			assertEquals(expectedOutput, emulatorOutput(asmFile));
+		}
+		finally {
+			asmFile.delete();
+		}
+	}
+
+	// as TanCompiler compiles, without its output directory and exits.
+	private void compile(String filename, File asmFile) throws Exception {
+		int messagesBefore = TanLogger.numMessages();
+		ParseNode decoratedTree = SemanticAnalyzer.analyze(ParseCache.parse(filename));
+		assertEquals(messagesBefore, TanLogger.numMessages());
+
+		ASMCodeFragment code = ASMCodeGenerator.generate(CommonSubexpressionEliminator.eliminate(decoratedTree));
+		try(PrintStream out = new PrintStream(asmFile)) {
+			out.print(code);
+		}
+	}
+	private String emulatorOutput(File asmFile) throws Exception {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		Process emulator = new ProcessBuilder(java, "-cp", EMULATOR_JAR, EMULATOR_CLASS, "-CLI", asmFile.getPath())
+				.redirectErrorStream(true)
+				.start();
+		String output = contentsAsString(new InputStreamReader(emulator.getInputStream()));
+		emulator.waitFor();
+		return output;
+	}
+}
@@ -98,7 +98,7 @@ public class ASMCodeGenerator {
 
 	private ASMCodeFragment programCode() {
 		CodeVisitor visitor = new CodeVisitor();
-		root.accept(visitor);
+		root.acceptIteratively(visitor);
 		return visitor.removeRootCode(root);
 	}
 
@@ -627,6 +627,10 @@ public class ASMCodeGenerator {
 		///////////////////////////////////////////////////////////////////////////
 		// expressions
 		public void visitLeave(OperatorNode node) {
+			if (node.reusesValue()) {
+				visitReusedOperatorNode(node);
+				return;
+			}
 			Lextant operator = node.getOperator();
 
 			// Only 1 child, so +/-/!/length the child
@@ -643,6 +647,30 @@ public class ASMCodeGenerator {
 			else {
 				visitNormalBinaryOperatorNode(node);
 			}
+
+			if (node.savesValue()) {
+				saveOperatorValue(node);
+			}
+		}
+
+		// an earlier, equal node has left the value in a temporary: the children are not evaluated.
+		private void visitReusedOperatorNode(OperatorNode node) {
+			for (ParseNode child : node.getChildren()) {
+				getAndRemoveCode(child);
+			}
+			newAddressCode(node);
+			node.getReusedValueLocation().generateAddress(code, "%% common subexpression");
+		}
+
+		// [... v] -> [... v], with v also stored in the node's temporary.
+		private void saveOperatorValue(OperatorNode node) {
+			ASMCodeFragment frag = codeMap.get(node);
+			assert frag.isValue();
+
+			frag.add(Duplicate);
+			node.getSavedValueLocation().generateAddress(frag, "%% save common subexpression");
+			frag.add(Exchange);
+			frag.add(opcodeForStore(node.getType()));
 		}
 
 		private void visitComparisonOperatorNode(OperatorNode node,
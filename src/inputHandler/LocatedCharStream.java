@@ -4,60 +4,125 @@ package inputHandler;
 import java.util.Iterator;
 
 
-
+/** A stream of characters over a SourceBuffer.
+ *  <p>
+ *  There are two ways to read it.  The Iterator interface returns a LocatedChar
+ *  for each character.  The primitive interface (<code>nextChar()</code>,
+ *  <code>peekChar()</code>, <code>position()</code>) returns bare chars as ints
+ *  and allocates nothing; a TextLocation is built with <code>locationOf(...)</code>
+ *  only when a client needs one.  Both read from the same position.
+ */
 public class LocatedCharStream implements Iterator<LocatedChar> {
 	public static final char NULL_CHAR = '\0';
-	public static final LocatedChar FLAG_END_OF_INPUT = new LocatedChar(NULL_CHAR, new TextLocation("null", -1, -1));
+	public static final LocatedChar FLAG_END_OF_INPUT = new LocatedChar(NULL_CHAR, SourceMap.END_OF_INPUT_LOCATION);
+	public static final int END_OF_INPUT = -1;
+
 
-	
-	private Iterator<String> inputIterator;
-	private String line;
+	private SourceBuffer source;
 	private int index;
+	private int limit;
+
 
-	private LocatedChar next;
-	private InputHandler input;
-	
-	
 	public LocatedCharStream(InputHandler input) {
+		this(SourceBuffer.fromInputHandler(input));
+	}
+	public LocatedCharStream(SourceBuffer source) {
+		this(source, 0, source.length());
+	}
+	/** Stream part of a source.  Positions are still offsets into the whole source,
+	 *  so locations are those of the whole file.
+	 * @param source the text.
+	 * @param start the offset of the first character to stream.
+	 * @param end the offset at which the stream reports end of input.
+	 */
+	public LocatedCharStream(SourceBuffer source, int start, int end) {
 		super();
-		this.input = input;
-		this.inputIterator = input.iterator();
-		this.index = 0;
-		this.line = "";
-		preloadChar();
-	}
-	
-	private void preloadChar() {
-		ensureLineHasACharacter();
-		next = nextCharInLine();
-	}	
-	private LocatedChar nextCharInLine() {
-		if(endOfInput()) {
-			return FLAG_END_OF_INPUT;
+		assert(0 <= start && start <= end && end <= source.length());
+		this.source = source;
+		this.index = start;
+		this.limit = end;
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// primitive interface
+// nextChar() and peekChar() return END_OF_INPUT when there are no more characters.
+
+	public int nextChar() {
+		if(index >= limit) {
+			return END_OF_INPUT;
 		}
-		
-		TextLocation location = new TextLocation(input.fileName(), input.lineNumber(), index);
-		char character = line.charAt(index++);
-		return new LocatedChar(character, location);
+		return source.charAt(index++);
 	}
-	private void ensureLineHasACharacter() {
-		while(!moreCharsInLine() && inputIterator.hasNext()) {
-			readNextLine();
+	public int peekChar() {
+		return peekChar(0);
+	}
+	/** Look ahead without consuming input.
+	 * @param k the number of characters to look past; peekChar(0) is the same as peekChar().
+	 * @return the character that the (k+1)st call to <code>nextChar()</code> would return.
+	 */
+	public int peekChar(int k) {
+		if(index + k >= limit) {
+			return END_OF_INPUT;
 		}
+		return source.charAt(index + k);
 	}
-	private boolean endOfInput() {
-		return !moreCharsInLine() && !inputIterator.hasNext();
+	/** Consume characters without looking at them.
+	 * @param count the number of characters to consume.
+	 */
+	public void skip(int count) {
+		index = Math.min(index + count, limit);
 	}
-	private boolean moreCharsInLine() {
-		return index < line.length();
+	/** Consume whitespace and comments   # ... (# | \n)   up to the start of the next token.
+	 *  Every lexer skips them through here, so that they all agree on what a comment is.
+	 *  A comment may run over several lines; see <code>SourceBuffer.commentEnd(...)</code>.
+	 */
+	public void skipWhitespaceAndComments() {
+		index = source.whitespaceRunEnd(index, limit);
+		while(index < limit && source.charAt(index) == '#') {
+			index = source.commentEnd(index + 1, limit);
+			index = source.whitespaceRunEnd(index, limit);
+		}
+	}
+	/** Get the current position.
+	 * @return the offset of the character that <code>nextChar()</code> would return.
+	 */
+	public int position() {
+		return index;
+	}
+	/** Build the TextLocation of a position.
+	 * @param position an offset previously obtained from <code>position()</code>.
+	 * @return the location of the character at position, or the location of
+	 *         FLAG_END_OF_INPUT if position is at or past the end of input.
+	 */
+	public TextLocation locationOf(int position) {
+		return source.locationOf(position);
+	}
+	/** Get a Locator for a position, from which a token can take its place in the source
+	 *  without a TextLocation being built.
+	 * @param position an offset previously obtained from <code>position()</code>.
+	 */
+	public SourceMap.Position positionOf(int position) {
+		return source.getSourceMap().positionOf(position);
+	}
+	public char charAt(int position) {
+		return source.charAt(position);
 	}
-	private void readNextLine() {
-		assert(inputIterator.hasNext());
-		line = inputIterator.next();
-		index = 0;
+	public String substring(int start, int end) {
+		return source.substring(start, end);
 	}
-	
-	
+	/** Get the text being streamed, for lookups that work on ranges of characters.
+	 * @return the source; positions in this stream are offsets into it.
+	 */
+	public SourceBuffer getSource() {
+		return source;
+	}
+	protected void rewindTo(int position) {
+		assert(position >= 0 && position <= index);
+		index = position;
+	}
+
+
 //////////////////////////////////////////////////////////////////////////////
 // Iterator<LocatedChar> overrides
 // next() extra-politely returns a fully-formed LocatedChar (FLAG_END_OF_INPUT)
@@ -65,13 +130,16 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
 
 	@Override
 	public boolean hasNext() {
-		return next != FLAG_END_OF_INPUT;
+		return index < limit;
 	}
 	@Override
 	public LocatedChar next() {
-		LocatedChar result = next;
-		preloadChar();
-		return result;
+		if(!hasNext()) {
+			return FLAG_END_OF_INPUT;
+		}
+		TextLocation location = source.locationOf(index);
+		char character = source.charAt(index++);
+		return new LocatedChar(character, location);
 	}
 
 	/**
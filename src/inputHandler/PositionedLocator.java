@@ -0,0 +1,11 @@
+package inputHandler;
+
+/** A Locator that knows its place as an offset into a source file.
+ *  Anything holding a location can copy the SourceMap and offset instead of
+ *  building (and keeping) a TextLocation.
+ */
+public interface PositionedLocator extends Locator {
+	/** @return the map of the file, never null. */
+	public SourceMap getSourceMap();
+	public int getOffset();
+}
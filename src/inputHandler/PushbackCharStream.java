@@ -1,37 +1,63 @@
 package inputHandler;
 
-import java.util.Stack;
-
+/** A LocatedCharStream with lookahead and pushback.
+ *  <p>
+ *  Lookahead and pushback are offsets into the source buffer, so nothing is held
+ *  between calls.  <code>peek(k)</code> and <code>peekChar(k)</code> may look any
+ *  number of characters ahead, and <code>pushback(...)</code> and
+ *  <code>pushbackTo(...)</code> just move the position back.
+ */
 public class PushbackCharStream extends LocatedCharStream {
-	private Stack<LocatedChar> pushedBack;
 	
 	public PushbackCharStream(InputHandler handler) {
 		super(handler);
-		this.pushedBack = new Stack<LocatedChar>();
 	}
-
-	@Override
-	public boolean hasNext() {
-		return !pushedBack.empty() || super.hasNext();
+	public PushbackCharStream(SourceBuffer source) {
+		super(source);
+	}
+	public PushbackCharStream(SourceBuffer source, int start, int end) {
+		super(source, start, end);
 	}
 
-	@Override
-	public LocatedChar next() {
-		if(pushedBack.empty()) {
-			return super.next();
-		}
-		else {
-			return pushedBack.pop();
+
+//////////////////////////////////////////////////////////////////////////////
+// LocatedChar interface
+
+	public LocatedChar peek() {
+		return peek(0);
+	}
+	/** Look ahead without consuming input.
+	 * @param k the number of characters to look past; peek(0) is the same as peek().
+	 * @return the LocatedChar that the (k+1)st call to <code>next()</code> would return.
+	 */
+	public LocatedChar peek(int k) {
+		int c = peekChar(k);
+		if(c == END_OF_INPUT) {
+			return FLAG_END_OF_INPUT;
 		}
+		return new LocatedChar((char)c, locationOf(position() + k));
 	}
-	public LocatedChar peek() {
-		LocatedChar result = next();
-		pushback(result);
-		return result;
+	/** Return the character most recently read to the stream.
+	 *  Characters must be pushed back in the reverse of the order they were read.
+	 * @param locatedChar the character, as returned by <code>next()</code>.
+	 */
+	public void pushback(LocatedChar locatedChar) {
+		if(locatedChar == FLAG_END_OF_INPUT) {
+			return;
+		}
+		rewindTo(position() - 1);
+		assert(charAt(position()) == locatedChar.getCharacter());
 	}
 
-	public void pushback(LocatedChar locatedChar) {
-		pushedBack.push(locatedChar);
+
+//////////////////////////////////////////////////////////////////////////////
+// primitive interface
+
+	/** Return to the stream all characters read since position.
+	 * @param position an offset previously obtained from <code>position()</code>.
+	 */
+	public void pushbackTo(int position) {
+		rewindTo(position);
 	}
 
 	/**
@@ -45,5 +71,11 @@ public class PushbackCharStream extends LocatedCharStream {
 	public static PushbackCharStream make(InputHandler handler) {
 		return new PushbackCharStream(handler);
 	}
+	public static PushbackCharStream make(SourceBuffer source) {
+		return new PushbackCharStream(source);
+	}
+	public static PushbackCharStream make(SourceBuffer source, int start, int end) {
+		return new PushbackCharStream(source, start, end);
+	}
 
 }
@@ -0,0 +1,305 @@
+package inputHandler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/** The entire text of a source file, held in a single char array.
+ *  Use one of the factories <code>fromFilename(...)</code> or
+ *  <code>fromInputHandler(...)</code> to construct.
+ *  <p>
+ *  The file is read once.  Files of at least MAPPING_THRESHOLD bytes are
+ *  memory-mapped with <code>FileChannel.map</code> and decoded straight from
+ *  the mapping; smaller files are read into a byte array.  Either way the
+ *  characters are decoded directly into the array that the buffer keeps, and
+ *  normalized there in place.
+ *  <p>
+ *  Line terminators ("\r\n", "\r", or "\n") are all replaced by "\n", and a
+ *  nonempty text always ends in "\n", so the characters are exactly those that
+ *  an InputHandler with the default terminator would deliver.  The buffer also
+ *  records the offset at which each line starts, in its SourceMap.
+ */
+public class SourceBuffer implements CharSequence {
+	public static final long MAPPING_THRESHOLD = 1 << 20;
+	private static final int INITIAL_LINE_CAPACITY = 64;
+	private static final int ASCII_LIMIT = 128;
+	private static final boolean[] ASCII_WHITESPACE = new boolean[ASCII_LIMIT];
+	static {
+		for(int c = 0; c < ASCII_LIMIT; c++) {
+			ASCII_WHITESPACE[c] = Character.isWhitespace(c);
+		}
+	}
+
+	private String filename;
+	private char[] text;
+	private int length;
+	private SourceMap sourceMap;
+
+
+	private SourceBuffer(String filename, char[] text, int length, int[] lineStarts, int lineCount) {
+		this.filename = filename;
+		this.text = text;
+		this.length = length;
+		this.sourceMap = new SourceMap(filename, lineStarts, lineCount, length);
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// queries
+
+	/** Get the file name.
+	 * @return the filename that was passed to the factory.
+	 */
+	public String fileName() {
+		return filename;
+	}
+	@Override
+	public int length() {
+		return length;
+	}
+	@Override
+	public char charAt(int offset) {
+		return text[offset];
+	}
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return substring(start, end);
+	}
+	@Override
+	public String toString() {
+		return substring(0, length);
+	}
+	public String substring(int start, int end) {
+		return new String(text, start, end - start);
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// searching runs of the raw text
+
+	/** Find the end of a run of whitespace (as defined by Character.isWhitespace).
+	 * @param from the offset at which the run starts.
+	 * @param limit the offset at which to stop looking.
+	 * @return the offset of the first non-whitespace character at or after from, or limit if there is none.
+	 */
+	public int whitespaceRunEnd(int from, int limit) {
+		int i = from;
+		while(i < limit) {
+			char c = text[i];
+			if(c < ASCII_LIMIT ? !ASCII_WHITESPACE[c] : !Character.isWhitespace(c)) {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+	/** Find the next occurrence of either of two characters.
+	 * @param a one character to look for.
+	 * @param b the other character to look for.
+	 * @param from the offset at which to start looking.
+	 * @param limit the offset at which to stop looking.
+	 * @return the offset of the first a or b at or after from, or limit if there is none.
+	 */
+	public int indexOf(char a, char b, int from, int limit) {
+		for(int i = from; i < limit; i++) {
+			char c = text[i];
+			if(c == a || c == b) {
+				return i;
+			}
+		}
+		return limit;
+	}
+	/** Find the end of a comment   # ... (# | \n)
+	 *  A closing # is part of the comment; a closing backslash-n is not.  Line
+	 *  terminators do not end a comment, so a comment may run over several lines.
+	 * @param from the offset just past the opening #.
+	 * @param limit the offset at which to stop looking.
+	 * @return the offset just past the closing #, the offset of the backslash of a
+	 *         closing backslash-n, or limit if the comment is not closed.
+	 */
+	public int commentEnd(int from, int limit) {
+		for(int i = indexOf('#', '\\', from, limit); i < limit; i = indexOf('#', '\\', i + 1, limit)) {
+			if(text[i] == '#') {
+				return i + 1;
+			}
+			if(i + 1 < limit && text[i + 1] == 'n') {
+				return i;
+			}
+		}
+		return limit;
+	}
+
+	/** Get the map from offsets to lines.
+	 * @return the SourceMap of this text, shared by everything that refers to a position in it.
+	 */
+	public SourceMap getSourceMap() {
+		return sourceMap;
+	}
+	public int lineCount() {
+		return sourceMap.lineCount();
+	}
+	public int lineStart(int lineIndex) {
+		return sourceMap.lineStart(lineIndex);
+	}
+	public int lineIndexOf(int offset) {
+		return sourceMap.lineIndexOf(offset);
+	}
+	public TextLocation locationOf(int offset) {
+		return sourceMap.locationOf(offset);
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// reading and normalizing
+
+	private static SourceBuffer readFile(String filename) {
+		CharBuffer decoded;
+		try {
+			decoded = decodedContents(filename);
+		}
+		catch (FileNotFoundException e) {
+			throw new IllegalArgumentException(e);
+		}
+		catch (IOException e) {
+			System.err.println("Input file read error.");
+			decoded = CharBuffer.allocate(0);
+		}
+		return normalized(filename, decoded);
+	}
+	private static CharBuffer decodedContents(String filename) throws IOException {
+		File file = new File(filename);
+		try(FileInputStream fstream = new FileInputStream(file);
+			FileChannel channel = fstream.getChannel()) {
+
+			long size = channel.size();
+			ByteBuffer bytes;
+			if(size >= MAPPING_THRESHOLD) {
+				bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			else {
+				bytes = ByteBuffer.allocate((int)size);
+				while(bytes.hasRemaining() && channel.read(bytes) >= 0) {
+					// keep reading
+				}
+				bytes.flip();
+			}
+			return decoded(bytes);
+		}
+	}
+	// decoded into an array with room for every char and one more (a final "\n"),
+	// replacing malformed input as Charset.decode does.  The result is flipped.
+	private static CharBuffer decoded(ByteBuffer bytes) throws IOException {
+		CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		CharBuffer chars = CharBuffer.wrap(new char[(int)(bytes.remaining() * (double)decoder.maxCharsPerByte()) + 1]);
+
+		CoderResult result = decoder.decode(bytes, chars, true);
+		while(result.isOverflow()) {
+			chars = enlarged(chars);
+			result = decoder.decode(bytes, chars, true);
+		}
+		result = decoder.flush(chars);
+		while(result.isOverflow()) {
+			chars = enlarged(chars);
+			result = decoder.flush(chars);
+		}
+		if(result.isError()) {
+			result.throwException();
+		}
+		chars.flip();
+		return chars;
+	}
+	private static CharBuffer enlarged(CharBuffer chars) {
+		CharBuffer result = CharBuffer.wrap(Arrays.copyOf(chars.array(), chars.capacity() * 2 + 1));
+		result.position(chars.position());
+		return result;
+	}
+
+	// normalizes the decoded chars in place: a line terminator never grows, so the
+	// write index never passes the read index.
+	private static SourceBuffer normalized(String filename, CharBuffer decoded) {
+		char[] text = decoded.array();
+		int inputLength = decoded.limit();
+		int[] lineStarts = new int[INITIAL_LINE_CAPACITY];
+		int lineCount = 0;
+		int length = 0;
+		boolean atLineStart = true;
+
+		for(int i = 0; i < inputLength; i++) {
+			char c = text[i];
+			if(atLineStart) {
+				lineStarts = ensureCapacity(lineStarts, lineCount);
+				lineStarts[lineCount++] = length;
+				atLineStart = false;
+			}
+			if(c == '\r') {
+				if(i + 1 < inputLength && text[i + 1] == '\n') {
+					i++;
+				}
+				c = '\n';
+			}
+			text[length++] = c;
+			atLineStart = (c == '\n');
+		}
+		if(length > 0 && !atLineStart) {
+			if(length == text.length) {
+				text = Arrays.copyOf(text, length + 1);
+			}
+			text[length++] = '\n';
+		}
+		return new SourceBuffer(filename, text, length, lineStarts, lineCount);
+	}
+
+	private static SourceBuffer readHandler(InputHandler handler) {
+		StringBuilder builder = new StringBuilder();
+		int[] lineStarts = new int[INITIAL_LINE_CAPACITY];
+		int lineCount = 0;
+
+		for(String line: handler) {
+			lineStarts = ensureCapacity(lineStarts, lineCount);
+			lineStarts[lineCount++] = builder.length();
+			builder.append(line);
+		}
+		char[] text = new char[builder.length()];
+		builder.getChars(0, text.length, text, 0);
+		return new SourceBuffer(handler.fileName(), text, text.length, lineStarts, lineCount);
+	}
+
+	private static int[] ensureCapacity(int[] array, int needed) {
+		if(needed < array.length) {
+			return array;
+		}
+		return Arrays.copyOf(array, array.length * 2);
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// factories
+
+	/** Read the entire file at once.
+	 * @param filename the name of the file to read.
+	 * @return a SourceBuffer holding the file's normalized text.
+	 * @throws IllegalArgumentException if the file cannot be opened.
+	 */
+	public static SourceBuffer fromFilename(String filename) {
+		return readFile(filename);
+	}
+	/** Collect all lines (with their terminators) from an InputHandler.
+	 *  The handler's single iterator is consumed.
+	 * @param handler the InputHandler to read.
+	 * @return a SourceBuffer holding the lines delivered by the handler.
+	 */
+	public static SourceBuffer fromInputHandler(InputHandler handler) {
+		return readHandler(handler);
+	}
+}
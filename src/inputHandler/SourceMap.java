@@ -0,0 +1,146 @@
+package inputHandler;
+
+/** The line structure of one source file: its name and the offset at which each line starts.
+ * <p>
+ *  Everything that refers to a place in the file (tokens, parse nodes, bindings) holds
+ *  the file's one SourceMap and an int offset, rather than a TextLocation of its own.
+ *  The line and character of an offset are found, by binary search over the line
+ *  starts, only when a TextLocation is asked for; in practice, when a diagnostic is
+ *  printed.
+ * <p>
+ *  Offsets at or past the end of the file are the end of input, and have the
+ *  location END_OF_INPUT_LOCATION.
+ * <p>
+ *  A place known only by a TextLocation (a synthesized token, the null binding)
+ *  gets a map of its own, whose every offset is at that location; see
+ *  <code>positionedLocator(...)</code>.
+ */
+public class SourceMap {
+	public static final TextLocation END_OF_INPUT_LOCATION = new TextLocation("null", -1, -1);
+
+	private String filename;
+	private int[] lineStarts;
+	private int lineCount;
+	private int length;
+
+	SourceMap(String filename, int[] lineStarts, int lineCount, int length) {
+		this.filename = filename;
+		this.lineStarts = lineStarts;
+		this.lineCount = lineCount;
+		this.length = length;
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// queries
+
+	public String fileName() {
+		return filename;
+	}
+	/** Get the number of lines.
+	 * @return the number of lines in the text.  An empty text has no lines.
+	 */
+	public int lineCount() {
+		return lineCount;
+	}
+	/** Get the offset of the first character of a line.
+	 * @param lineIndex the zero-based index of the line.
+	 * @return the offset of the line start, or the length of the text if lineIndex is past the last line.
+	 */
+	public int lineStart(int lineIndex) {
+		if(lineIndex >= lineCount) {
+			return length;
+		}
+		return lineStarts[lineIndex];
+	}
+	/** Find the line containing an offset.
+	 *  Empty lines share their start offset with the following line, and are never returned.
+	 * @param offset an offset into the text, 0 &lt;= offset &lt; length of the text.
+	 * @return the zero-based index of the line containing offset.
+	 */
+	public int lineIndexOf(int offset) {
+		int low = 0;
+		int high = lineCount - 1;
+		while(low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if(lineStarts[middle] <= offset) {
+				low = middle;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+	/** Build the TextLocation of an offset.
+	 * @param offset an offset into the text.
+	 * @return the location of the character at offset, with a one-based line number,
+	 *         or END_OF_INPUT_LOCATION if offset is at or past the end of the text.
+	 */
+	public TextLocation locationOf(int offset) {
+		if(offset >= length) {
+			return END_OF_INPUT_LOCATION;
+		}
+		int lineIndex = lineIndexOf(offset);
+		return new TextLocation(filename, lineIndex + 1, offset - lineStarts[lineIndex]);
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// positions: a (SourceMap, offset) pair, for handing to token factories.
+
+	public Position positionOf(int offset) {
+		return new Position(this, offset);
+	}
+
+	public static class Position implements PositionedLocator {
+		private SourceMap sourceMap;
+		private int offset;
+
+		private Position(SourceMap sourceMap, int offset) {
+			this.sourceMap = sourceMap;
+			this.offset = offset;
+		}
+		@Override
+		public SourceMap getSourceMap() {
+			return sourceMap;
+		}
+		@Override
+		public int getOffset() {
+			return offset;
+		}
+		@Override
+		public TextLocation getLocation() {
+			return sourceMap.locationOf(offset);
+		}
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// single-location maps, for locators that have only a TextLocation.
+
+	/** Get a locator as a (SourceMap, offset) pair.
+	 * @param locator any locator.
+	 * @return the locator itself if it is positioned; otherwise a position in a map
+	 *         whose every offset is at the locator's location.
+	 */
+	public static PositionedLocator positionedLocator(Locator locator) {
+		if(locator instanceof PositionedLocator) {
+			return (PositionedLocator)locator;
+		}
+		return new SingleLocationMap(locator.getLocation()).positionOf(0);
+	}
+
+	private static class SingleLocationMap extends SourceMap {
+		private TextLocation location;
+
+		SingleLocationMap(TextLocation location) {
+			super(location == null ? null : location.getFilename(), new int[0], 0, 0);
+			this.location = location;
+		}
+		@Override
+		public TextLocation locationOf(int offset) {
+			return location;
+		}
+	}
+}
@@ -5,6 +5,8 @@ import static inputHandler.tests.FixtureDefinitions.*;
 import inputHandler.InputHandler;
 import inputHandler.LocatedChar;
 import inputHandler.LocatedCharStream;
+import inputHandler.SourceBuffer;
+import inputHandler.SourceMap;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -21,6 +23,87 @@ public class TestLocatedCharStream extends FileFixturesTestCase {
 		assertEquals(expectedOutput, actualOutput);
 	}
 	
+	public void testLocCharStreamFromSourceBuffer() throws Exception {
+		SourceBuffer source = SourceBuffer.fromFilename(SIMPLE_FIXTURE_FILENAME);
+		LocatedCharStream stream = new LocatedCharStream(source);
+		String actualOutput = outputFor(new printLCStreamCommand(stream));
+		String expectedOutput = getContents(SIMPLE_LCHAR_FILENAME);
+		assertEquals(expectedOutput, actualOutput);
+	}
+	
+	public void testPrimitiveInterfaceMatchesLocatedChars() throws Exception {
+		LocatedCharStream located = new LocatedCharStream(SourceBuffer.fromFilename(SIMPLE_FIXTURE_FILENAME));
+		LocatedCharStream primitive = new LocatedCharStream(SourceBuffer.fromFilename(SIMPLE_FIXTURE_FILENAME));
+		while(located.hasNext()) {
+			LocatedChar expected = located.next();
+			int position = primitive.position();
+			assertEquals((int)expected.getCharacter(), primitive.peekChar());
+			assertEquals((int)expected.getCharacter(), primitive.nextChar());
+			assertEquals(expected.toString(), new LocatedChar(expected.getCharacter(), primitive.locationOf(position)).toString());
+		}
+		assertEquals(LocatedCharStream.END_OF_INPUT, primitive.nextChar());
+		assertEquals(LocatedCharStream.FLAG_END_OF_INPUT.getLocation(), primitive.locationOf(primitive.position()));
+	}
+	
+	public void testPositionsResolveToLocations() throws Exception {
+		SourceBuffer source = SourceBuffer.fromFilename(SIMPLE_FIXTURE_FILENAME);
+		SourceMap map = source.getSourceMap();
+		for(int offset = 0; offset <= source.length(); offset++) {
+			SourceMap.Position position = map.positionOf(offset);
+			assertSame(map, position.getSourceMap());
+			assertEquals(offset, position.getOffset());
+			assertEquals(source.locationOf(offset).toString(), position.getLocation().toString());
+		}
+		assertEquals(SourceMap.END_OF_INPUT_LOCATION, map.locationOf(source.length()));
+	}
+	
+	public void testMappedFileMatchesInputHandler() throws Exception {
+		File file = File.createTempFile("mapped", ".tan");
+		try {
+			try(PrintStream out = new PrintStream(new FileOutputStream(file))) {
+				String[] terminators = { "\n", "\r\n", "\r" };
+				for(int line = 0; file.length() + 1000 < SourceBuffer.MAPPING_THRESHOLD * 2; line++) {
+					out.print("line " + line + " \u00e9\u4e2d" + terminators[line % terminators.length]);
+					if(line % 1000 == 0) {
+						out.flush();
+					}
+				}
+				out.print("no terminator");
+			}
+			assertTrue(file.length() >= SourceBuffer.MAPPING_THRESHOLD);
+			SourceBuffer mapped = SourceBuffer.fromFilename(file.getPath());
+			SourceBuffer lines = SourceBuffer.fromInputHandler(InputHandler.fromFilename(file.getPath(), "\n"));
+			assertEquals(lines.toString(), mapped.toString());
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	public void testCommentsRunAcrossLines() throws Exception {
+		LocatedCharStream stream = new LocatedCharStream(sourceFor("  # one\ntwo #\n\tx # three\nfour \\n;\n# never\nclosed"));
+		stream.skipWhitespaceAndComments();
+		assertEquals('x', stream.nextChar());
+		stream.skipWhitespaceAndComments();
+		assertEquals('\\', stream.nextChar());
+		assertEquals('n', stream.nextChar());
+		assertEquals(';', stream.nextChar());
+		stream.skipWhitespaceAndComments();
+		assertEquals(LocatedCharStream.END_OF_INPUT, stream.nextChar());
+	}
+	private SourceBuffer sourceFor(String text) throws Exception {
+		File file = File.createTempFile("source", ".tan");
+		try {
+			try(PrintStream out = new PrintStream(new FileOutputStream(file))) {
+				out.print(text);
+			}
+			return SourceBuffer.fromFilename(file.getPath());
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
 	public String locCharStreamOutput(String filename) throws Exception {
 		InputHandler input = InputHandler.fromFilename(filename, "\n");
 		LocatedCharStream stream = new LocatedCharStream(input);
@@ -0,0 +1,67 @@
+package inputHandler.tests;
+
+import static inputHandler.tests.FixtureDefinitions.*;
+
+import inputHandler.LocatedChar;
+import inputHandler.LocatedCharStream;
+import inputHandler.PushbackCharStream;
+import inputHandler.SourceBuffer;
+import junit.framework.TestCase;
+
+public class TestPushbackCharStream extends TestCase {
+	private PushbackCharStream factory() {
+		return PushbackCharStream.make(SourceBuffer.fromFilename(SIMPLE_FIXTURE_FILENAME));
+	}
+
+	public void testPeekAhead() {
+		PushbackCharStream stream = factory();
+		assertEquals('l', stream.peek(3).getCharacter().charValue());
+		assertEquals('h', stream.peek().getCharacter().charValue());
+		assertEquals('l', stream.peekChar(2));
+		assertEquals('h', stream.next().getCharacter().charValue());
+		assertEquals('e', stream.nextChar());
+		assertEquals('l', stream.peek(0).getCharacter().charValue());
+	}
+
+	public void testPushbackIsLastInFirstOut() {
+		PushbackCharStream stream = factory();
+		LocatedChar h = stream.next();
+		LocatedChar e = stream.next();
+		stream.pushback(e);
+		stream.pushback(h);
+		assertEquals(h.toString(), stream.next().toString());
+		assertEquals(e.toString(), stream.peek().toString());
+		assertEquals('e', stream.nextChar());
+		assertEquals('l', stream.nextChar());
+	}
+
+	public void testPrimitivePeekHasNoLimit() {
+		PushbackCharStream stream = factory();
+		String firstLine = simpleFixtureStrings[0] + "\n";
+		for(int k = 0; k < firstLine.length(); k++) {
+			assertEquals(firstLine.charAt(k), stream.peekChar(k));
+		}
+		assertEquals(0, stream.position());
+	}
+
+	public void testPeekHasNoLimit() {
+		PushbackCharStream stream = factory();
+		String text = stream.getSource().toString();
+		for(int k = 0; k < text.length(); k++) {
+			assertEquals(text.charAt(k), stream.peek(k).getCharacter().charValue());
+			assertEquals(stream.locationOf(k).toString(), stream.peek(k).getLocation().toString());
+		}
+		assertSame(LocatedCharStream.FLAG_END_OF_INPUT, stream.peek(text.length()));
+		assertEquals(0, stream.position());
+	}
+
+	public void testPeekAtEndOfInput() {
+		PushbackCharStream stream = factory();
+		while(stream.hasNext()) {
+			stream.next();
+		}
+		assertSame(LocatedCharStream.FLAG_END_OF_INPUT, stream.peek(1));
+		assertFalse(stream.hasNext());
+		assertEquals(LocatedCharStream.END_OF_INPUT, stream.nextChar());
+	}
+}
@@ -0,0 +1,191 @@
+package lexicalAnalyzer;
+
+
+import static lexicalAnalyzer.DFAScanningTable.*;
+import static lexicalAnalyzer.PunctuatorScanningAids.isPunctuatorStartingCharacter;
+
+import inputHandler.LocatedChar;
+import inputHandler.LocatedCharStream;
+import inputHandler.Locator;
+import inputHandler.PushbackCharStream;
+import inputHandler.SourceBuffer;
+import inputHandler.TextLocation;
+import logging.TanLogger;
+import tokens.CharacterToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.StringToken;
+import tokens.Token;
+
+/** A table-driven scanner that produces the same tokens and diagnostics as LexicalAnalyzer.
+ * <p>
+ *  Each token is found by running DFAScanningTable over the input with lookahead, remembering
+ *  the last accepting state, until the table has no transition.  The characters up to that
+ *  accepting state are then consumed; nothing is ever pushed back, and no text is copied
+ *  until a token needs its lexeme.
+ */
+public class DFALexicalAnalyzer extends ScannerImp implements Scanner {
+	private static final DFAScanningTable table = DFAScanningTable.getInstance();
+
+
+	public static DFALexicalAnalyzer make(String filename) {
+		SourceBuffer source = SourceBuffer.fromFilename(filename);
+		return make(source);
+	}
+	public static DFALexicalAnalyzer make(SourceBuffer source) {
+		PushbackCharStream charStream = PushbackCharStream.make(source);
+		return new DFALexicalAnalyzer(charStream);
+	}
+
+	public DFALexicalAnalyzer(PushbackCharStream input) {
+		super(input);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Token-finding main loop
+
+	@Override
+	protected Token findNextToken() {
+		while(true) {
+			input.skipWhitespaceAndComments();
+			int start = input.position();
+			int state = START;
+			int acceptState = DEAD;
+			int acceptLength = 0;
+
+			for(int k = 0; ; k++) {
+				state = table.transition(state, input.peekChar(k));
+				if(state == DEAD) {
+					break;
+				}
+				if(table.isAccepting(state)) {
+					acceptState = state;
+					acceptLength = k + 1;
+				}
+			}
+
+			if(acceptState == DEAD) {
+				int ch = input.peekChar();
+				if(ch == LocatedCharStream.END_OF_INPUT || isPunctuatorStartingCharacter((char)ch)) {
+					return NullToken.make(input.positionOf(start));
+				}
+				input.skip(1);
+				lexicalError(ch, start);
+				continue;
+			}
+
+			input.skip(acceptLength);
+			Token token = tokenFor(acceptState, start, start + acceptLength);
+			if(token != null) {
+				return token;
+			}
+		}
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Token construction, by accept code.
+	// returns null for lexemes that produce no token (errors).
+
+	private Token tokenFor(int acceptState, int start, int end) {
+		Locator location = input.positionOf(start);
+
+		switch(table.acceptCode(acceptState)) {
+		case KEYWORD:
+		case PUNCTUATOR:
+			Lextant lextant = table.lextantFor(acceptState);
+			return LextantToken.make(location, lextant.getLexeme(), lextant);
+		case IDENTIFIER:
+			int symbolId = identifiers.intern(input.getSource(), start, end);
+			return IdentifierToken.make(location, identifiers.lexemeFor(symbolId), symbolId);
+
+		case INTEGER:
+			numberValue.reset();
+			numberValue.accumulate(input.getSource(), start, end);
+			return integerToken(location, start, end);
+		case FLOATING:
+			numberValue.reset();
+			numberValue.accumulate(input.getSource(), start, end);
+			return floatingToken(location, start, end);
+		case MALFORMED_FRACTION:
+		case MALFORMED_EXPONENT_SIGN:
+			lexicalError("Malformed floating-point literal", input.locationOf(decimalPointPosition(start)));
+			return null;
+		case MALFORMED_EXPONENT:
+			lexicalError("Malformed floating-point literal", input.locationOf(end - 1));
+			return null;
+
+		case STRING:
+			return StringToken.make(location, input.getSource(), start + 1, end - start - 2);
+		case STRING_AT_NEWLINE:
+			lexicalError('\n', end - 1);
+			return StringToken.make(location, input.getSource(), start + 1, end - start - 2);
+		case STRING_AT_END:
+			lexicalError(LocatedCharStream.END_OF_INPUT, end);
+			return StringToken.make(location, input.getSource(), start + 1, end - start - 1);
+
+		case CHARACTER:
+			return CharacterToken.make(location, input.getSource(), start + 1);
+		case CHARACTER_AT_END:
+			lexicalError(LocatedCharStream.END_OF_INPUT, end);
+			return null;
+		case CHARACTER_NOT_PRINTABLE:
+			lexicalError(input.charAt(end - 1), end - 1);
+			return null;
+		case CHARACTER_NOT_CLOSED:
+			lexicalError(input.peekChar(), end);
+			return null;
+		case OCTAL_CHARACTER:
+			return octalCharacter(location, start, end);
+
+		default:
+			assert false : "unknown accept code in DFAScanningTable";
+			return null;
+		}
+	}
+
+	private int decimalPointPosition(int start) {
+		int position = start;
+		while(input.charAt(position) != '.') {
+			position++;
+		}
+		return position;
+	}
+
+	// % followed by up to three octal digits; % followed by anything else is the character 0.
+	private Token octalCharacter(Locator location, int start, int end) {
+		int total = 0;
+		int numDigits = 0;
+		for(int i = start + 1; i < end && isOctalDigit(input.charAt(i)); i++) {
+			total = 8 * total + (input.charAt(i) - '0');
+			numDigits++;
+		}
+		if(total > 127) {
+			lexicalError(input.substring(start, start + numDigits + 1) + " Character representation exceeded ", location.getLocation());
+			return null;
+		}
+		return CharacterToken.make(location, String.valueOf((char)total));
+	}
+	private static boolean isOctalDigit(char c) {
+		return '0' <= c && c <= '7';
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Error-reporting
+	private void lexicalError(int ch, int position) {
+		LocatedChar locatedChar = LocatedCharStream.FLAG_END_OF_INPUT;
+		if(ch != LocatedCharStream.END_OF_INPUT) {
+			locatedChar = new LocatedChar((char)ch, input.locationOf(position));
+		}
+		TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
+		log.severe("Lexical error: invalid character " + locatedChar);
+	}
+
+	private void lexicalError(String errorMsg, TextLocation location) {
+		TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
+		log.severe( "Lexical error: " + errorMsg + "at" + location);
+	}
+}
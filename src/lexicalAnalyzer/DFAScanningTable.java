@@ -0,0 +1,335 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import inputHandler.LocatedCharStream;
+
+/** Transition table for DFALexicalAnalyzer.
+ * <p>
+ *  The table is built once, when the class is loaded.  The keyword and punctuator states
+ *  are derived from Keyword.values() and Punctuator.values(); the states for numbers,
+ *  strings, and characters are built by hand to follow the scanning rules of
+ *  LexicalAnalyzer.  Whitespace and comments have no states: the lexers skip them with
+ *  LocatedCharStream.skipWhitespaceAndComments() before running the table.
+ * <p>
+ *  Each state has one column per ASCII character, plus four columns that classify all
+ *  other characters (whitespace, digit, letter, other).  A state's accept code tells what
+ *  has been scanned if the scan stops there; lextantFor(state) gives the Keyword or
+ *  Punctuator for KEYWORD and PUNCTUATOR states.
+ */
+public class DFAScanningTable {
+	public static final int DEAD  = -1;
+	public static final int START =  0;
+
+	// accept codes
+	public static final int NOT_ACCEPTING           = 0;
+	public static final int IDENTIFIER              = 1;
+	public static final int KEYWORD                 = 2;
+	public static final int PUNCTUATOR              = 3;
+	public static final int INTEGER                 = 4;
+	public static final int FLOATING                = 5;
+	public static final int MALFORMED_FRACTION      = 6;	// "12."    error at the decimal point
+	public static final int MALFORMED_EXPONENT      = 7;	// "1.2e"   error at the e
+	public static final int MALFORMED_EXPONENT_SIGN = 8;	// "1.2e+"  error at the decimal point
+	public static final int STRING                  = 9;
+	public static final int STRING_AT_NEWLINE       = 10;	// newline ends the string: error at the newline
+	public static final int STRING_AT_END           = 11;	// end of input ends the string
+	public static final int CHARACTER               = 12;	// 'c'
+	public static final int CHARACTER_AT_END        = 13;	// '   then end of input
+	public static final int CHARACTER_NOT_PRINTABLE = 14;	// 'c  with c not printable
+	public static final int CHARACTER_NOT_CLOSED    = 15;	// 'c  not followed by '
+	public static final int OCTAL_CHARACTER         = 16;	// %ddd
+
+	private static final int ASCII_LIMIT = 128;
+	private static final int OTHER_WHITESPACE = ASCII_LIMIT;
+	private static final int OTHER_DIGIT      = ASCII_LIMIT + 1;
+	private static final int OTHER_LETTER     = ASCII_LIMIT + 2;
+	private static final int OTHER            = ASCII_LIMIT + 3;
+	private static final int NUM_COLUMNS      = ASCII_LIMIT + 4;
+
+	private static final DFAScanningTable instance = new DFAScanningTable();
+
+	private int[] transitions;
+	private int[] acceptCodes;
+	private Lextant[] lextants;
+
+	// used only during construction
+	private List<int[]> rows = new ArrayList<int[]>();
+	private List<Integer> codes = new ArrayList<Integer>();
+	private List<Lextant> lextantList = new ArrayList<Lextant>();
+
+
+	public static DFAScanningTable getInstance() {
+		return instance;
+	}
+
+	private DFAScanningTable() {
+		newState(NOT_ACCEPTING);			// START
+		addNumberStates();
+		addStringStates();
+		addCharacterStates();
+		addIdentifierAndKeywordStates();
+		addPunctuatorStates();
+		freeze();
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// queries
+
+	/** Find the state reached on character c.
+	 * @param state the current state.
+	 * @param c a character as returned by LocatedCharStream.nextChar().
+	 * @return the next state, or DEAD.
+	 */
+	public int transition(int state, int c) {
+		if(c == LocatedCharStream.END_OF_INPUT) {
+			return DEAD;
+		}
+		return transitions[state * NUM_COLUMNS + column(c)];
+	}
+	public int acceptCode(int state) {
+		return acceptCodes[state];
+	}
+	public boolean isAccepting(int state) {
+		return acceptCodes[state] != NOT_ACCEPTING;
+	}
+	public Lextant lextantFor(int state) {
+		return lextants[state];
+	}
+	public int numStates() {
+		return acceptCodes.length;
+	}
+
+	private static int column(int c) {
+		if(c < ASCII_LIMIT) {
+			return c;
+		}
+		if(Character.isWhitespace(c)) {
+			return OTHER_WHITESPACE;
+		}
+		if(Character.isDigit(c)) {
+			return OTHER_DIGIT;
+		}
+		if(Character.isLowerCase(c) || Character.isUpperCase(c)) {
+			return OTHER_LETTER;
+		}
+		return OTHER;
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// character classes, by column
+
+	private static boolean isDigit(int column) {
+		return column == OTHER_DIGIT || (column < ASCII_LIMIT && Character.isDigit(column));
+	}
+	private static boolean isIdentifierStart(int column) {
+		return column == OTHER_LETTER || column == '_' || column == '@' ||
+			   (column < ASCII_LIMIT && (Character.isLowerCase(column) || Character.isUpperCase(column)));
+	}
+	private static boolean isIdentifierChar(int column) {
+		return isIdentifierStart(column) || isDigit(column);
+	}
+	private static boolean isPrintableASCII(int column) {
+		return 32 <= column && column <= 126;
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// construction of the states for each kind of lexeme
+
+	// digits ( . digits ( (e|E) (+|-) digits )? )?
+	private void addNumberStates() {
+		int integer = newState(INTEGER);
+		int point = newState(MALFORMED_FRACTION);
+		int fraction = newState(FLOATING);
+		int exponent = newState(MALFORMED_EXPONENT);
+		int sign = newState(MALFORMED_EXPONENT_SIGN);
+		int exponentDigits = newState(FLOATING);
+
+		setDigitTransitions(START, integer);
+		setDigitTransitions(integer, integer);
+		setTransition(integer, '.', point);
+		setDigitTransitions(point, fraction);
+		setDigitTransitions(fraction, fraction);
+		setTransition(fraction, 'e', exponent);
+		setTransition(fraction, 'E', exponent);
+		setTransition(exponent, '+', sign);
+		setTransition(exponent, '-', sign);
+		setDigitTransitions(sign, exponentDigits);
+		setDigitTransitions(exponentDigits, exponentDigits);
+	}
+
+	// " any* (" | newline)
+	private void addStringStates() {
+		int body = newState(STRING_AT_END);
+		int closed = newState(STRING);
+		int newline = newState(STRING_AT_NEWLINE);
+		setTransition(START, '"', body);
+		setAllTransitions(body, body);
+		setTransition(body, '"', closed);
+		setTransition(body, '\n', newline);
+	}
+
+	// ' printable '    or    % octal? octal? octal?
+	private void addCharacterStates() {
+		int quote = newState(CHARACTER_AT_END);
+		int printable = newState(CHARACTER_NOT_CLOSED);
+		int notPrintable = newState(CHARACTER_NOT_PRINTABLE);
+		int closed = newState(CHARACTER);
+		setTransition(START, '\'', quote);
+		for(int column = 0; column < NUM_COLUMNS; column++) {
+			setTransition(quote, column, isPrintableASCII(column) ? printable : notPrintable);
+		}
+		setTransition(printable, '\'', closed);
+
+		int percent = newState(OCTAL_CHARACTER);
+		int notOctal = newState(OCTAL_CHARACTER);
+		int octal1 = newState(OCTAL_CHARACTER);
+		int octal2 = newState(OCTAL_CHARACTER);
+		int octal3 = newState(OCTAL_CHARACTER);
+		setTransition(START, '%', percent);
+		setAllTransitions(percent, notOctal);
+		setOctalTransitions(percent, octal1);
+		setOctalTransitions(octal1, octal2);
+		setOctalTransitions(octal2, octal3);
+	}
+
+	// identifiers, with a trie for the keywords embedded in the identifier states.
+	private void addIdentifierAndKeywordStates() {
+		int identifier = newState(IDENTIFIER);
+		setIdentifierTransitions(identifier, identifier);
+		for(int column = 0; column < NUM_COLUMNS; column++) {
+			if(isIdentifierStart(column)) {
+				setTransition(START, column, identifier);
+			}
+		}
+
+		for(Keyword keyword: Keyword.values()) {
+			if(isIdentifierShaped(keyword.getLexeme())) {
+				addKeywordPath(keyword, identifier);
+			}
+		}
+	}
+	private void addKeywordPath(Keyword keyword, int identifier) {
+		String lexeme = keyword.getLexeme();
+		int state = START;
+		for(int i = 0; i < lexeme.length(); i++) {
+			int column = lexeme.charAt(i);
+			int next = transitionDuringConstruction(state, column);
+			if(next == identifier || next == DEAD) {
+				next = newState(IDENTIFIER);
+				setIdentifierTransitions(next, identifier);
+				setTransition(state, column, next);
+			}
+			state = next;
+		}
+		setAccept(state, KEYWORD, keyword);
+	}
+	private static boolean isIdentifierShaped(String lexeme) {
+		if(lexeme.isEmpty() || !isIdentifierStart(lexeme.charAt(0))) {
+			return false;
+		}
+		for(int i = 1; i < lexeme.length(); i++) {
+			if(!isIdentifierChar(lexeme.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// a trie of the punctuator lexemes.  Lexemes whose first character already starts
+	// some other kind of lexeme (%) are never scanned as punctuators, and # never reaches
+	// the table, since it starts a comment.
+	private void addPunctuatorStates() {
+		for(Punctuator punctuator: Punctuator.values()) {
+			String lexeme = punctuator.getLexeme();
+			if(!lexeme.isEmpty() && !startsOtherLexeme(lexeme.charAt(0))) {
+				addPunctuatorPath(punctuator);
+			}
+		}
+	}
+	private boolean startsOtherLexeme(char c) {
+		int next = transitionDuringConstruction(START, c);
+		return next != DEAD && lextantList.get(next) == null && codes.get(next) != NOT_ACCEPTING;
+	}
+	private void addPunctuatorPath(Punctuator punctuator) {
+		String lexeme = punctuator.getLexeme();
+		int state = START;
+		for(int i = 0; i < lexeme.length(); i++) {
+			int column = lexeme.charAt(i);
+			int next = transitionDuringConstruction(state, column);
+			if(next == DEAD) {
+				next = newState(NOT_ACCEPTING);
+				setTransition(state, column, next);
+			}
+			state = next;
+		}
+		setAccept(state, PUNCTUATOR, punctuator);
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// construction utilities
+
+	private int newState(int acceptCode) {
+		int[] row = new int[NUM_COLUMNS];
+		Arrays.fill(row, DEAD);
+		rows.add(row);
+		codes.add(acceptCode);
+		lextantList.add(null);
+		return rows.size() - 1;
+	}
+	private void setAccept(int state, int acceptCode, Lextant lextant) {
+		codes.set(state, acceptCode);
+		lextantList.set(state, lextant);
+	}
+	private void setTransition(int from, int column, int to) {
+		rows.get(from)[column] = to;
+	}
+	private int transitionDuringConstruction(int from, int column) {
+		return rows.get(from)[column];
+	}
+	private void setAllTransitions(int from, int to) {
+		for(int column = 0; column < NUM_COLUMNS; column++) {
+			setTransition(from, column, to);
+		}
+	}
+	private void setDigitTransitions(int from, int to) {
+		for(int column = 0; column < NUM_COLUMNS; column++) {
+			if(isDigit(column)) {
+				setTransition(from, column, to);
+			}
+		}
+	}
+	private void setOctalTransitions(int from, int to) {
+		for(int column = '0'; column <= '7'; column++) {
+			setTransition(from, column, to);
+		}
+	}
+	private void setIdentifierTransitions(int from, int to) {
+		for(int column = 0; column < NUM_COLUMNS; column++) {
+			if(isIdentifierChar(column)) {
+				setTransition(from, column, to);
+			}
+		}
+	}
+
+	private void freeze() {
+		int numStates = rows.size();
+		transitions = new int[numStates * NUM_COLUMNS];
+		acceptCodes = new int[numStates];
+		lextants = new Lextant[numStates];
+		for(int state = 0; state < numStates; state++) {
+			System.arraycopy(rows.get(state), 0, transitions, state * NUM_COLUMNS, NUM_COLUMNS);
+			acceptCodes[state] = codes.get(state);
+			lextants[state] = lextantList.get(state);
+		}
+		rows = null;
+		codes = null;
+		lextantList = null;
+	}
+}
@@ -0,0 +1,165 @@
+package lexicalAnalyzer;
+
+/** Accumulates the value of a numeric literal digit by digit, as the literal is scanned.
+ * <p>
+ *  Integer literals are exact up to Integer.MAX_VALUE, and <code>fitsInInt()</code>
+ *  reports anything larger.  A floating-point literal <code>m.f</code> or
+ *  <code>m.f(e|E)(+|-)x</code> is held as a long mantissa of at most
+ *  MAX_EXACT_DIGITS significant digits and a power of ten.  When both are small
+ *  enough that the mantissa and the power of ten are exact doubles, one
+ *  multiplication or division gives the correctly rounded value.  Otherwise
+ *  <code>hasExactDouble()</code> is false, and the caller converts the text with
+ *  Double.parseDouble.  Non-ASCII digits also make it false, since
+ *  Double.parseDouble does not accept them.
+ */
+public class DecimalAccumulator {
+	public static final int MAX_EXACT_DIGITS = 15;			// 10^15 < 2^53
+	private static final int MAX_EXACT_POWER = 22;			// 10^22 is the largest exact power of ten
+	private static final long INT_LIMIT = Integer.MAX_VALUE;
+	private static final int EXPONENT_LIMIT = 100000;
+	private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER + 1];
+	static {
+		POWERS_OF_TEN[0] = 1.0;
+		for(int i = 1; i <= MAX_EXACT_POWER; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+		}
+	}
+
+	private long integerValue;
+	private boolean intOverflow;
+	private long mantissa;
+	private int significantDigits;
+	private int powerOfTen;
+	private boolean inFraction;
+	private int exponent;
+	private boolean exponentNegative;
+	private boolean exact;
+
+	public DecimalAccumulator() {
+		reset();
+	}
+	public void reset() {
+		integerValue = 0;
+		intOverflow = false;
+		mantissa = 0;
+		significantDigits = 0;
+		powerOfTen = 0;
+		inFraction = false;
+		exponent = 0;
+		exponentNegative = false;
+		exact = true;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// accumulating
+
+	/** Add a digit of the integer part, or of the fraction part after <code>startFraction()</code>.
+	 * @param c the digit character; Character.isDigit(c) must be true.
+	 */
+	public void addDigit(int c) {
+		int digit = Character.digit(c, 10);
+		if(!isASCIIDigit(c)) {
+			exact = false;
+		}
+		if(!inFraction && !intOverflow) {
+			integerValue = 10 * integerValue + digit;
+			intOverflow = integerValue > INT_LIMIT;
+		}
+		if(significantDigits == 0 && digit == 0) {
+			if(inFraction) {
+				powerOfTen--;
+			}
+			return;
+		}
+		if(significantDigits == MAX_EXACT_DIGITS) {
+			exact = false;
+			return;
+		}
+		mantissa = 10 * mantissa + digit;
+		significantDigits++;
+		if(inFraction) {
+			powerOfTen--;
+		}
+	}
+	public void startFraction() {
+		inFraction = true;
+	}
+	public void setExponentNegative() {
+		exponentNegative = true;
+	}
+	public void addExponentDigit(int c) {
+		if(!isASCIIDigit(c)) {
+			exact = false;
+		}
+		if(exponent < EXPONENT_LIMIT) {
+			exponent = 10 * exponent + Character.digit(c, 10);
+		}
+	}
+	private static boolean isASCIIDigit(int c) {
+		return '0' <= c && c <= '9';
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// results
+
+	public boolean fitsInInt() {
+		return !intOverflow;
+	}
+	public int intValue() {
+		assert fitsInInt();
+		return (int)integerValue;
+	}
+	public boolean hasExactDouble() {
+		if(!exact) {
+			return false;
+		}
+		if(mantissa == 0) {
+			return true;
+		}
+		int power = totalPowerOfTen();
+		return -MAX_EXACT_POWER <= power && power <= MAX_EXACT_POWER;
+	}
+	public double doubleValue() {
+		assert hasExactDouble();
+		if(mantissa == 0) {
+			return 0.0;
+		}
+		int power = totalPowerOfTen();
+		if(power >= 0) {
+			return mantissa * POWERS_OF_TEN[power];
+		}
+		return mantissa / POWERS_OF_TEN[-power];
+	}
+	private int totalPowerOfTen() {
+		return powerOfTen + (exponentNegative ? -exponent : exponent);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// decoding a whole literal, for scanners that find its extent first.
+	// text[start, end) must be a well-formed integer or floating-point literal.
+
+	public void accumulate(CharSequence text, int start, int end) {
+		int i = start;
+		for(; i < end && Character.isDigit(text.charAt(i)); i++) {
+			addDigit(text.charAt(i));
+		}
+		if(i < end && text.charAt(i) == '.') {
+			startFraction();
+			for(i++; i < end && Character.isDigit(text.charAt(i)); i++) {
+				addDigit(text.charAt(i));
+			}
+		}
+		if(i < end) {					// e or E, then + or -
+			i++;
+			if(text.charAt(i) == '-') {
+				setExponentNegative();
+			}
+			for(i++; i < end; i++) {
+				addExponentDigit(text.charAt(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package lexicalAnalyzer;
+
+import java.util.Arrays;
+
+import tokens.IdentifierToken;
+
+/** The distinct identifiers seen by one lexer, each with a stable int symbol ID.
+ * <p>
+ *  IDs are handed out densely from 0 in order of first appearance, so they can
+ *  index arrays.  Each identifier is hashed once, on the way in; later phases
+ *  can then compare and key on the ID instead of the lexeme.
+ * <p>
+ *  The table is open-addressed with linear probing, and holds only ints apart
+ *  from the lexeme Strings themselves.  A lexeme String is built (and
+ *  <code>intern()</code>ed) once, the first time its identifier is seen.
+ */
+public class IdentifierTable {
+	private static final int INITIAL_CAPACITY = 256;		// must be a power of two
+	private static final int EMPTY = -1;
+
+	private int[] slots;			// symbol ID, or EMPTY
+	private int[] hashes;			// hash of the lexeme in the corresponding slot
+	private String[] lexemes;		// indexed by symbol ID
+	private int size;
+
+	public IdentifierTable() {
+		slots = newSlots(INITIAL_CAPACITY);
+		hashes = new int[INITIAL_CAPACITY];
+		lexemes = new String[INITIAL_CAPACITY / 2];
+		size = 0;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// queries
+
+	public int size() {
+		return size;
+	}
+	/** Get the lexeme of an identifier.
+	 * @param symbolId an ID returned by <code>intern</code>.
+	 * @return the canonical (interned) lexeme for that ID.
+	 */
+	public String lexemeFor(int symbolId) {
+		return lexemes[symbolId];
+	}
+	/** Find the ID of an identifier without adding it.
+	 * @param lexeme the identifier.
+	 * @return its symbol ID, or IdentifierToken.NO_SYMBOL_ID if it has not been interned.
+	 */
+	public int lookup(String lexeme) {
+		int hash = LexemeMap.hash(lexeme, 0, lexeme.length());
+		int slot = findSlot(lexeme, 0, lexeme.length(), hash);
+		if(slots[slot] == EMPTY) {
+			return IdentifierToken.NO_SYMBOL_ID;
+		}
+		return slots[slot];
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// interning
+
+	public int intern(String lexeme) {
+		return intern(lexeme, 0, lexeme.length());
+	}
+	/** Get the ID of an identifier given as a range of characters, adding it if it is new.
+	 * @param text the characters.
+	 * @param start the offset of the first character of the identifier.
+	 * @param end the offset just past the last character of the identifier.
+	 * @return the symbol ID of the identifier.
+	 */
+	public int intern(CharSequence text, int start, int end) {
+		int hash = LexemeMap.hash(text, start, end);
+		int slot = findSlot(text, start, end, hash);
+		if(slots[slot] != EMPTY) {
+			return slots[slot];
+		}
+
+		int symbolId = size++;
+		if(symbolId == lexemes.length) {
+			lexemes = Arrays.copyOf(lexemes, lexemes.length * 2);
+		}
+		lexemes[symbolId] = text.subSequence(start, end).toString().intern();
+		slots[slot] = symbolId;
+		hashes[slot] = hash;
+
+		if(2 * size > slots.length) {
+			rehash(slots.length * 2);
+		}
+		return symbolId;
+	}
+
+	// the slot holding this lexeme, or the empty slot where it belongs.
+	private int findSlot(CharSequence text, int start, int end, int hash) {
+		int mask = slots.length - 1;
+		int slot = spread(hash) & mask;
+		while(slots[slot] != EMPTY) {
+			if(hashes[slot] == hash && LexemeMap.matches(lexemes[slots[slot]], text, start, end)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	private void rehash(int capacity) {
+		int[] oldSlots = slots;
+		int[] oldHashes = hashes;
+		slots = newSlots(capacity);
+		hashes = new int[capacity];
+
+		int mask = capacity - 1;
+		for(int i = 0; i < oldSlots.length; i++) {
+			if(oldSlots[i] == EMPTY) {
+				continue;
+			}
+			int slot = spread(oldHashes[i]) & mask;
+			while(slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = oldSlots[i];
+			hashes[slot] = oldHashes[i];
+		}
+	}
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+	private static int[] newSlots(int capacity) {
+		int[] result = new int[capacity];
+		Arrays.fill(result, EMPTY);
+		return result;
+	}
+}
@@ -44,22 +44,14 @@ public enum Keyword implements Lextant {
 		return prototype;
 	}
 	
+	private static LexemeMap<Keyword> lexemeToKeyword = new LexemeMap<Keyword>(values(), NULL_KEYWORD);
 	public static Keyword forLexeme(String lexeme) {
-		for(Keyword keyword: values()) {
-			if(keyword.lexeme.equals(lexeme)) {
-				return keyword;
-			}
-		}
-		return NULL_KEYWORD;
+		return lexemeToKeyword.forLexeme(lexeme);
+	}
+	public static Keyword forLexeme(CharSequence text, int start, int end) {
+		return lexemeToKeyword.forLexeme(text, start, end);
 	}
 	public static boolean isAKeyword(String lexeme) {
 		return forLexeme(lexeme) != NULL_KEYWORD;
 	}
-	
-	/*   the following hashtable lookup can replace the serial-search implementation of forLexeme() above. It is faster but less clear. 
-	private static LexemeMap<Keyword> lexemeToKeyword = new LexemeMap<Keyword>(values(), NULL_KEYWORD);
-	public static Keyword forLexeme(String lexeme) {
-		return lexemeToKeyword.forLexeme(lexeme);
-	}
-	*/
 }
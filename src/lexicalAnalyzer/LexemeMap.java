@@ -1,25 +1,118 @@
 package lexicalAnalyzer;
 
-import java.util.HashMap;
-import java.util.Map;
-
 
+/** Lookup of Lextants by lexeme, using a perfect hash.
+ * <p>
+ *  When the map is built, the table size and hash multiplier are chosen so that
+ *  no two lexemes share a slot.  A lookup then hashes the lexeme, checks the
+ *  single lexeme in that slot, and is done.  Lexemes may be looked up as
+ *  Strings or as ranges of a CharSequence, so no String need be built to
+ *  classify a piece of the source text.
+ * <p>
+ *  If several values share a lexeme, the first one in the values array wins.
+ */
 public class LexemeMap<T extends Lextant> {
-	private Map<String, T> lexemeToT = new HashMap<String, T>();
+	private static final int GOLDEN_MULTIPLIER = 0x9E3779B1;
+	private static final int MULTIPLIERS_PER_SIZE = 64;
+
+	private String[] lexemes;
+	private Object[] values;
+	private int multiplier;
+	private int shift;
 	private T nullValue;
 
 	public LexemeMap(T[] values, T nullValue) {
 		this.nullValue = nullValue;
 		buildMap(values);
 	}
-	
+
 	public T forLexeme(String lexeme) {
-		return lexemeToT.getOrDefault(lexeme, nullValue);
+		return forLexeme(lexeme, 0, lexeme.length());
+	}
+	/** Look up a lexeme given as a range of characters.
+	 * @param text the characters.
+	 * @param start the offset of the first character of the lexeme.
+	 * @param end the offset just past the last character of the lexeme.
+	 * @return the value with that lexeme, or the nullValue if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public T forLexeme(CharSequence text, int start, int end) {
+		int slot = slot(hash(text, start, end), multiplier, shift);
+		String candidate = lexemes[slot];
+		if(candidate != null && matches(candidate, text, start, end)) {
+			return (T)this.values[slot];
+		}
+		return nullValue;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// hashing
+	// hash() is the same polynomial as String.hashCode().
+
+	public static int hash(CharSequence text, int start, int end) {
+		int result = 0;
+		for(int i = start; i < end; i++) {
+			result = 31 * result + text.charAt(i);
+		}
+		return result;
+	}
+	private static int slot(int hash, int multiplier, int shift) {
+		return (hash * multiplier) >>> shift;
 	}
-	
+	public static boolean matches(String lexeme, CharSequence text, int start, int end) {
+		if(lexeme.length() != end - start) {
+			return false;
+		}
+		for(int i = 0; i < lexeme.length(); i++) {
+			if(lexeme.charAt(i) != text.charAt(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// construction: try successively larger tables until some multiplier gives no collisions.
+
 	private void buildMap(T[] values) {
-		for(T token: values) {
-			lexemeToT.put(token.getLexeme(), token);
+		for(int bits = bitsFor(values.length); ; bits++) {
+			for(int i = 0; i < MULTIPLIERS_PER_SIZE; i++) {
+				if(tryBuild(values, bits, GOLDEN_MULTIPLIER + 2 * i)) {
+					return;
+				}
+			}
+		}
+	}
+	private boolean tryBuild(T[] values, int bits, int multiplier) {
+		int size = 1 << bits;
+		int shift = 32 - bits;
+		String[] lexemes = new String[size];
+		Object[] slotValues = new Object[size];
+
+		for(T value: values) {
+			String lexeme = value.getLexeme();
+			int slot = slot(lexeme.hashCode(), multiplier, shift);
+			if(lexemes[slot] == null) {
+				lexemes[slot] = lexeme;
+				slotValues[slot] = value;
+			}
+			else if(!lexemes[slot].equals(lexeme)) {
+				return false;
+			}
+		}
+		this.lexemes = lexemes;
+		this.values = slotValues;
+		this.multiplier = multiplier;
+		this.shift = shift;
+		return true;
+	}
+	private static int bitsFor(int numValues) {
+		int bits = 1;
+		while((1 << bits) < numValues) {
+			bits++;
 		}
+		return bits;
 	}
 }
@@ -2,17 +2,16 @@ package lexicalAnalyzer;
 
 
 import logging.TanLogger;
-import inputHandler.InputHandler;
 import inputHandler.LocatedChar;
 import inputHandler.LocatedCharStream;
 import inputHandler.PushbackCharStream;
+import inputHandler.SourceBuffer;
+import inputHandler.TextLocation;
 import tokens.IdentifierToken;
 import tokens.LextantToken;
 import tokens.NullToken;
-import tokens.NumberToken;
 import tokens.StringToken;
 import tokens.CharacterToken;
-import tokens.FloatingLiteralToken;
 import tokens.Token;
 
 import static lexicalAnalyzer.PunctuatorScanningAids.*;
@@ -22,8 +21,11 @@ public class LexicalAnalyzer extends ScannerImp implements Scanner {
 
 
 	public static LexicalAnalyzer make(String filename) {
-		InputHandler handler = InputHandler.fromFilename(filename);
-		PushbackCharStream charStream = PushbackCharStream.make(handler);
+		SourceBuffer source = SourceBuffer.fromFilename(filename);
+		return make(source);
+	}
+	public static LexicalAnalyzer make(SourceBuffer source) {
+		PushbackCharStream charStream = PushbackCharStream.make(source);
 		return new LexicalAnalyzer(charStream);
 	}
 
@@ -37,248 +39,177 @@ public class LexicalAnalyzer extends ScannerImp implements Scanner {
 
 	@Override
 	protected Token findNextToken() {
-		LocatedChar ch = nextNonWhitespaceChar();
-		LocatedChar pk;
-		// handle comments   # ... (# | \n)
-		while(ch.isComment()) {
-			ch = input.next();
-			pk = input.peek();
-			while(!(ch.isComment() || !(ch.isSlash() && pk.isN()))) {
-				ch = input.next();
-				pk = input.peek();
-			}
-			ch = nextNonWhitespaceChar();
-		}
+		input.skipWhitespaceAndComments();
+		int ch = input.nextChar();
+		int start = positionOf(ch);
 		
-		if(ch.isDigit()) {
-			return scanNumber(ch);
+		if(isDigit(ch)) {
+			return scanNumber(ch, start);
 		}
 		// handle strings
-		else if(ch.isString()) { 
-			return scanString(ch); 
+		else if(ch == '"') { 
+			return scanString(start); 
 		} 
 		// handle characters else
-		else if(ch.getCharacter() == '%' || ch.getCharacter() == '\'') { 
-			return scanCharacter(ch); 
+		else if(ch == '%' || ch == '\'') { 
+			return scanCharacter(ch, start); 
 		}
-		else if(ch.isLowerCase() || ch.isUpperCase() || ch.isUnderScore() || ch.isAtSign()) {
-			return scanIdentifier(ch);
+		else if(isIdentifierStart(ch)) {
+			return scanIdentifier(start);
 		}
 		else if(isPunctuatorStart(ch)) {
-			return PunctuatorScanner.scan(ch, input);
+			return PunctuatorScanner.scan(start, input);
 		}
 		else if(isEndOfInput(ch)) {
-			return NullToken.make(ch);
+			return NullToken.make(input.positionOf(start));
 		}
 		else {
-			lexicalError(ch);
+			lexicalError(ch, start);
 			return findNextToken();
 		}
 	}
 
 
-	private LocatedChar nextNonWhitespaceChar() {
-		LocatedChar ch = input.next();
-		while(ch.isWhitespace()) {
-			ch = input.next();
+	// the position of ch, which must be the character just returned by input.nextChar().
+	private int positionOf(int ch) {
+		if(isEndOfInput(ch)) {
+			return input.position();
 		}
-		return ch;
+		return input.position() - 1;
 	}
 	
 	
 	//////////////////////////////////////////////////////////////////////////////
 	// Integer lexical analysis	
 
-	private Token scanNumber(LocatedChar firstChar) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(firstChar.getCharacter());
-		
-		appendSubsequentDigits(buffer);						// Keep appending to buffer until not a digit
+	// the value is accumulated in numberValue as the digits are scanned.
+	private Token scanNumber(int firstChar, int start) {
+		numberValue.reset();
+		numberValue.addDigit(firstChar);
+		accumulateSubsequentDigits();
 		
-		if(input.peek().getCharacter() == decimal_point) {
-			LocatedChar decimal = input.next();
-			buffer.append(decimal.getCharacter());
-			if(!input.peek().isDigit()) {
-				lexicalError("Malformed floating-point literal", decimal);
+		if(input.peekChar() == decimal_point) {
+			int decimal = input.position();
+			input.skip(1);
+			if(!isDigit(input.peekChar())) {
+				lexicalError("Malformed floating-point literal", input.locationOf(decimal));
 				return findNextToken();
 			}
-			appendSubsequentDigits(buffer);					// After decimal point, keep appending number until end or E
+			numberValue.startFraction();
+			accumulateSubsequentDigits();					// After decimal point, keep accumulating digits until end or E
 			
-			LocatedChar eE = input.next();
-			if(eE.getCharacter() == 'e' || eE.getCharacter() == 'E') {
-				buffer.append(eE.getCharacter());			// Append e/E
-				if ( input.peek().getCharacter() != '+' && input.peek().getCharacter() != '-' ) {
-					lexicalError("Malformed floating-point literal", eE);
+			int eE = input.peekChar();
+			if(eE == 'e' || eE == 'E') {
+				int exponent = input.position();
+				input.skip(1);								// Skip e/E
+				if ( input.peekChar() != '+' && input.peekChar() != '-' ) {
+					lexicalError("Malformed floating-point literal", input.locationOf(exponent));
 					return findNextToken();
 				}
-				LocatedChar plusminus = input.next();
-				buffer.append(plusminus.getCharacter());    // Append +/-
-				if(!input.peek().isDigit()) {
-					lexicalError("Malformed floating-point literal", decimal);
+				if(input.nextChar() == '-') {				// Skip +/-
+					numberValue.setExponentNegative();
+				}
+				if(!isDigit(input.peekChar())) {
+					lexicalError("Malformed floating-point literal", input.locationOf(decimal));
 					return findNextToken();
 				}
-				appendSubsequentDigits(buffer);	
-			}
-			else {
-				input.pushback(eE);
+				while(isDigit(input.peekChar())) {
+					numberValue.addExponentDigit(input.nextChar());
+				}
 			}
-			return FloatingLiteralToken.make(firstChar, buffer.toString());
+			return floatingToken(input.positionOf(start), start, input.position());
 		}
-		return NumberToken.make(firstChar, buffer.toString());
+		return integerToken(input.positionOf(start), start, input.position());
 	}
 	
 
-	private void appendSubsequentDigits(StringBuffer buffer) {
-		LocatedChar c = input.next();
-		while(c.isDigit()) {
-			buffer.append(c.getCharacter());
-			c = input.next();
+	private void accumulateSubsequentDigits() {
+		while(isDigit(input.peekChar())) {
+			numberValue.addDigit(input.nextChar());
 		}
-		input.pushback(c);
 	}
 	
 	
 	//////////////////////////////////////////////////////////////////////////////
 	// String lexical analysis
+	// the lexeme is the text between the quotes, as a slice of the source.
 	
-	private Token scanString(LocatedChar firstChar) {
-		StringBuffer buffer = new StringBuffer();
-		appendSubsequentString(buffer);
-		
-		//buffer.append(firstChar.getCharacter());
-		
-		return StringToken.make(firstChar, buffer.toString());
-	}
-	
-	private void appendSubsequentString(StringBuffer buffer) {
-		LocatedChar c = input.next();
+	private Token scanString(int start) {
+		int c = input.nextChar();
 		
 		// read until the next double quote or newline
-		while (!( c.getCharacter() == '"' || c.getCharacter() == '\n' )){
-			buffer.append(c.getCharacter());
-			c = input.next();
+		while (!( c == '"' || c == '\n' || isEndOfInput(c) )){
+			c = input.nextChar();
 		}
+		int end = positionOf(c);
 		
 		// if the string is not closed by a double quote, throw an error
-		if(!(c.getCharacter() == '"')) {
-			lexicalError(c);
+		if(!(c == '"')) {
+			lexicalError(c, end);
 		}
+		return StringToken.make(input.positionOf(start), input.getSource(), start + 1, end - (start + 1));
 	}
 	
 	//////////////////////////////////////////////////////////////////////////////
 	// Character lexical analysis
 	
-	private Token scanCharacter(LocatedChar firstChar) {
-		StringBuffer buffer = new StringBuffer();
-//		buffer.append(firstChar.getCharacter());
-//		if (appendSubsequentCharacter(buffer)) {
-//			return CharacterToken.make(firstChar.getLocation(), buffer.toString());
-//		} 
-//		else {
-//			return findNextToken();
-//		}
-		LocatedChar c = input.next();
-		LocatedChar p = input.peek();
-		int first, second, third;
+	private Token scanCharacter(int firstChar, int start) {
+		int c = input.nextChar();
+		if(firstChar == '%') {
+			return scanOctalCharacter(c, start);
+		}
+
+		int p = input.peekChar();
+		if(isASCII(c) && p == '\'') {
+			input.nextChar();
+			return CharacterToken.make(input.positionOf(start), input.getSource(), start + 1);
+		}
+		if(!isASCII(c)) {
+			lexicalError(c, positionOf(c));
+		}
+		else {
+			lexicalError(p, input.position());
+		}
+		return findNextToken();
+	}
+	// % followed by up to three octal digits; % followed by anything else is the character 0.
+	private Token scanOctalCharacter(int c, int start) {
 		int total = 0;
-		if(firstChar.getCharacter() == '\'') {
-			if(c.isASCII() && p.getCharacter() == '\'') {
-				buffer.append(c.getCharacter());
-				input.next();
-			}
-			else {
-				if(!c.isASCII()) {
-					lexicalError(c);
-				}
-				else if(p.getCharacter() != '\'') {
-					lexicalError(p);
-				}
-			return findNextToken();
+		if(isOctalDigit(c)) {
+			total = digitValue(c);
+			for(int i = 1; i < 3 && isOctalDigit(input.peekChar()); i++) {
+				total = 8 * total + digitValue(input.nextChar());
 			}
 		}
-		if(firstChar.getCharacter() == '%') {
-			StringBuffer wrong_buffer = new StringBuffer();
-			wrong_buffer.append(firstChar.getCharacter());
-			if(c.isDigit() && Integer.parseInt(String.valueOf(c.getCharacter())) < 8) {	// first octal
-				first = Integer.parseInt(String.valueOf(c.getCharacter()));
-				wrong_buffer.append(c.getCharacter());
-				c = input.next();
-				if(c.isDigit() && Integer.parseInt(String.valueOf(c.getCharacter())) < 8) { // second octal
-					second = Integer.parseInt(String.valueOf(c.getCharacter()));
-					wrong_buffer.append(c.getCharacter());
-					c = input.next();
-					if(c.isDigit() && Integer.parseInt(String.valueOf(c.getCharacter())) < 8) { // third octal
-						third = Integer.parseInt(String.valueOf(c.getCharacter()));
-						wrong_buffer.append(c.getCharacter());
-						total = (8*8*first) + (8*second) + third;
-					}
-					else {
-						total = (8*first) + second;
-						input.pushback(c);
-					}
-				}
-				else {
-					total = first;
-					input.pushback(c);
-				}
-			}
-			
-			if(total >= 0 && total <= 127) {
-				buffer.append((char)total);
-			}
-			else {
-				lexicalError(wrong_buffer.toString() + " Character representation exceeded ", firstChar);
-				return findNextToken();
-			}
+		
+		if(total > 127) {
+			lexicalError(input.substring(start, input.position()) + " Character representation exceeded ", input.locationOf(start));
+			return findNextToken();
 		}
-		return CharacterToken.make(firstChar.getLocation(), buffer.toString());
+		return CharacterToken.make(input.positionOf(start), String.valueOf((char)total));
 	}
 	
-//	private boolean appendSubsequentCharacter(StringBuffer buffer) {
-//		LocatedChar c = input.next();
-//		while(c.isDigit()) {
-//			buffer.append(c.getCharacter());
-//			c = input.next();
-//		}
-//		input.pushback(c);
-//		
-//		if(c.isASCII()){
-//			buffer.append(c.getCharacter());
-//			c = input.peek();
-//		
-//			if(c.getCharacter() == '%') {
-//				buffer.append(input.next().getCharacter());
-//				return true;
-//			}
-//		}
-//	
-//		lexicalError(c);
-//		return false;
-//	}
-	
 	//////////////////////////////////////////////////////////////////////////////
 	// Identifier and keyword lexical analysis	
 
-	private Token scanIdentifier(LocatedChar firstChar) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(firstChar.getCharacter());
-		appendSubsequentLowercase(buffer);
+	private Token scanIdentifier(int start) {
+		skipSubsequentIdentifierChars();
+		int end = input.position();
 
-		String lexeme = buffer.toString();
-		if(Keyword.isAKeyword(lexeme)) {
-			return LextantToken.make(firstChar, lexeme, Keyword.forLexeme(lexeme));
+		SourceBuffer source = input.getSource();
+		Keyword keyword = Keyword.forLexeme(source, start, end);
+		if(keyword != Keyword.NULL_KEYWORD) {
+			return LextantToken.make(input.positionOf(start), keyword.getLexeme(), keyword);
 		}
 		else {
-			return IdentifierToken.make(firstChar, lexeme);
+			int symbolId = identifiers.intern(source, start, end);
+			return IdentifierToken.make(input.positionOf(start), identifiers.lexemeFor(symbolId), symbolId);
 		}
 	}
-	private void appendSubsequentLowercase(StringBuffer buffer) {
-		LocatedChar c = input.next();
-		while(c.isLowerCase() || c.isUpperCase() || c.isUnderScore() || c.isAtSign() || c.isDigit()) {
-			buffer.append(c.getCharacter());
-			c = input.next();
+	private void skipSubsequentIdentifierChars() {
+		while(isIdentifierChar(input.peekChar())) {
+			input.skip(1);
 		}
-		input.pushback(c);
 	}
 	
 	
@@ -319,14 +250,32 @@ public class LexicalAnalyzer extends ScannerImp implements Scanner {
 
 	//////////////////////////////////////////////////////////////////////////////
 	// Character-classification routines specific to tan scanning.	
+	// All take a character as returned by input.nextChar(), which may be END_OF_INPUT.
 
-	private boolean isPunctuatorStart(LocatedChar lc) {
-		char c = lc.getCharacter();
-		return isPunctuatorStartingCharacter(c);
+	private static boolean isDigit(int c) {
+		return Character.isDigit(c);
 	}
-
-	private boolean isEndOfInput(LocatedChar lc) {
-		return lc == LocatedCharStream.FLAG_END_OF_INPUT;
+	private static boolean isOctalDigit(int c) {
+		return isDigit(c) && digitValue(c) < 8;
+	}
+	private static int digitValue(int c) {
+		return Character.digit(c, 10);
+	}
+	private static boolean isIdentifierStart(int c) {
+		return Character.isLowerCase(c) || Character.isUpperCase(c) || c == '_' || c == '@';
+	}
+	private static boolean isIdentifierChar(int c) {
+		return isIdentifierStart(c) || isDigit(c);
+	}
+	// printable ASCII: decimal 32 through 126
+	private static boolean isASCII(int c) {
+		return (c >= 32) && (c <= 126);
+	}
+	private static boolean isPunctuatorStart(int c) {
+		return !isEndOfInput(c) && isPunctuatorStartingCharacter((char)c);
+	}
+	private static boolean isEndOfInput(int c) {
+		return c == LocatedCharStream.END_OF_INPUT;
 	}
 	
 	
@@ -336,10 +285,18 @@ public class LexicalAnalyzer extends ScannerImp implements Scanner {
 		TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
 		log.severe("Lexical error: invalid character " + ch);
 	}
+	private void lexicalError(int ch, int position) {
+		if(isEndOfInput(ch)) {
+			lexicalError(LocatedCharStream.FLAG_END_OF_INPUT);
+		}
+		else {
+			lexicalError(new LocatedChar((char)ch, input.locationOf(position)));
+		}
+	}
 	
-	private void lexicalError(String errorMsg, LocatedChar decimal) {
+	private void lexicalError(String errorMsg, TextLocation location) {
 		TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
-		log.severe( "Lexical error: " + errorMsg + "at" + decimal.getLocation());
+		log.severe( "Lexical error: " + errorMsg + "at" + location);
 	}
 
 	
@@ -0,0 +1,132 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import inputHandler.PushbackCharStream;
+import inputHandler.SourceBuffer;
+import logging.TanLogger;
+
+/** Scans a large source into a TokenBuffer on several threads.
+ * <p>
+ *  The source is split into chunks just after newlines, and each chunk is scanned
+ *  into its own TokenBuffer on a ForkJoinPool.  A chunk's scan takes every token that
+ *  starts inside the chunk, reading past the chunk's end if a token or comment does,
+ *  and records where the next token starts.  Since positions are offsets into the
+ *  whole source, the chunks' tokens already carry the right locations.
+ * <p>
+ *  A newline is usually, but not always, between tokens: a comment   # ... (# | \n)
+ *  may run over several lines.  So the chunks are appended in order on the calling
+ *  thread, and a chunk is kept only if its first token starts where the previous
+ *  chunk's scan ended.  Otherwise the chunk began inside a comment (or some other
+ *  lexeme), and it is scanned again, serially, from where the previous chunk ended.
+ *  The calling thread also renumbers identifiers and logs each chunk's lexical
+ *  errors.  If scanning stopped early in a chunk (as it does at a character that
+ *  cannot start any token), later chunks are dropped, along with their errors.  The
+ *  result is the same, token for token and error for error, as a serial scan.
+ */
+public class ParallelLexer {
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	private static class Chunk {
+		int start;		// where the chunk's first token starts
+		int end;
+		TokenBuffer buffer;
+		List<String> errors;
+	}
+
+
+	public static TokenBuffer lex(String filename) {
+		return lex(SourceBuffer.fromFilename(filename));
+	}
+	public static TokenBuffer lex(SourceBuffer source) {
+		return lex(source, DEFAULT_CHUNK_SIZE);
+	}
+	/** Scan a source in chunks of roughly a given size.
+	 * @param source the text to scan.
+	 * @param chunkSize the number of characters above which a range is split.
+	 * @return a buffer holding all the tokens of the source.
+	 */
+	public static TokenBuffer lex(SourceBuffer source, int chunkSize) {
+		List<Chunk> chunks = ForkJoinPool.commonPool().invoke(new ChunkTask(source, 0, source.length(), chunkSize));
+		return stitch(source, chunks);
+	}
+
+	private static TokenBuffer stitch(SourceBuffer source, List<Chunk> chunks) {
+		TokenBuffer result = new TokenBuffer(source);
+		TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
+
+		int resume = chunks.get(0).start;
+		for(Chunk chunk: chunks) {
+			if(chunk.start != resume) {
+				chunk = scan(source, resume, chunk.end);
+			}
+			for(String error: chunk.errors) {
+				log.severe(error);
+			}
+			result.append(chunk.buffer);
+			if(chunk.buffer.getEndPosition() < chunk.end) {
+				break;
+			}
+			resume = chunk.buffer.getEndPosition();
+		}
+		return result;
+	}
+	// the tokens that start in [start, end), read from a stream that runs to the end of the source.
+	private static Chunk scan(SourceBuffer source, int start, int end) {
+		Chunk chunk = new Chunk();
+		chunk.end = end;
+		chunk.buffer = new TokenBuffer(source);
+		chunk.errors = new ArrayList<String>();
+		PushbackCharStream input = PushbackCharStream.make(source, start, source.length());
+		input.skipWhitespaceAndComments();
+		chunk.start = input.position();
+		new TokenBufferFiller(input, chunk.buffer, chunk.errors).fill(end);
+		return chunk;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// the fork/join task: returns the chunks of its range, in order.
+
+	@SuppressWarnings("serial")
+	private static class ChunkTask extends RecursiveTask<List<Chunk>> {
+		private SourceBuffer source;
+		private int start;
+		private int end;
+		private int chunkSize;
+
+		ChunkTask(SourceBuffer source, int start, int end, int chunkSize) {
+			this.source = source;
+			this.start = start;
+			this.end = end;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected List<Chunk> compute() {
+			int split = splitPoint();
+			if(end - start <= chunkSize || split == end) {
+				List<Chunk> result = new ArrayList<Chunk>();
+				result.add(scan(source, start, end));
+				return result;
+			}
+			ChunkTask second = new ChunkTask(source, split, end, chunkSize);
+			second.fork();
+			List<Chunk> result = new ChunkTask(source, start, split, chunkSize).compute();
+			result.addAll(second.join());
+			return result;
+		}
+		// just past the first newline at or after the middle of the range, or end if there is none.
+		private int splitPoint() {
+			for(int i = start + (end - start) / 2; i < end - 1; i++) {
+				if(source.charAt(i) == '\n') {
+					return i + 1;
+				}
+			}
+			return end;
+		}
+	}
+}
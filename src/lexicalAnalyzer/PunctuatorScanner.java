@@ -1,18 +1,19 @@
 package lexicalAnalyzer;
 
-import static lexicalAnalyzer.PunctuatorScanningAids.punctuatorSetForPrefix;
-import inputHandler.LocatedChar;
+import static lexicalAnalyzer.PunctuatorScanningAids.*;
+import inputHandler.Locator;
 import inputHandler.PushbackCharStream;
-
-import java.util.Set;
-
+import tokens.LextantToken;
+import tokens.NullToken;
 import tokens.Token;
 
-/** Algorithm object to scan to find a punctuator.  Invoke only on a character that can start a punctuator lexeme.
+/** Algorithm to scan to find a punctuator.  Invoke only on a character that can start a punctuator lexeme.
  * <p>
- *  PunctuatorScanner will grab input characters as long as it as seen a punctuator lexeme prefix.
- *  If it discovers that it has taken input that is not such a prefix, it backtracks (possibly multiple
- *  characters) until it matches a punctuator.  
+ *  PunctuatorScanner looks ahead in the input as long as it has seen a punctuator lexeme prefix,
+ *  following the prefix trie of PunctuatorScanningAids, and remembers the longest punctuator it has
+ *  passed.  Only the characters of that punctuator are then consumed; nothing is ever pushed back.
+ *  Characters are only peeked at, and the token takes the punctuator's own lexeme, so no strings
+ *  are built.
  * <p>
  *  If it cannot find a punctuator starting with the given starting character, it returns a NullToken at the
  *  startingCharacter's location. 
@@ -22,40 +23,34 @@ import tokens.Token;
  *  Part of derived information is in PunctuatorScanningAids.java, part is in Punctuator itself.
  */
 public class PunctuatorScanner {
-	private PushbackCharStream input;
-	private PartiallyScannedPunctuator scanned;
-	
-	public static Token scan(LocatedChar startingCharacter, PushbackCharStream input) {
-		PunctuatorScanner scanner = new PunctuatorScanner(startingCharacter, input);
-		return scanner.scanPunctuator();
-	}
 	
-	private PunctuatorScanner(LocatedChar startingCharacter, PushbackCharStream input) {
-		this.input = input;
-		
-		scanned = new PartiallyScannedPunctuator(startingCharacter);
-	}
-	
-	private Token scanPunctuator() {
-		Set<Punctuator> punctuators = punctuatorSetForPrefix(scanned.asString());
-		
-		if(punctuators.size() == 1 && scanned.isPunctuator()) {
-			return scanned.asToken();
-		}
-		
-		if(punctuators.isEmpty() || !input.hasNext()) {
-			backupToLastPunctuatorPrefix();
-			return scanned.asToken();
+	/** Scan a punctuator.
+	 * @param startingPosition the position of the starting character, which has just been read from input.
+	 * @param input the stream to scan from.
+	 * @return the punctuator token, or a NullToken if no punctuator starts at startingPosition.
+	 */
+	public static Token scan(int startingPosition, PushbackCharStream input) {
+		Punctuator longest = Punctuator.NULL_PUNCTUATOR;
+		int longestLength = 0;
+
+		int prefix = extendPrefix(ROOT_PREFIX, input.charAt(startingPosition));
+		for(int lookahead = 0; prefix != NO_PREFIX; lookahead++) {
+			if(punctuatorForPrefix(prefix) != Punctuator.NULL_PUNCTUATOR) {
+				longest = punctuatorForPrefix(prefix);
+				longestLength = lookahead + 1;
+			}
+			prefix = extendPrefix(prefix, input.peekChar(lookahead));
 		}
-		
-		scanned.add(input.next());
-		return scanPunctuator();
+		return asToken(startingPosition, input, longest, longestLength);
 	}
 
-	private void backupToLastPunctuatorPrefix() {
-		while(!scanned.isPunctuator() && !scanned.isEmpty()) {
-			LocatedChar lc = scanned.chopTail();
-			input.pushback(lc);
+	private static Token asToken(int startingPosition, PushbackCharStream input, Punctuator punctuator, int length) {
+		Locator location = input.positionOf(startingPosition);
+		if(punctuator == Punctuator.NULL_PUNCTUATOR) {
+			input.pushbackTo(startingPosition);
+			return NullToken.make(location);
 		}
+		input.skip(length - 1);
+		return LextantToken.make(location, punctuator.getLexeme(), punctuator);
 	}
 }
@@ -1,21 +1,33 @@
 package lexicalAnalyzer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 
+/** Information derived from the lexemes of Punctuator, for scanning punctuators.
+ * <p>
+ *  The prefixes of all punctuator lexemes form a trie, whose nodes are numbered.
+ *  A scanner starts at ROOT_PREFIX (the empty prefix) and follows the input one
+ *  character at a time with <code>extendPrefix</code>, until it gets NO_PREFIX.
+ *  Nothing is allocated while scanning.
+ */
 public class PunctuatorScanningAids {
+	public static final int ROOT_PREFIX = 0;
+	public static final int NO_PREFIX = -1;
+
 	private static Set<Character> punctuatorStartingCharacters = new HashSet<Character>();
-	private static Map<String, Set<Punctuator>> punctuatorsHavingPrefix = new HashMap<String, Set<Punctuator>>();
-	private static final Set<Punctuator> emptyPunctuatorSet = Collections.unmodifiableSet(EnumSet.noneOf(Punctuator.class));
+	private static char[][] edgeCharacters;
+	private static int[][] edgeTargets;
+	private static Punctuator[] punctuatorAtPrefix;
 	static {
 		makeStartingCharacters();
-		makePunctuatorsHavingPrefix();
+		makePrefixTrie();
 	}
 
 	//////////////////////////////////////////////////////////////////////////////
@@ -25,13 +37,27 @@ public class PunctuatorScanningAids {
 		return punctuatorStartingCharacters.contains(c);
 	}
 
-	public static Set<Punctuator> punctuatorSetForPrefix(String prefix) {
-		if(punctuatorsHavingPrefix.containsKey(prefix)) {
-			return punctuatorsHavingPrefix.get(prefix);
-		}
-		else {
-			return emptyPunctuatorSet;
+	/** Follow one character from a prefix.
+	 * @param prefix a node of the prefix trie.
+	 * @param c the next character, or LocatedCharStream.END_OF_INPUT.
+	 * @return the node for prefix followed by c, or NO_PREFIX if that is not a prefix
+	 *         of any punctuator lexeme.
+	 */
+	public static int extendPrefix(int prefix, int c) {
+		char[] characters = edgeCharacters[prefix];
+		for(int i = 0; i < characters.length; i++) {
+			if(characters[i] == c) {
+				return edgeTargets[prefix][i];
+			}
 		}
+		return NO_PREFIX;
+	}
+	/** Get the punctuator whose lexeme is a prefix.
+	 * @param prefix a node of the prefix trie.
+	 * @return the punctuator, or NULL_PUNCTUATOR if the prefix is not a whole lexeme.
+	 */
+	public static Punctuator punctuatorForPrefix(int prefix) {
+		return punctuatorAtPrefix[prefix];
 	}
 
 	//////////////////////////////////////////////////////////////////////////////
@@ -49,50 +75,47 @@ public class PunctuatorScanningAids {
 	
 	
 	//////////////////////////////////////////////////////////////////////////////
-	// creation of prefix map
+	// creation of prefix trie: number the prefixes, then link each to its extensions.
 
-	private static void makePunctuatorsHavingPrefix() {
-		for(Punctuator p: Punctuator.values()) {
-			addAllPrefixesToMap(p);
-		}
-		makeAllMapEntriesconstutable();
-	}
-	private static void addAllPrefixesToMap(Punctuator punctuator) {
-		String lexeme = punctuator.getLexeme();
-		
-		for(String prefix: allNonemptyPrefixes(lexeme)) {
-			addPrefixToMap(prefix.intern(), punctuator);
-		}
-	}
+	private static void makePrefixTrie() {
+		List<String> prefixes = numberedPrefixes();
+		int numNodes = prefixes.size();
+		edgeCharacters = new char[numNodes][0];
+		edgeTargets = new int[numNodes][0];
+		punctuatorAtPrefix = new Punctuator[numNodes];
 
-	private static void addPrefixToMap(String prefix, Punctuator punctuator) {
-		Set<Punctuator> setForThisPrefix = mutablePunctuatorSetForPrefix(prefix);
-		setForThisPrefix.add(punctuator);
-	}
-	private static Set<Punctuator> mutablePunctuatorSetForPrefix(String prefix) {
-		if(punctuatorsHavingPrefix.containsKey(prefix)) {
-			return punctuatorsHavingPrefix.get(prefix);
-		}
-		else {
-			EnumSet<Punctuator> emptySet = EnumSet.noneOf(Punctuator.class);
-			punctuatorsHavingPrefix.put(prefix, emptySet);
-			return emptySet;
+		punctuatorAtPrefix[ROOT_PREFIX] = Punctuator.NULL_PUNCTUATOR;
+		for(int node = ROOT_PREFIX + 1; node < numNodes; node++) {
+			String prefix = prefixes.get(node);
+			punctuatorAtPrefix[node] = Punctuator.forLexeme(prefix);
+			addEdge(prefixes.indexOf(prefix.substring(0, prefix.length() - 1)), prefix.charAt(prefix.length() - 1), node);
 		}
 	}
-
-	
-	private static void makeAllMapEntriesconstutable() {
-		for(Entry<String, Set<Punctuator>> entry: punctuatorsHavingPrefix.entrySet()) {
-			replaceValueWithconstutableValue(entry);
+	// every prefix once, the empty prefix first.
+	private static List<String> numberedPrefixes() {
+		List<String> prefixes = new ArrayList<String>();
+		Map<String, Integer> numbers = new HashMap<String, Integer>();
+		prefixes.add("");
+		numbers.put("", ROOT_PREFIX);
+		for(Punctuator p: Punctuator.values()) {
+			for(String prefix: allNonemptyPrefixes(p.getLexeme())) {
+				if(!numbers.containsKey(prefix)) {
+					numbers.put(prefix, prefixes.size());
+					prefixes.add(prefix);
+				}
+			}
 		}
+		return prefixes;
 	}
-	private static void replaceValueWithconstutableValue(Entry<String, Set<Punctuator>> entry) {
-		Set<Punctuator> value = entry.getValue();
-		Set<Punctuator> unmodifiableSet = Collections.unmodifiableSet(value);
-		entry.setValue(unmodifiableSet);
+	private static void addEdge(int from, char c, int to) {
+		int numEdges = edgeCharacters[from].length;
+		edgeCharacters[from] = Arrays.copyOf(edgeCharacters[from], numEdges + 1);
+		edgeTargets[from] = Arrays.copyOf(edgeTargets[from], numEdges + 1);
+		edgeCharacters[from][numEdges] = c;
+		edgeTargets[from][numEdges] = to;
 	}
-	
-	
+
+
 	//////////////////////////////////////////////////////////////////////////////
 	// string utility
 
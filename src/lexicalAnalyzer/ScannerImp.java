@@ -1,21 +1,52 @@
 package lexicalAnalyzer;
 
 import inputHandler.PushbackCharStream;
+import inputHandler.Locator;
+import tokens.FloatingLiteralToken;
 import tokens.NullToken;
+import tokens.NumberToken;
 import tokens.Token;
 
 public abstract class ScannerImp implements Scanner {
 	private Token nextToken;
 	protected final PushbackCharStream input;
+	protected final IdentifierTable identifiers;
+	protected final DecimalAccumulator numberValue;
 	
 	protected abstract Token findNextToken();
 
 	public ScannerImp(PushbackCharStream input) {
 		super();
 		this.input = input;
+		this.identifiers = new IdentifierTable();
+		this.numberValue = new DecimalAccumulator();
 		nextToken = findNextToken();
 	}
 
+	/** Get the table of identifiers scanned so far.
+	 * @return the table that gave each IdentifierToken its symbol ID.
+	 */
+	public IdentifierTable getIdentifierTable() {
+		return identifiers;
+	}
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Numeric literal tokens, from the value in numberValue.
+	// If numberValue cannot give the value, the token factory converts the text (and reports any error).
+
+	protected Token integerToken(Locator location, int start, int end) {
+		if(numberValue.fitsInInt()) {
+			return NumberToken.make(location, input.getSource(), start, end - start, numberValue.intValue());
+		}
+		return NumberToken.make(location, input.getSource(), start, end - start);
+	}
+	protected Token floatingToken(Locator location, int start, int end) {
+		if(numberValue.hasExactDouble()) {
+			return FloatingLiteralToken.make(location, input.getSource(), start, end - start, numberValue.doubleValue());
+		}
+		return FloatingLiteralToken.make(location, input.substring(start, end));
+	}
+
 	// Iterator<Token> implementation
 	@Override
 	public boolean hasNext() {
@@ -0,0 +1,230 @@
+package lexicalAnalyzer;
+
+import java.util.Arrays;
+
+import inputHandler.Locator;
+import inputHandler.PushbackCharStream;
+import inputHandler.SourceBuffer;
+import inputHandler.SourceMap;
+import tokens.CharacterToken;
+import tokens.FloatingLiteralToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.NumberToken;
+import tokens.StringToken;
+import tokens.Token;
+
+/** All the tokens of a source file, held as parallel primitive arrays.
+ *  Use the factory <code>make(...)</code> to scan a file into a buffer.
+ *  <p>
+ *  Token i is described by its kind, the offset and length of its text in
+ *  the source, and one value whose meaning depends on the kind: the symbol ID
+ *  of an identifier, the ordinal of a keyword or punctuator, or the value of
+ *  a literal.  No Token objects, lexeme Strings, or locations are made
+ *  while scanning; <code>tokenAt(i)</code> builds them when asked.
+ *  <p>
+ *  The buffer is scanned with DFAScanningTable, and reports the same lexical
+ *  errors in the same order as DFALexicalAnalyzer.  Position
+ *  <code>size()</code> holds the end-of-input NullToken.
+ */
+public class TokenBuffer {
+	public static final byte KEYWORD     = 0;
+	public static final byte PUNCTUATOR  = 1;
+	public static final byte IDENTIFIER  = 2;
+	public static final byte INTEGER     = 3;
+	public static final byte FLOATING    = 4;
+	public static final byte STRING      = 5;
+	public static final byte CHARACTER   = 6;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private static final Keyword[] keywords = Keyword.values();
+	private static final Punctuator[] punctuators = Punctuator.values();
+
+	private SourceBuffer source;
+	private SourceMap sourceMap;
+	private IdentifierTable identifiers;
+	private byte[] kinds;
+	private int[] starts;
+	private int[] lengths;
+	private long[] values;
+	private int size;
+	private int endPosition;		// where scanning stopped; the location of the NullToken.
+
+
+	public static TokenBuffer make(String filename) {
+		return make(SourceBuffer.fromFilename(filename));
+	}
+	public static TokenBuffer make(SourceBuffer source) {
+		TokenBuffer result = new TokenBuffer(source);
+		new TokenBufferFiller(PushbackCharStream.make(source), result).fill();
+		return result;
+	}
+
+	TokenBuffer(SourceBuffer source) {
+		this.source = source;
+		this.sourceMap = source.getSourceMap();
+		this.identifiers = new IdentifierTable();
+		this.kinds = new byte[INITIAL_CAPACITY];
+		this.starts = new int[INITIAL_CAPACITY];
+		this.lengths = new int[INITIAL_CAPACITY];
+		this.values = new long[INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// per-token queries, without materializing the token
+
+	public int size() {
+		return size;
+	}
+	public SourceBuffer getSource() {
+		return source;
+	}
+	public IdentifierTable getIdentifierTable() {
+		return identifiers;
+	}
+	public byte kindAt(int index) {
+		return kinds[index];
+	}
+	public int startAt(int index) {
+		return starts[index];
+	}
+	public int lengthAt(int index) {
+		return lengths[index];
+	}
+	/** Get the symbol ID of an identifier.
+	 * @param index the position of the token.
+	 * @return the symbol ID, or IdentifierToken.NO_SYMBOL_ID if the token is not an identifier.
+	 */
+	public int symbolIdAt(int index) {
+		if(index >= size || kinds[index] != IDENTIFIER) {
+			return IdentifierToken.NO_SYMBOL_ID;
+		}
+		return (int)values[index];
+	}
+	/** Get the keyword or punctuator of a token.
+	 * @param index the position of the token.
+	 * @return the lextant, or null if the token is not a keyword or punctuator.
+	 */
+	public Lextant lextantAt(int index) {
+		if(index >= size) {
+			return null;
+		}
+		switch(kinds[index]) {
+		case KEYWORD:		return keywords[(int)values[index]];
+		case PUNCTUATOR:	return punctuators[(int)values[index]];
+		default:			return null;
+		}
+	}
+	public boolean isLextantAt(int index, Lextant ...lextants) {
+		Lextant lextant = lextantAt(index);
+		for(Lextant candidate: lextants) {
+			if(lextant == candidate) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// materializing tokens
+
+	/** Build the Token at a position.  Each call builds a new Token.
+	 * @param index the position of the token, 0 &lt;= index &lt;= size().
+	 * @return the token, or the end-of-input NullToken if index is size() or more.
+	 */
+	public Token tokenAt(int index) {
+		if(index >= size) {
+			return NullToken.make(sourceMap.positionOf(endPosition));
+		}
+		Locator location = sourceMap.positionOf(starts[index]);
+		long value = values[index];
+
+		switch(kinds[index]) {
+		case KEYWORD:
+		case PUNCTUATOR:
+			Lextant lextant = lextantAt(index);
+			return LextantToken.make(location, lextant.getLexeme(), lextant);
+		case IDENTIFIER:
+			return IdentifierToken.make(location, identifiers.lexemeFor((int)value), (int)value);
+		case INTEGER:
+			return NumberToken.make(location, source, starts[index], lengths[index], (int)value);
+		case FLOATING:
+			return FloatingLiteralToken.make(location, lexemeAt(index), Double.longBitsToDouble(value));
+		case STRING:
+			return StringToken.make(location, source, lexemeStart(index), lengths[index]);
+		case CHARACTER:
+			return CharacterToken.make(location, String.valueOf((char)value));
+		default:
+			assert false : "unknown token kind in TokenBuffer";
+			return null;
+		}
+	}
+	/** Get the text of a token.  For a string, this is the text between the quotes.
+	 * @param index the position of the token.
+	 * @return the token's text.
+	 */
+	public String lexemeAt(int index) {
+		int start = lexemeStart(index);
+		return source.substring(start, start + lengths[index]);
+	}
+	// a string starts at its opening quote, but its length is that of the text between the quotes.
+	private int lexemeStart(int index) {
+		if(kinds[index] == STRING) {
+			return starts[index] + 1;
+		}
+		return starts[index];
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// filling, used by TokenBufferFiller
+
+	void add(byte kind, int start, int length, long value) {
+		if(size == kinds.length) {
+			grow();
+		}
+		kinds[size] = kind;
+		starts[size] = start;
+		lengths[size] = length;
+		values[size] = value;
+		size++;
+	}
+	void setEndPosition(int position) {
+		this.endPosition = position;
+	}
+	int getEndPosition() {
+		return endPosition;
+	}
+	/** Add all the tokens of another buffer over the same source, after this buffer's tokens.
+	 *  The other buffer's identifiers are interned here, in their order of first appearance
+	 *  there, and its symbol IDs are translated to this buffer's.
+	 * @param other a buffer whose tokens all follow this buffer's in the source.
+	 */
+	void append(TokenBuffer other) {
+		assert other.source == source;
+		IdentifierTable otherIdentifiers = other.getIdentifierTable();
+		int[] symbolIds = new int[otherIdentifiers.size()];
+		for(int i = 0; i < symbolIds.length; i++) {
+			symbolIds[i] = identifiers.intern(otherIdentifiers.lexemeFor(i));
+		}
+		for(int i = 0; i < other.size; i++) {
+			long value = other.values[i];
+			if(other.kinds[i] == IDENTIFIER) {
+				value = symbolIds[(int)value];
+			}
+			add(other.kinds[i], other.starts[i], other.lengths[i], value);
+		}
+		endPosition = other.endPosition;
+	}
+	private void grow() {
+		int capacity = kinds.length * 2;
+		kinds = Arrays.copyOf(kinds, capacity);
+		starts = Arrays.copyOf(starts, capacity);
+		lengths = Arrays.copyOf(lengths, capacity);
+		values = Arrays.copyOf(values, capacity);
+	}
+}
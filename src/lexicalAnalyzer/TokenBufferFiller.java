@@ -0,0 +1,232 @@
+package lexicalAnalyzer;
+
+import static lexicalAnalyzer.DFAScanningTable.*;
+import static lexicalAnalyzer.PunctuatorScanningAids.isPunctuatorStartingCharacter;
+
+import java.util.List;
+
+import inputHandler.LocatedChar;
+import inputHandler.LocatedCharStream;
+import inputHandler.PushbackCharStream;
+import inputHandler.TextLocation;
+import logging.TanLogger;
+
+/** Scans a source, or part of one, into a TokenBuffer.
+ * <p>
+ *  The scanning loop is DFALexicalAnalyzer's, but each token is recorded as a
+ *  row of the buffer instead of being built as a Token.  Lexical errors,
+ *  including oversized literals, are reported here, in source order.  They are
+ *  logged at once, or, if the filler is given a list, added to it for the
+ *  caller to log later.
+ */
+class TokenBufferFiller {
+	private static final DFAScanningTable table = DFAScanningTable.getInstance();
+
+	private PushbackCharStream input;
+	private TokenBuffer buffer;
+	private IdentifierTable identifiers;
+	private List<String> deferredErrors;
+	private DecimalAccumulator numberValue = new DecimalAccumulator();
+
+	TokenBufferFiller(PushbackCharStream input, TokenBuffer buffer) {
+		this(input, buffer, null);
+	}
+	TokenBufferFiller(PushbackCharStream input, TokenBuffer buffer, List<String> deferredErrors) {
+		this.input = input;
+		this.buffer = buffer;
+		this.identifiers = buffer.getIdentifierTable();
+		this.deferredErrors = deferredErrors;
+	}
+
+	void fill() {
+		fill(Integer.MAX_VALUE);
+	}
+	/** Scan the tokens that start before a given position.
+	 *  Scanning stops at the first token that starts at or after stopAt, or at the end of
+	 *  input, or at a character that cannot start a token; the buffer's end position
+	 *  is set to where it stopped.
+	 * @param stopAt the position at which no more tokens are to be started.
+	 */
+	void fill(int stopAt) {
+		while(true) {
+			input.skipWhitespaceAndComments();
+			int start = input.position();
+			if(start >= stopAt) {
+				buffer.setEndPosition(start);
+				return;
+			}
+			int state = START;
+			int acceptState = DEAD;
+			int acceptLength = 0;
+
+			for(int k = 0; ; k++) {
+				state = table.transition(state, input.peekChar(k));
+				if(state == DEAD) {
+					break;
+				}
+				if(table.isAccepting(state)) {
+					acceptState = state;
+					acceptLength = k + 1;
+				}
+			}
+
+			if(acceptState == DEAD) {
+				int ch = input.peekChar();
+				if(ch == LocatedCharStream.END_OF_INPUT || isPunctuatorStartingCharacter((char)ch)) {
+					buffer.setEndPosition(start);
+					return;
+				}
+				input.skip(1);
+				lexicalError(ch, start);
+				continue;
+			}
+
+			input.skip(acceptLength);
+			record(acceptState, start, start + acceptLength);
+		}
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Recording tokens, by accept code.  Mirrors DFALexicalAnalyzer.tokenFor().
+
+	private void record(int acceptState, int start, int end) {
+		switch(table.acceptCode(acceptState)) {
+		case KEYWORD:
+		case PUNCTUATOR:
+			Lextant lextant = table.lextantFor(acceptState);
+			byte kind = (lextant instanceof Keyword) ? TokenBuffer.KEYWORD : TokenBuffer.PUNCTUATOR;
+			buffer.add(kind, start, end - start, ((Enum<?>)lextant).ordinal());
+			return;
+		case IDENTIFIER:
+			buffer.add(TokenBuffer.IDENTIFIER, start, end - start, identifiers.intern(input.getSource(), start, end));
+			return;
+
+		case INTEGER:
+			buffer.add(TokenBuffer.INTEGER, start, end - start, integerValue(start, end));
+			return;
+		case FLOATING:
+			buffer.add(TokenBuffer.FLOATING, start, end - start, Double.doubleToRawLongBits(floatingValue(start, end)));
+			return;
+		case MALFORMED_FRACTION:
+		case MALFORMED_EXPONENT_SIGN:
+			lexicalError("Malformed floating-point literal", input.locationOf(decimalPointPosition(start)));
+			return;
+		case MALFORMED_EXPONENT:
+			lexicalError("Malformed floating-point literal", input.locationOf(end - 1));
+			return;
+
+		case STRING:
+			buffer.add(TokenBuffer.STRING, start, end - start - 2, 0);
+			return;
+		case STRING_AT_NEWLINE:
+			lexicalError('\n', end - 1);
+			buffer.add(TokenBuffer.STRING, start, end - start - 2, 0);
+			return;
+		case STRING_AT_END:
+			lexicalError(LocatedCharStream.END_OF_INPUT, end);
+			buffer.add(TokenBuffer.STRING, start, end - start - 1, 0);
+			return;
+
+		case CHARACTER:
+			buffer.add(TokenBuffer.CHARACTER, start, end - start, input.charAt(start + 1));
+			return;
+		case CHARACTER_AT_END:
+			lexicalError(LocatedCharStream.END_OF_INPUT, end);
+			return;
+		case CHARACTER_NOT_PRINTABLE:
+			lexicalError(input.charAt(end - 1), end - 1);
+			return;
+		case CHARACTER_NOT_CLOSED:
+			lexicalError(input.peekChar(), end);
+			return;
+		case OCTAL_CHARACTER:
+			recordOctalCharacter(start, end);
+			return;
+
+		default:
+			assert false : "unknown accept code in DFAScanningTable";
+		}
+	}
+
+	// these match ScannerImp.integerToken() and floatingToken(), but report through reportError().
+	private int integerValue(int start, int end) {
+		numberValue.reset();
+		numberValue.accumulate(input.getSource(), start, end);
+		if(numberValue.fitsInInt()) {
+			return numberValue.intValue();
+		}
+		String lexeme = input.substring(start, end);
+		try {
+			return Integer.parseInt(lexeme);
+		}
+		catch (NumberFormatException e) {
+			reportError("Lexical error: " + lexeme + " Integer representation exceeded");
+			return 0;
+		}
+	}
+	private double floatingValue(int start, int end) {
+		numberValue.reset();
+		numberValue.accumulate(input.getSource(), start, end);
+		if(numberValue.hasExactDouble()) {
+			return numberValue.doubleValue();
+		}
+		String lexeme = input.substring(start, end);
+		double value = Double.parseDouble(lexeme);
+		if(Double.isInfinite(value)) {
+			reportError("Lexical error: " + lexeme + " Float representation exceeded");
+			return 0;
+		}
+		return value;
+	}
+
+	private int decimalPointPosition(int start) {
+		int position = start;
+		while(input.charAt(position) != '.') {
+			position++;
+		}
+		return position;
+	}
+
+	// % followed by up to three octal digits; % followed by anything else is the character 0.
+	private void recordOctalCharacter(int start, int end) {
+		int total = 0;
+		int numDigits = 0;
+		for(int i = start + 1; i < end && isOctalDigit(input.charAt(i)); i++) {
+			total = 8 * total + (input.charAt(i) - '0');
+			numDigits++;
+		}
+		if(total > 127) {
+			lexicalError(input.substring(start, start + numDigits + 1) + " Character representation exceeded ", input.locationOf(start));
+			return;
+		}
+		buffer.add(TokenBuffer.CHARACTER, start, end - start, total);
+	}
+	private static boolean isOctalDigit(char c) {
+		return '0' <= c && c <= '7';
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Error-reporting
+	private void lexicalError(int ch, int position) {
+		LocatedChar locatedChar = LocatedCharStream.FLAG_END_OF_INPUT;
+		if(ch != LocatedCharStream.END_OF_INPUT) {
+			locatedChar = new LocatedChar((char)ch, input.locationOf(position));
+		}
+		reportError("Lexical error: invalid character " + locatedChar);
+	}
+
+	private void lexicalError(String errorMsg, TextLocation location) {
+		reportError("Lexical error: " + errorMsg + "at" + location);
+	}
+
+	private void reportError(String message) {
+		if(deferredErrors != null) {
+			deferredErrors.add(message);
+			return;
+		}
+		TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
+		log.severe(message);
+	}
+}
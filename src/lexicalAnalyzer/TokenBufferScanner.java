@@ -0,0 +1,67 @@
+package lexicalAnalyzer;
+
+import tokens.Token;
+
+/** A Scanner that reads its tokens from a TokenBuffer.
+ * <p>
+ *  Since the whole file is already scanned, tokens can be looked at by
+ *  position: <code>peek(k)</code> looks any distance ahead, and
+ *  <code>seek(...)</code> returns to an earlier position.  Tokens are
+ *  materialized only as they are read.
+ */
+public class TokenBufferScanner implements Scanner {
+	private TokenBuffer buffer;
+	private int position;
+
+	public static TokenBufferScanner make(String filename) {
+		return new TokenBufferScanner(TokenBuffer.make(filename));
+	}
+	public TokenBufferScanner(TokenBuffer buffer) {
+		super();
+		this.buffer = buffer;
+		this.position = 0;
+	}
+
+	public TokenBuffer getBuffer() {
+		return buffer;
+	}
+	/** Get the position of the token that <code>next()</code> would return.
+	 * @return an index into the buffer.
+	 */
+	public int position() {
+		return position;
+	}
+	public void seek(int position) {
+		assert(0 <= position && position <= buffer.size());
+		this.position = position;
+	}
+	/** Look ahead without consuming tokens.
+	 * @param k the number of tokens to look past; peek(0) is the token <code>next()</code> would return.
+	 * @return that token, or the end-of-input NullToken if it is past the end.
+	 */
+	public Token peek(int k) {
+		return buffer.tokenAt(position + k);
+	}
+
+
+	// Iterator<Token> implementation
+	// next() keeps returning the end-of-input NullToken once there are no more tokens.
+	@Override
+	public boolean hasNext() {
+		return position < buffer.size();
+	}
+
+	@Override
+	public Token next() {
+		Token result = buffer.tokenAt(position);
+		if(position < buffer.size()) {
+			position++;
+		}
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,25 @@
+package lexicalAnalyzer.tests;
+
+public class FixtureDefinitions {
+	public static final String INPUT_DIRECTORY = "input/";
+	public static final String LEXER_LOGGER = "compiler.lexicalAnalyzer";
+	public static final String FIXTURE_DIRECTORY = "src/lexicalAnalyzer/tests/fixtures/";
+
+	public static final String LEXER_INPUT_FILENAMES[] = {
+			"src/applications/tests/fixtures/coinTest.tan",
+			INPUT_DIRECTORY + "currentTest.tan",
+			INPUT_DIRECTORY + "test-character%1_err.tan",
+			INPUT_DIRECTORY + "test-character%2.tan",
+			INPUT_DIRECTORY + "test-comment.tan",
+			INPUT_DIRECTORY + "test-comment1.tan",
+			INPUT_DIRECTORY + "test-comment2.tan",
+			INPUT_DIRECTORY + "test-float1.tan",
+			INPUT_DIRECTORY + "test-float2.tan",
+			INPUT_DIRECTORY + "test-functions.tan",
+			INPUT_DIRECTORY + "test-Strings_Compare.tan",
+			INPUT_DIRECTORY + "test-type_conversion.tan",
+			INPUT_DIRECTORY + "tan-0/err_lexical.tan",
+			FIXTURE_DIRECTORY + "lexicalErrors.tan",
+			FIXTURE_DIRECTORY + "multilineComments.tan",
+	};
+}
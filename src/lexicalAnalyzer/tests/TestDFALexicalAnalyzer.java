@@ -0,0 +1,40 @@
+package lexicalAnalyzer.tests;
+
+import static lexicalAnalyzer.tests.FixtureDefinitions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lexicalAnalyzer.DFALexicalAnalyzer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.Scanner;
+import tests.LogRecorder;
+import junit.framework.TestCase;
+
+public class TestDFALexicalAnalyzer extends TestCase {
+
+	public void testSameTokensAndErrorsAsLexicalAnalyzer() {
+		for(String filename: LEXER_INPUT_FILENAMES) {
+			LogRecorder expectedErrors = LogRecorder.start(LEXER_LOGGER);
+			List<String> expected = allTokens(LexicalAnalyzer.make(filename));
+			expectedErrors.stop();
+
+			LogRecorder actualErrors = LogRecorder.start(LEXER_LOGGER);
+			List<String> actual = allTokens(DFALexicalAnalyzer.make(filename));
+			actualErrors.stop();
+
+			assertEquals(filename, expected, actual);
+			assertEquals(filename, expectedErrors.messages(), actualErrors.messages());
+		}
+	}
+
+	// the full strings of all tokens, including the final NullToken.
+	private static List<String> allTokens(Scanner scanner) {
+		List<String> result = new ArrayList<String>();
+		while(scanner.hasNext()) {
+			result.add(scanner.next().fullString());
+		}
+		result.add(scanner.next().fullString());
+		return result;
+	}
+}
@@ -0,0 +1,58 @@
+package lexicalAnalyzer.tests;
+
+import java.util.Random;
+
+import lexicalAnalyzer.DecimalAccumulator;
+import junit.framework.TestCase;
+
+public class TestDecimalAccumulator extends TestCase {
+	private static final int NUM_RANDOM_LITERALS = 20000;
+
+	public void testIntegers() {
+		assertEquals(0, intValueOf("0"));
+		assertEquals(1234, intValueOf("001234"));
+		assertEquals(Integer.MAX_VALUE, intValueOf("2147483647"));
+		assertFalse(accumulated("2147483648").fitsInInt());
+		assertFalse(accumulated("99999999999999999999999").fitsInInt());
+	}
+
+	public void testFloatsMatchParseDouble() {
+		String[] literals = { "0.0", "1.5", "0.001", "100.0", "3.14159e+10", "2.5E-3", "0.1e-22",
+							  "123456789012345.0", "1.0e+22", "9.9e-300" };
+		for(String literal: literals) {
+			assertSameDouble(literal);
+		}
+		Random random = new Random(2718);
+		for(int i = 0; i < NUM_RANDOM_LITERALS; i++) {
+			assertSameDouble(randomLiteral(random));
+		}
+	}
+
+	public void testLongOrLargeFloatsAreNotExact() {
+		assertFalse(accumulated("1234567890123456.0").hasExactDouble());
+		assertFalse(accumulated("1.5e+24").hasExactDouble());
+		assertTrue(accumulated("0.0e+400").hasExactDouble());
+	}
+
+	private void assertSameDouble(String literal) {
+		DecimalAccumulator accumulator = accumulated(literal);
+		if(accumulator.hasExactDouble()) {
+			assertEquals(literal, Double.parseDouble(literal), accumulator.doubleValue(), 0.0);
+		}
+	}
+	private String randomLiteral(Random random) {
+		String literal = random.nextInt(100000) + "." + random.nextInt(100000);
+		if(random.nextBoolean()) {
+			literal += (random.nextBoolean() ? "e+" : "E-") + random.nextInt(25);
+		}
+		return literal;
+	}
+	private int intValueOf(String literal) {
+		return accumulated(literal).intValue();
+	}
+	private DecimalAccumulator accumulated(String literal) {
+		DecimalAccumulator result = new DecimalAccumulator();
+		result.accumulate(literal, 0, literal.length());
+		return result;
+	}
+}
@@ -0,0 +1,44 @@
+package lexicalAnalyzer.tests;
+
+import lexicalAnalyzer.IdentifierTable;
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Punctuator;
+import tokens.IdentifierToken;
+import junit.framework.TestCase;
+
+public class TestIdentifierTable extends TestCase {
+
+	public void testKeywordLookupByRange() {
+		String text = "x := length;";
+		assertEquals(Keyword.LENGTH, Keyword.forLexeme(text, 5, 11));
+		assertEquals(Keyword.NULL_KEYWORD, Keyword.forLexeme(text, 5, 10));
+		assertEquals(Punctuator.ASSIGN, Punctuator.forLexeme(text, 2, 4));
+		for(Keyword keyword: Keyword.values()) {
+			assertEquals(keyword, Keyword.forLexeme(keyword.getLexeme()));
+		}
+	}
+
+	public void testIdsAreStableAndDense() {
+		IdentifierTable table = new IdentifierTable();
+		String text = "alpha beta alpha";
+		int alpha = table.intern(text, 0, 5);
+		int beta = table.intern(text, 6, 10);
+		assertEquals(0, alpha);
+		assertEquals(1, beta);
+		assertEquals(alpha, table.intern(text, 11, 16));
+		assertEquals(2, table.size());
+		assertSame("alpha", table.lexemeFor(alpha));
+		assertEquals(IdentifierToken.NO_SYMBOL_ID, table.lookup("gamma"));
+	}
+
+	public void testGrowth() {
+		IdentifierTable table = new IdentifierTable();
+		for(int i = 0; i < 10000; i++) {
+			assertEquals(i, table.intern("id" + i));
+		}
+		for(int i = 0; i < 10000; i++) {
+			assertEquals(i, table.lookup("id" + i));
+			assertEquals("id" + i, table.lexemeFor(i));
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package lexicalAnalyzer.tests;
+
+import static lexicalAnalyzer.tests.FixtureDefinitions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import inputHandler.SourceBuffer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.ParallelLexer;
+import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
+import lexicalAnalyzer.TokenBufferScanner;
+import tests.LogRecorder;
+import junit.framework.TestCase;
+
+public class TestParallelLexer extends TestCase {
+	private static final int[] CHUNK_SIZES = { 16, 100, ParallelLexer.DEFAULT_CHUNK_SIZE };
+	private static final int REPETITIONS = 5;
+
+	public void testSameTokensAndErrorsAsLexicalAnalyzer() {
+		for(String filename: LEXER_INPUT_FILENAMES) {
+			SourceBuffer source = SourceBuffer.fromFilename(filename);
+			LogRecorder expectedErrors = LogRecorder.start(LEXER_LOGGER);
+			List<String> expected = allTokens(LexicalAnalyzer.make(source));
+			expectedErrors.stop();
+
+			for(int chunkSize: CHUNK_SIZES) {
+				for(int i = 0; i < REPETITIONS; i++) {
+					LogRecorder actualErrors = LogRecorder.start(LEXER_LOGGER);
+					List<String> actual = allTokens(new TokenBufferScanner(ParallelLexer.lex(source, chunkSize)));
+					actualErrors.stop();
+
+					String message = filename + " in chunks of " + chunkSize;
+					assertEquals(message, expected, actual);
+					assertEquals(message, expectedErrors.messages(), actualErrors.messages());
+				}
+			}
+		}
+	}
+
+	public void testSameSymbolIdsAsSerialScan() {
+		for(String filename: LEXER_INPUT_FILENAMES) {
+			SourceBuffer source = SourceBuffer.fromFilename(filename);
+			TokenBuffer expected = TokenBuffer.make(source);
+			TokenBuffer actual = ParallelLexer.lex(source, CHUNK_SIZES[0]);
+			assertEquals(filename, expected.size(), actual.size());
+			for(int i = 0; i < expected.size(); i++) {
+				assertEquals(filename, expected.symbolIdAt(i), actual.symbolIdAt(i));
+			}
+		}
+	}
+
+	// the full strings of all tokens, including the final NullToken.
+	private static List<String> allTokens(Scanner scanner) {
+		List<String> result = new ArrayList<String>();
+		while(scanner.hasNext()) {
+			result.add(scanner.next().fullString());
+		}
+		result.add(scanner.next().fullString());
+		return result;
+	}
+}
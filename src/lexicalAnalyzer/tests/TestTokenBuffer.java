@@ -0,0 +1,54 @@
+package lexicalAnalyzer.tests;
+
+import static lexicalAnalyzer.tests.FixtureDefinitions.*;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.Punctuator;
+import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
+import lexicalAnalyzer.TokenBufferScanner;
+import tokens.IdentifierToken;
+import tokens.Token;
+import junit.framework.TestCase;
+
+public class TestTokenBuffer extends TestCase {
+
+	public void testSameTokensAsLexicalAnalyzer() {
+		for(String filename: LEXER_INPUT_FILENAMES) {
+			Scanner expected = LexicalAnalyzer.make(filename);
+			Scanner actual = TokenBufferScanner.make(filename);
+			while(expected.hasNext()) {
+				assertTrue(filename, actual.hasNext());
+				assertEquals(filename, expected.next().fullString(), actual.next().fullString());
+			}
+			assertFalse(filename, actual.hasNext());
+			assertEquals(filename, expected.next().fullString(), actual.next().fullString());
+		}
+	}
+
+	public void testIndexingByPosition() {
+		TokenBuffer buffer = TokenBuffer.make(LEXER_INPUT_FILENAMES[0]);
+		TokenBufferScanner scanner = new TokenBufferScanner(buffer);
+		assertTrue(buffer.size() > 3);
+
+		Token third = scanner.peek(2);
+		scanner.next();
+		scanner.next();
+		assertEquals(2, scanner.position());
+		assertEquals(third.fullString(), scanner.next().fullString());
+		scanner.seek(0);
+		assertEquals(buffer.tokenAt(0).fullString(), scanner.next().fullString());
+
+		for(int i = 0; i < buffer.size(); i++) {
+			Token token = buffer.tokenAt(i);
+			if(buffer.kindAt(i) == TokenBuffer.IDENTIFIER) {
+				assertEquals(buffer.symbolIdAt(i), ((IdentifierToken)token).getSymbolId());
+			}
+			if(buffer.lextantAt(i) != null) {
+				assertTrue(buffer.lextantAt(i) instanceof Keyword || buffer.lextantAt(i) instanceof Punctuator);
+				assertTrue(token.isLextant(buffer.lextantAt(i)));
+			}
+		}
+	}
+}
@@ -29,6 +29,9 @@ public class TanLogger {
 	public static boolean hasErrors() {
 		return numMessages != 0;
 	}
+	public static int numMessages() {
+		return numMessages;
+	}
 	public static void setMaximumErrorMessages(int numMessages) {
 		maxMessagesBeforeQuit = numMessages;
 	}
@@ -0,0 +1,240 @@
+package parseTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import parseTree.nodeTypes.ArrayNode;
+import semanticAnalyzer.types.Type;
+import tokens.Token;
+
+/** A parse tree held as parallel primitive arrays, one row per node.
+ * <p>
+ *  Node i is described by its kind, its first child and next sibling (as node
+ *  indices, or NO_NODE), the index of its token in a token table, the index of its
+ *  type in a type table, and a few flag bits.  Tokens and types are shared through
+ *  the tables, by identity.  Nodes are numbered in preorder, so the root is node 0
+ *  and every node's descendants directly follow it.
+ * <p>
+ *  A row costs 18 bytes, where a ParseNode with its children list costs several
+ *  times that.  The tree holds what the Parser produces: it does not hold scopes,
+ *  bindings, signatures, or anything else the semantic analyzer adds.
+ *  <code>from(...)</code> flattens a ParseNode tree and <code>toParseNode()</code>
+ *  rebuilds one; neither recurses, so deep trees are fine.
+ */
+public class CompactParseTree {
+	public static final int NO_NODE = -1;
+	private static final byte FLAG_EMPTY_ARRAY = 1;		// ArrayNode.isEmpty()
+
+	private static final ParseNodeKind[] kindValues = ParseNodeKind.values();
+
+	private byte[] kinds;
+	private int[] firstChild;
+	private int[] nextSibling;
+	private int[] tokenIndex;
+	private int[] typeId;
+	private byte[] flags;
+	private int size;
+
+	private ArrayList<Token> tokens = new ArrayList<Token>();
+	private ArrayList<Type> types = new ArrayList<Type>();
+	private Map<Token, Integer> tokenIndices;		// only while flattening
+	private Map<Type, Integer> typeIds;
+
+
+	public static CompactParseTree from(ParseNode root) {
+		CompactParseTree result = new CompactParseTree(64);
+		result.tokenIndices = new IdentityHashMap<Token, Integer>();
+		result.typeIds = new IdentityHashMap<Type, Integer>();
+		result.flatten(root);
+		result.tokenIndices = null;
+		result.typeIds = null;
+		result.resize(result.size);
+		result.tokens.trimToSize();
+		result.types.trimToSize();
+		return result;
+	}
+
+	// a tree read back by CompactParseTreeFormat.
+	CompactParseTree(byte[] kinds, int[] firstChild, int[] nextSibling, int[] tokenIndex, int[] typeId, byte[] flags,
+			List<Token> tokens, List<Type> types) {
+		this.kinds = kinds;
+		this.firstChild = firstChild;
+		this.nextSibling = nextSibling;
+		this.tokenIndex = tokenIndex;
+		this.typeId = typeId;
+		this.flags = flags;
+		this.size = kinds.length;
+		this.tokens = new ArrayList<Token>(tokens);
+		this.types = new ArrayList<Type>(types);
+	}
+	private CompactParseTree(int capacity) {
+		this.kinds = new byte[capacity];
+		this.firstChild = new int[capacity];
+		this.nextSibling = new int[capacity];
+		this.tokenIndex = new int[capacity];
+		this.typeId = new int[capacity];
+		this.flags = new byte[capacity];
+		this.size = 0;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// per-node queries
+
+	public int size() {
+		return size;
+	}
+	public int root() {
+		return size == 0 ? NO_NODE : 0;
+	}
+	public ParseNodeKind kindAt(int node) {
+		return kindValues[kinds[node]];
+	}
+	public int firstChild(int node) {
+		return firstChild[node];
+	}
+	public int nextSibling(int node) {
+		return nextSibling[node];
+	}
+	public int nChildren(int node) {
+		int count = 0;
+		for(int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+			count++;
+		}
+		return count;
+	}
+	public Token tokenAt(int node) {
+		return tokens.get(tokenIndex[node]);
+	}
+	public Type typeAt(int node) {
+		return types.get(typeId[node]);
+	}
+	public int tokenIndexAt(int node) {
+		return tokenIndex[node];
+	}
+	public int typeIdAt(int node) {
+		return typeId[node];
+	}
+	public boolean isEmptyArrayAt(int node) {
+		return (flags[node] & FLAG_EMPTY_ARRAY) != 0;
+	}
+	byte flagsAt(int node) {
+		return flags[node];
+	}
+	List<Token> tokenTable() {
+		return tokens;
+	}
+	List<Type> typeTable() {
+		return types;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// flattening: a preorder walk with an explicit stack of nodes still to visit.
+	// lastChild[k] is the most recently added child of node k.
+
+	private void flatten(ParseNode root) {
+		List<ParseNode> pending = new ArrayList<ParseNode>();
+		List<Integer> pendingParents = new ArrayList<Integer>();
+		int[] lastChild = new int[64];
+		pending.add(root);
+		pendingParents.add(NO_NODE);
+
+		while(!pending.isEmpty()) {
+			ParseNode node = pending.remove(pending.size() - 1);
+			int parent = pendingParents.remove(pendingParents.size() - 1);
+			int index = add(node);
+
+			if(size > lastChild.length) {
+				lastChild = Arrays.copyOf(lastChild, lastChild.length * 2);
+			}
+			lastChild[index] = NO_NODE;
+			if(parent != NO_NODE) {
+				if(lastChild[parent] == NO_NODE) {
+					firstChild[parent] = index;
+				}
+				else {
+					nextSibling[lastChild[parent]] = index;
+				}
+				lastChild[parent] = index;
+			}
+
+			List<ParseNode> children = node.getChildren();
+			for(int i = children.size() - 1; i >= 0; i--) {
+				pending.add(children.get(i));
+				pendingParents.add(index);
+			}
+		}
+	}
+	private int add(ParseNode node) {
+		if(size == kinds.length) {
+			grow();
+		}
+		int index = size++;
+		kinds[index] = (byte)ParseNodeKind.of(node).ordinal();
+		firstChild[index] = NO_NODE;
+		nextSibling[index] = NO_NODE;
+		tokenIndex[index] = indexOf(node.getToken(), tokens, tokenIndices);
+		typeId[index] = indexOf(node.getType(), types, typeIds);
+		flags[index] = 0;
+		if(node instanceof ArrayNode && ((ArrayNode)node).isEmpty()) {
+			flags[index] |= FLAG_EMPTY_ARRAY;
+		}
+		return index;
+	}
+	private static <T> int indexOf(T item, List<T> table, Map<T, Integer> indices) {
+		Integer index = indices.get(item);
+		if(index == null) {
+			index = table.size();
+			table.add(item);
+			indices.put(item, index);
+		}
+		return index;
+	}
+	private void grow() {
+		resize(kinds.length * 2);
+	}
+	private void resize(int capacity) {
+		kinds = Arrays.copyOf(kinds, capacity);
+		firstChild = Arrays.copyOf(firstChild, capacity);
+		nextSibling = Arrays.copyOf(nextSibling, capacity);
+		tokenIndex = Arrays.copyOf(tokenIndex, capacity);
+		typeId = Arrays.copyOf(typeId, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// rebuilding ParseNodes: make every node, then link each to its children in order.
+
+	/** Build the ParseNode tree that this tree was flattened from, with new nodes.
+	 * @return the root, or null if the tree is empty.
+	 */
+	public ParseNode toParseNode() {
+		if(size == 0) {
+			return null;
+		}
+		ParseNode[] built = new ParseNode[size];
+		for(int node = 0; node < size; node++) {
+			built[node] = makeNode(node);
+		}
+		for(int node = 0; node < size; node++) {
+			for(int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+				built[node].appendChild(built[child]);
+			}
+		}
+		return built[0];
+	}
+	private ParseNode makeNode(int node) {
+		ParseNode detached = new ParseNode(tokenAt(node));
+		ParseNode result = kindAt(node).copyOf(detached);
+		result.setType(typeAt(node));
+		if(isEmptyArrayAt(node)) {
+			((ArrayNode)result).setIsEmpty(true);
+		}
+		return result;
+	}
+}
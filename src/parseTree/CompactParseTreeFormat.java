@@ -0,0 +1,333 @@
+package parseTree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import inputHandler.Locator;
+import inputHandler.PositionedLocator;
+import inputHandler.SourceMap;
+import inputHandler.TextLocation;
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.Punctuator;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import semanticAnalyzer.types.TypeFactory;
+import tokens.CharacterToken;
+import tokens.FloatingLiteralToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.NumberToken;
+import tokens.StringToken;
+import tokens.Token;
+
+/** A binary form of a CompactParseTree, for keeping parse trees on disk.
+ * <p>
+ *  The node arrays are written as they are, followed by the token table and the
+ *  type table.  A token is written as its class, its lexeme, its location, and its
+ *  value.  Locations in the tree's source are written as offsets, and are resolved
+ *  against the SourceMap of the source the tree is read back for; any other
+ *  location is written out in full.  Types may be primitive types, array types, or
+ *  null; a tree with any other type or token cannot be written.
+ * <p>
+ *  The format carries no version of its own: whoever stores the bytes should key
+ *  them by the version of the compiler that wrote them.
+ */
+public class CompactParseTreeFormat {
+	private static final int MAGIC = 0x54414e43;		// "TANC"
+
+	// token classes
+	private static final byte KEYWORD = 0;
+	private static final byte PUNCTUATOR = 1;
+	private static final byte IDENTIFIER = 2;
+	private static final byte NUMBER = 3;
+	private static final byte FLOATING = 4;
+	private static final byte STRING = 5;
+	private static final byte CHARACTER = 6;
+	private static final byte END_OF_INPUT = 7;
+
+	// locations
+	private static final byte IN_SOURCE = 0;
+	private static final byte NULL_LOCATION = 1;
+	private static final byte TEXT_LOCATION = 2;
+
+	// types
+	private static final byte NULL_TYPE = 0;
+	private static final byte PRIMITIVE_TYPE = 1;
+	private static final byte ARRAY_TYPE = 2;
+
+	private static final Keyword[] keywords = Keyword.values();
+	private static final Punctuator[] punctuators = Punctuator.values();
+	private static final PrimitiveType[] primitiveTypes = PrimitiveType.values();
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// writing
+
+	/** Write a tree out.
+	 * @param tree the tree to write.
+	 * @param sourceMap the map of the source the tree was parsed from.
+	 * @return the bytes of the tree.
+	 * @throws FormatException if the tree holds a token or type this format does not cover.
+	 */
+	public static byte[] toBytes(CompactParseTree tree, SourceMap sourceMap) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(tree.size() * 20);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			writeNodes(out, tree);
+			List<Token> tokens = tree.tokenTable();
+			out.writeInt(tokens.size());
+			for(Token token: tokens) {
+				writeToken(out, token, sourceMap);
+			}
+			List<Type> types = tree.typeTable();
+			out.writeInt(types.size());
+			for(Type type: types) {
+				writeType(out, type);
+			}
+			out.flush();
+		}
+		catch(IOException e) {
+			throw new FormatException("cannot write parse tree: " + e.getMessage());
+		}
+		return bytes.toByteArray();
+	}
+	private static void writeNodes(DataOutputStream out, CompactParseTree tree) throws IOException {
+		int size = tree.size();
+		out.writeInt(size);
+		for(int node = 0; node < size; node++) {
+			out.writeByte(tree.kindAt(node).ordinal());
+		}
+		for(int node = 0; node < size; node++) {
+			out.writeInt(tree.firstChild(node));
+		}
+		for(int node = 0; node < size; node++) {
+			out.writeInt(tree.nextSibling(node));
+		}
+		for(int node = 0; node < size; node++) {
+			out.writeInt(tree.tokenIndexAt(node));
+		}
+		for(int node = 0; node < size; node++) {
+			out.writeInt(tree.typeIdAt(node));
+		}
+		for(int node = 0; node < size; node++) {
+			out.writeByte(tree.flagsAt(node));
+		}
+	}
+	private static void writeToken(DataOutputStream out, Token token, SourceMap sourceMap) throws IOException {
+		if(token instanceof LextantToken) {
+			Lextant lextant = ((LextantToken)token).getLextant();
+			if(lextant instanceof Keyword) {
+				out.writeByte(KEYWORD);
+			}
+			else if(lextant instanceof Punctuator) {
+				out.writeByte(PUNCTUATOR);
+			}
+			else {
+				throw new FormatException("cannot write lextant " + lextant);
+			}
+			writeCommon(out, token, sourceMap);
+			out.writeInt(((Enum<?>)lextant).ordinal());
+		}
+		else if(token instanceof IdentifierToken) {
+			out.writeByte(IDENTIFIER);
+			writeCommon(out, token, sourceMap);
+			out.writeInt(((IdentifierToken)token).getSymbolId());
+		}
+		else if(token instanceof NumberToken) {
+			out.writeByte(NUMBER);
+			writeCommon(out, token, sourceMap);
+			out.writeInt(((NumberToken)token).getValue());
+		}
+		else if(token instanceof FloatingLiteralToken) {
+			out.writeByte(FLOATING);
+			writeCommon(out, token, sourceMap);
+			out.writeDouble(((FloatingLiteralToken)token).getValue());
+		}
+		else if(token instanceof StringToken) {
+			out.writeByte(STRING);
+			writeCommon(out, token, sourceMap);
+		}
+		else if(token instanceof CharacterToken) {
+			out.writeByte(CHARACTER);
+			writeCommon(out, token, sourceMap);
+		}
+		else if(token instanceof NullToken) {
+			out.writeByte(END_OF_INPUT);
+			writeCommon(out, token, sourceMap);
+		}
+		else {
+			throw new FormatException("cannot write token " + token);
+		}
+	}
+	private static void writeCommon(DataOutputStream out, Token token, SourceMap sourceMap) throws IOException {
+		writeString(out, token.getLexeme());
+		if(token instanceof PositionedLocator && ((PositionedLocator)token).getSourceMap() == sourceMap) {
+			out.writeByte(IN_SOURCE);
+			out.writeInt(((PositionedLocator)token).getOffset());
+			return;
+		}
+		TextLocation location = token.getLocation();
+		if(location == TextLocation.nullInstance()) {
+			out.writeByte(NULL_LOCATION);
+			return;
+		}
+		out.writeByte(TEXT_LOCATION);
+		writeString(out, location.getFilename());
+		out.writeInt(location.getLineNumber());
+		out.writeInt(location.getPosition());
+	}
+	private static void writeType(DataOutputStream out, Type type) throws IOException {
+		if(type == null) {
+			out.writeByte(NULL_TYPE);
+		}
+		else if(type instanceof PrimitiveType) {
+			out.writeByte(PRIMITIVE_TYPE);
+			out.writeByte(((PrimitiveType)type).ordinal());
+		}
+		else if(type instanceof ArrayType) {
+			out.writeByte(ARRAY_TYPE);
+			writeType(out, ((ArrayType)type).getSubtype());
+		}
+		else {
+			throw new FormatException("cannot write type " + type.infoString());
+		}
+	}
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// reading
+
+	/** Read a tree back.
+	 * @param bytes the bytes written by toBytes(...).
+	 * @param sourceMap the map of the source the tree is for; it must be the same text the tree was parsed from.
+	 * @return the tree.
+	 * @throws FormatException if the bytes are not a tree.
+	 */
+	public static CompactParseTree fromBytes(byte[] bytes, SourceMap sourceMap) {
+		ByteBuffer in = ByteBuffer.wrap(bytes);
+		try {
+			if(in.getInt() != MAGIC) {
+				throw new FormatException("not a parse tree");
+			}
+			int size = in.getInt();
+			byte[] kinds = new byte[size];
+			in.get(kinds);
+			int[] firstChild = readInts(in, size);
+			int[] nextSibling = readInts(in, size);
+			int[] tokenIndex = readInts(in, size);
+			int[] typeId = readInts(in, size);
+			byte[] flags = new byte[size];
+			in.get(flags);
+
+			int numTokens = in.getInt();
+			List<Token> tokens = new ArrayList<Token>(numTokens);
+			for(int i = 0; i < numTokens; i++) {
+				tokens.add(readToken(in, sourceMap));
+			}
+			int numTypes = in.getInt();
+			List<Type> types = new ArrayList<Type>(numTypes);
+			for(int i = 0; i < numTypes; i++) {
+				types.add(readType(in));
+			}
+			if(in.hasRemaining()) {
+				throw new FormatException("trailing bytes after parse tree");
+			}
+			checkNodes(kinds, firstChild, nextSibling, tokenIndex, typeId, numTokens, numTypes);
+			return new CompactParseTree(kinds, firstChild, nextSibling, tokenIndex, typeId, flags, tokens, types);
+		}
+		catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+			throw new FormatException("truncated or corrupt parse tree");
+		}
+	}
+	// every index in the node arrays must be in range, so that a bad file fails here rather than later.
+	private static void checkNodes(byte[] kinds, int[] firstChild, int[] nextSibling, int[] tokenIndex, int[] typeId,
+			int numTokens, int numTypes) {
+		int size = kinds.length;
+		for(int node = 0; node < size; node++) {
+			if(kinds[node] < 0 || kinds[node] >= ParseNodeKind.values().length ||
+					firstChild[node] < CompactParseTree.NO_NODE || firstChild[node] >= size ||
+					nextSibling[node] < CompactParseTree.NO_NODE || nextSibling[node] >= size ||
+					tokenIndex[node] < 0 || tokenIndex[node] >= numTokens ||
+					typeId[node] < 0 || typeId[node] >= numTypes) {
+				throw new FormatException("bad parse tree node " + node);
+			}
+		}
+	}
+	private static int[] readInts(ByteBuffer in, int count) {
+		int[] result = new int[count];
+		in.asIntBuffer().get(result);
+		in.position(in.position() + count * 4);
+		return result;
+	}
+	private static Token readToken(ByteBuffer in, SourceMap sourceMap) {
+		byte tokenClass = in.get();
+		String lexeme = readString(in);
+		Locator locator = readLocation(in, sourceMap);
+
+		switch(tokenClass) {
+		case KEYWORD:		return LextantToken.make(locator, lexeme, keywords[in.getInt()]);
+		case PUNCTUATOR:	return LextantToken.make(locator, lexeme, punctuators[in.getInt()]);
+		case IDENTIFIER:	return IdentifierToken.make(locator, lexeme.intern(), in.getInt());
+		case NUMBER:		return NumberToken.make(locator, lexeme, in.getInt());
+		case FLOATING:		return FloatingLiteralToken.make(locator, lexeme, in.getDouble());
+		case STRING:		return StringToken.make(locator, lexeme);
+		case CHARACTER:		return CharacterToken.make(locator, lexeme);
+		case END_OF_INPUT:	return NullToken.make(locator);
+		default:
+			throw new FormatException("unknown token class " + tokenClass);
+		}
+	}
+	private static Locator readLocation(ByteBuffer in, SourceMap sourceMap) {
+		byte locationKind = in.get();
+		switch(locationKind) {
+		case IN_SOURCE:			return sourceMap.positionOf(in.getInt());
+		case NULL_LOCATION:		return TextLocation.nullInstance();
+		case TEXT_LOCATION:		return new TextLocation(readString(in), in.getInt(), in.getInt());
+		default:
+			throw new FormatException("unknown location kind " + locationKind);
+		}
+	}
+	private static Type readType(ByteBuffer in) {
+		byte typeKind = in.get();
+		switch(typeKind) {
+		case NULL_TYPE:			return null;
+		case PRIMITIVE_TYPE:	return primitiveTypes[in.get()];
+		case ARRAY_TYPE:
+			return TypeFactory.arrayOf(readType(in));
+		default:
+			throw new FormatException("unknown type kind " + typeKind);
+		}
+	}
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		String result = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+		in.position(in.position() + length);
+		return result;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Exception to be thrown
+
+	public static class FormatException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		public FormatException(String string) {
+			super(string);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package parseTree;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import inputHandler.Locator;
@@ -14,15 +15,18 @@ import tokens.Token;
 
 public class ParseNode implements Locator {
 	public static final ParseNode NO_PARENT = null;
+	private static final List<ParseNode> NO_CHILDREN = Collections.emptyList();
 	
-	List<ParseNode>	children;
+	List<ParseNode>	children;		// null until the first child is added, so leaves have no list.
 	ParseNode parent;
 
 	protected Token token;
 	Type type;					// used for expressions
 	private Scope scope;		// the scope created by this node, if any.
+	private final ParseNodeKind kind;	// null for a plain ParseNode.
 
 	public ParseNode(Token token) {
+		this.kind = ParseNodeKind.forClass(getClass());
 		this.token = token;
 		this.type = PrimitiveType.NO_TYPE;
 		this.scope = null;
@@ -31,6 +35,7 @@ public class ParseNode implements Locator {
 	}
 	// "detached" copy constructor.  Copies all info except tree info (parent and children)
 	public ParseNode(ParseNode node) {
+		this.kind = ParseNodeKind.forClass(getClass());
 		this.token = node.token;
 		this.type = node.type;
 		this.scope = node.scope;
@@ -43,6 +48,9 @@ public class ParseNode implements Locator {
 ////////////////////////////////////////////////////////////////////////////////////
 // attributes
 	
+	public ParseNodeKind getKind() {
+		return kind;
+	}
 	public void setType(Type type) {
 		this.type = type;
 	}
@@ -73,14 +81,14 @@ public class ParseNode implements Locator {
 		}
 		return Scope.nullInstance();
 	}
-	public boolean containsBindingOf(String identifier) {
+	public boolean containsBindingOf(Token identifier) {
 		if(!hasScope()) {
 			return false;
 		}
 		SymbolTable symbolTable = scope.getSymbolTable();
 		return symbolTable.containsKey(identifier);
 	}
-	public Binding bindingOf(String identifier) {
+	public Binding bindingOf(Token identifier) {
 		if(!hasScope()) {
 			return Binding.nullInstance();
 		}
@@ -100,23 +108,30 @@ public class ParseNode implements Locator {
 	protected void setParent(ParseNode parent) {
 		this.parent = parent;
 	}
+	// the list is read-only for a node with no children.
 	public List<ParseNode> getChildren() {
-		return children;
+		return children == null ? NO_CHILDREN : children;
 	}
 	public ParseNode child(int i) {
-		return children.get(i);
+		return getChildren().get(i);
 	}
 	public void initChildren() {
-		children = new ArrayList<ParseNode>();
+		children = null;
+	}
+	private List<ParseNode> modifiableChildren() {
+		if(children == null) {
+			children = new ArrayList<ParseNode>(2);
+		}
+		return children;
 	}
 	// adds a new child to this node (as first child) and sets its parent link.
 	public void insertChild(ParseNode child) {
-		children.add(0, child);
+		modifiableChildren().add(0, child);
 		child.setParent(this);
 	}
 	// adds a new child to this node (as last child) and sets its parent link.
 	public void appendChild(ParseNode child) {
-		children.add(child);
+		modifiableChildren().add(child);
 		child.setParent(this);
 	}
 	// do not do this in the middle of a visit; the children list traversal may be zapped if you do.
@@ -132,7 +147,7 @@ public class ParseNode implements Locator {
 		}	
 	}
 	public int nChildren() {
-		return children.size();
+		return children == null ? 0 : children.size();
 	}
 	
 ////////////////////////////////////////////////////////////////////////////////////
@@ -152,14 +167,35 @@ public class ParseNode implements Locator {
 	
 ////////////////////////////////////////////////////////////////////////////////////
 // for visitors
-			
+// Subclasses override acceptEnter and acceptLeave to call the visitor's overloads for
+// their own class.  Leaves override visitsChildren to return false, and their
+// acceptEnter calls visit() instead.
+
 	public void accept(ParseNodeVisitor visitor) {
+		acceptEnter(visitor);
+		if(visitsChildren()) {
+			visitChildren(visitor);
+		}
+		acceptLeave(visitor);
+	}
+	// as accept(), but with an explicit stack in place of recursion; see ParseNodeTraversal.
+	public void acceptIteratively(ParseNodeVisitor visitor) {
+		ParseNodeTraversal.traverse(this, visitor);
+	}
+	public void acceptIteratively(ParseNodeKindVisitor visitor) {
+		ParseNodeTraversal.traverse(this, visitor);
+	}
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
+	public boolean visitsChildren() {
+		return true;
+	}
 	protected void visitChildren(ParseNodeVisitor visitor) {
-		for(ParseNode child : children) {
+		for(ParseNode child : getChildren()) {
 			child.accept(visitor);
 		}
 	}
@@ -0,0 +1,121 @@
+package parseTree;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import parseTree.nodeTypes.*;
+
+/** One constant for each class of ParseNode that the Parser makes.  Every node
+ *  holds its kind (see ParseNode.getKind()), so code that handles many classes of
+ *  node can switch on it rather than test classes or overload on them.
+ */
+public enum ParseNodeKind {
+	ARRAY(ArrayNode.class),
+	ASSIGNMENT_STATEMENT(AssignmentStatementNode.class),
+	BLOCK_STATEMENT(BlockStatementNode.class),
+	BOOLEAN_CONSTANT(BooleanConstantNode.class, true),
+	CALL(CallNode.class),
+	CASTING(CastingNode.class),
+	CHARACTER_CONSTANT(CharacterConstantNode.class, true),
+	DECLARATION(DeclarationNode.class),
+	ERROR(ErrorNode.class, true),
+	FLOAT_CONSTANT(FloatConstantNode.class, true),
+	FUNC_DEF(FuncDefNode.class),
+	FUNC_INVOC(FuncInvocNode.class),
+	FUNC_PARAM(FuncParamNode.class),
+	FUNC_PARAM_TYPE(FuncParamTypeNode.class),
+	FUNC_TYPE(FuncTypeNode.class, true),
+	FUNCTION(FunctionNode.class),
+	IDENTIFIER(IdentifierNode.class),
+	IF(IfNode.class),
+	INTEGER_CONSTANT(IntegerConstantNode.class, true),
+	MAIN_BLOCK(MainBlockNode.class),
+	NEWLINE(NewlineNode.class, true),
+	OPERATOR(OperatorNode.class),
+	PRINT_STATEMENT(PrintStatementNode.class),
+	PROGRAM(ProgramNode.class),
+	RETURN(ReturnNode.class),
+	SPACE(SpaceNode.class, true),
+	STRING_CONSTANT(StringConstantNode.class, true),
+	TAB(TabNode.class, true),
+	TYPE_CASTING(TypeCastingNode.class),
+	TYPE(TypeNode.class),
+	WHILE(WhileNode.class);
+
+	private Class<? extends ParseNode> nodeClass;
+	private boolean isLeaf;
+
+	private ParseNodeKind(Class<? extends ParseNode> nodeClass) {
+		this(nodeClass, false);
+	}
+	// isLeaf is true for the kinds that the visitors visit() rather than enter and leave.
+	private ParseNodeKind(Class<? extends ParseNode> nodeClass, boolean isLeaf) {
+		this.nodeClass = nodeClass;
+		this.isLeaf = isLeaf;
+	}
+	public Class<? extends ParseNode> getNodeClass() {
+		return nodeClass;
+	}
+	public boolean isLeaf() {
+		return isLeaf;
+	}
+
+	private static Map<Class<? extends ParseNode>, ParseNodeKind> classToKind = new HashMap<Class<? extends ParseNode>, ParseNodeKind>();
+	static {
+		for(ParseNodeKind kind: values()) {
+			classToKind.put(kind.nodeClass, kind);
+		}
+	}
+	public static ParseNodeKind of(ParseNode node) {
+		ParseNodeKind kind = node.getKind();
+		assert kind != null : "no ParseNodeKind for " + node.getClass().getSimpleName();
+		return kind;
+	}
+	// the kind of a class of node, or null for ParseNode itself.
+	static ParseNodeKind forClass(Class<? extends ParseNode> nodeClass) {
+		return classToKind.get(nodeClass);
+	}
+
+	/** Make a node of this kind with the token and type of a detached node, and no children.
+	 * @param detached a node holding the token and type; it is not kept.
+	 * @return the new node.
+	 */
+	public ParseNode copyOf(ParseNode detached) {
+		switch(this) {
+		case ARRAY:					return new ArrayNode(detached);
+		case ASSIGNMENT_STATEMENT:	return new AssignmentStatementNode(detached);
+		case BLOCK_STATEMENT:		return new BlockStatementNode(detached);
+		case BOOLEAN_CONSTANT:		return new BooleanConstantNode(detached);
+		case CALL:					return new CallNode(detached);
+		case CASTING:				return new CastingNode(detached);
+		case CHARACTER_CONSTANT:	return new CharacterConstantNode(detached);
+		case DECLARATION:			return new DeclarationNode(detached);
+		case ERROR:					return new ErrorNode(detached);
+		case FLOAT_CONSTANT:		return new FloatConstantNode(detached);
+		case FUNC_DEF:				return new FuncDefNode(detached);
+		case FUNC_INVOC:			return new FuncInvocNode(detached);
+		case FUNC_PARAM:			return new FuncParamNode(detached);
+		case FUNC_PARAM_TYPE:		return new FuncParamTypeNode(detached);
+		case FUNC_TYPE:				return new FuncTypeNode(detached);
+		case FUNCTION:				return new FunctionNode(detached);
+		case IDENTIFIER:			return new IdentifierNode(detached);
+		case IF:					return new IfNode(detached);
+		case INTEGER_CONSTANT:		return new IntegerConstantNode(detached);
+		case MAIN_BLOCK:			return new MainBlockNode(detached);
+		case NEWLINE:				return new NewlineNode(detached);
+		case OPERATOR:				return new OperatorNode(detached);
+		case PRINT_STATEMENT:		return new PrintStatementNode(detached);
+		case PROGRAM:				return new ProgramNode(detached);
+		case RETURN:				return new ReturnNode(detached);
+		case SPACE:					return new SpaceNode(detached);
+		case STRING_CONSTANT:		return new StringConstantNode(detached);
+		case TAB:					return new TabNode(detached);
+		case TYPE_CASTING:			return new TypeCastingNode(detached);
+		case TYPE:					return new TypeNode(detached);
+		case WHILE:					return new WhileNode(detached);
+		default:
+			assert false : "unknown ParseNodeKind " + this;
+			return null;
+		}
+	}
+}
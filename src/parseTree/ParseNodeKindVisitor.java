@@ -0,0 +1,258 @@
+package parseTree;
+
+import parseTree.nodeTypes.*;
+
+/** A visitor that dispatches with one switch on ParseNode.getKind() instead of
+ *  through each node's accept methods.  Subclasses override the same visitEnter,
+ *  visitLeave and visit overloads as in ParseNodeVisitor.Default, and the same
+ *  default methods; the overloads are chosen at compile time, inside the switch.
+ * <p>
+ *  Run one with ParseNodeTraversal.traverse(root, visitor).  Nodes whose class has
+ *  no overload of its own (CastingNode, TypeNode) go to visitEnter(ParseNode) and
+ *  visitLeave(ParseNode), as they do with ParseNodeVisitor.
+ */
+public class ParseNodeKindVisitor {
+
+	////////////////////////////////////////////////////////////////////////////
+	// dispatch
+
+	public final void enter(ParseNode node) {
+		if(node.getKind() == null) {
+			visitEnter(node);
+			return;
+		}
+		switch(node.getKind()) {
+		case ARRAY:					visitEnter((ArrayNode)node);	break;
+		case ASSIGNMENT_STATEMENT:	visitEnter((AssignmentStatementNode)node);	break;
+		case BLOCK_STATEMENT:		visitEnter((BlockStatementNode)node);	break;
+		case BOOLEAN_CONSTANT:		visit((BooleanConstantNode)node);	break;
+		case CALL:					visitEnter((CallNode)node);	break;
+		case CASTING:				visitEnter(node);	break;
+		case CHARACTER_CONSTANT:	visit((CharacterConstantNode)node);	break;
+		case DECLARATION:			visitEnter((DeclarationNode)node);	break;
+		case ERROR:					visit((ErrorNode)node);	break;
+		case FLOAT_CONSTANT:		visit((FloatConstantNode)node);	break;
+		case FUNC_DEF:				visitEnter((FuncDefNode)node);	break;
+		case FUNC_INVOC:			visitEnter((FuncInvocNode)node);	break;
+		case FUNC_PARAM:			visitEnter((FuncParamNode)node);	break;
+		case FUNC_PARAM_TYPE:		visitEnter((FuncParamTypeNode)node);	break;
+		case FUNC_TYPE:				visit((FuncTypeNode)node);	break;
+		case FUNCTION:				visitEnter((FunctionNode)node);	break;
+		case IDENTIFIER:			visitEnter((IdentifierNode)node);	break;
+		case IF:					visitEnter((IfNode)node);	break;
+		case INTEGER_CONSTANT:		visit((IntegerConstantNode)node);	break;
+		case MAIN_BLOCK:			visitEnter((MainBlockNode)node);	break;
+		case NEWLINE:				visit((NewlineNode)node);	break;
+		case OPERATOR:				visitEnter((OperatorNode)node);	break;
+		case PRINT_STATEMENT:		visitEnter((PrintStatementNode)node);	break;
+		case PROGRAM:				visitEnter((ProgramNode)node);	break;
+		case RETURN:				visitEnter((ReturnNode)node);	break;
+		case SPACE:					visit((SpaceNode)node);	break;
+		case STRING_CONSTANT:		visit((StringConstantNode)node);	break;
+		case TAB:					visit((TabNode)node);	break;
+		case TYPE_CASTING:			visitEnter((TypeCastingNode)node);	break;
+		case TYPE:					visitEnter(node);	break;
+		case WHILE:					visitEnter((WhileNode)node);	break;
+		default:
+			assert false : "unknown ParseNodeKind " + node.getKind();
+		}
+	}
+	public final void leave(ParseNode node) {
+		if(node.getKind() == null) {
+			visitLeave(node);
+			return;
+		}
+		switch(node.getKind()) {
+		case ARRAY:					visitLeave((ArrayNode)node);	break;
+		case ASSIGNMENT_STATEMENT:	visitLeave((AssignmentStatementNode)node);	break;
+		case BLOCK_STATEMENT:		visitLeave((BlockStatementNode)node);	break;
+		case CALL:					visitLeave((CallNode)node);	break;
+		case CASTING:				visitLeave(node);	break;
+		case DECLARATION:			visitLeave((DeclarationNode)node);	break;
+		case FUNC_DEF:				visitLeave((FuncDefNode)node);	break;
+		case FUNC_INVOC:			visitLeave((FuncInvocNode)node);	break;
+		case FUNC_PARAM:			visitLeave((FuncParamNode)node);	break;
+		case FUNC_PARAM_TYPE:		visitLeave((FuncParamTypeNode)node);	break;
+		case FUNCTION:				visitLeave((FunctionNode)node);	break;
+		case IDENTIFIER:			visitLeave((IdentifierNode)node);	break;
+		case IF:					visitLeave((IfNode)node);	break;
+		case MAIN_BLOCK:			visitLeave((MainBlockNode)node);	break;
+		case OPERATOR:				visitLeave((OperatorNode)node);	break;
+		case PRINT_STATEMENT:		visitLeave((PrintStatementNode)node);	break;
+		case PROGRAM:				visitLeave((ProgramNode)node);	break;
+		case RETURN:				visitLeave((ReturnNode)node);	break;
+		case TYPE_CASTING:			visitLeave((TypeCastingNode)node);	break;
+		case TYPE:					visitLeave(node);	break;
+		case WHILE:					visitLeave((WhileNode)node);	break;
+		default:
+			break;		// leaves are only visited on entry.
+		}
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////
+	// defaults
+
+	public void defaultVisit(ParseNode node) {	}
+	public void defaultVisitEnter(ParseNode node) {
+		defaultVisit(node);
+	}
+	public void defaultVisitLeave(ParseNode node) {
+		defaultVisit(node);
+	}
+	public void defaultVisitForLeaf(ParseNode node) {
+		defaultVisit(node);
+	}
+
+	public void visitEnter(ParseNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(ParseNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(ArrayNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(ArrayNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(AssignmentStatementNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(AssignmentStatementNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(BlockStatementNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(BlockStatementNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(CallNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(CallNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(DeclarationNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(DeclarationNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(FuncDefNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(FuncDefNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(FuncInvocNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(FuncInvocNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(FuncParamNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(FuncParamNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(FuncParamTypeNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(FuncParamTypeNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(FunctionNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(FunctionNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(IdentifierNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(IdentifierNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(IfNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(IfNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(MainBlockNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(MainBlockNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(OperatorNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(OperatorNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(PrintStatementNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(PrintStatementNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(ProgramNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(ProgramNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(ReturnNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(ReturnNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(TypeCastingNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(TypeCastingNode node) {
+		defaultVisitLeave(node);
+	}
+	public void visitEnter(WhileNode node) {
+		defaultVisitEnter(node);
+	}
+	public void visitLeave(WhileNode node) {
+		defaultVisitLeave(node);
+	}
+
+	public void visit(BooleanConstantNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(CharacterConstantNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(ErrorNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(FloatConstantNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(FuncTypeNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(IntegerConstantNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(NewlineNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(SpaceNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(StringConstantNode node) {
+		defaultVisitForLeaf(node);
+	}
+	public void visit(TabNode node) {
+		defaultVisitForLeaf(node);
+	}
+}
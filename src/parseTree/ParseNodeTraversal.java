@@ -0,0 +1,98 @@
+package parseTree;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** Drives a visitor over a tree in the same order as <code>accept()</code>, but
+ *  from an explicit stack, so the depth of the tree is not limited by the Java
+ *  stack.  It takes either a ParseNodeVisitor, which is called through each node's
+ *  acceptEnter and acceptLeave, or a ParseNodeKindVisitor, which is called directly.
+ * <p>
+ *  Each stack frame is a node whose children are being visited, and the index of its
+ *  next child.  A node's children are looked up again after each child is done, so
+ *  a visitor should not add or replace children of a node while they are being
+ *  visited; <code>accept()</code> does not allow that either.
+ */
+public class ParseNodeTraversal {
+	private static final int INITIAL_DEPTH = 64;
+
+	private ParseNode[] nodes = new ParseNode[INITIAL_DEPTH];
+	private int[] nextChild = new int[INITIAL_DEPTH];
+	private int depth = 0;
+
+	public static void traverse(ParseNode root, ParseNodeVisitor visitor) {
+		new ParseNodeTraversal().run(root, visitor);
+	}
+	public static void traverse(ParseNode root, ParseNodeKindVisitor visitor) {
+		new ParseNodeTraversal().run(root, visitor);
+	}
+
+	// a leaf is visited on the spot; any other node is entered and pushed.
+	private void run(ParseNode root, ParseNodeVisitor visitor) {
+		ParseNode node = root;
+		while(node != null) {
+			node.acceptEnter(visitor);
+			if(node.visitsChildren()) {
+				push(node);
+			}
+			else {
+				node.acceptLeave(visitor);
+			}
+			node = nextToEnter();
+			while(node == null && depth > 0) {
+				pop().acceptLeave(visitor);
+				node = nextToEnter();
+			}
+		}
+	}
+	private void run(ParseNode root, ParseNodeKindVisitor visitor) {
+		ParseNode node = root;
+		while(node != null) {
+			visitor.enter(node);
+			if(!isLeaf(node)) {
+				push(node);
+			}
+			node = nextToEnter();
+			while(node == null && depth > 0) {
+				visitor.leave(pop());
+				node = nextToEnter();
+			}
+		}
+	}
+	private static boolean isLeaf(ParseNode node) {
+		ParseNodeKind kind = node.getKind();
+		return kind != null && kind.isLeaf();
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// the stack
+
+	// the next child of the node on top of the stack, or null if it has no more.
+	private ParseNode nextToEnter() {
+		if(depth == 0) {
+			return null;
+		}
+		List<ParseNode> children = nodes[depth - 1].getChildren();
+		int index = nextChild[depth - 1];
+		if(index == children.size()) {
+			return null;
+		}
+		nextChild[depth - 1] = index + 1;
+		return children.get(index);
+	}
+	private void push(ParseNode node) {
+		if(depth == nodes.length) {
+			nodes = Arrays.copyOf(nodes, depth * 2);
+			nextChild = Arrays.copyOf(nextChild, depth * 2);
+		}
+		nodes[depth] = node;
+		nextChild[depth] = 0;
+		depth++;
+	}
+	private ParseNode pop() {
+		ParseNode result = nodes[--depth];
+		nodes[depth] = null;
+		return result;
+	}
+}
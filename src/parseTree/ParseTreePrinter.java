@@ -1,12 +1,33 @@
 package parseTree;
 
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Through the static method <code>print</code>, this class will create
  * a string that corresponds to a pretty-printing of the AST subtree rooted
- * at a given node.
+ * at a given node.  The other <code>print</code> methods write the same text to a
+ * Writer or PrintStream line by line as they walk the tree, so the text of a
+ * large tree is never held in memory; they can also stop at a given depth or
+ * after a given number of nodes.
+ * <p>
+ * The tree is walked with an explicit stack, so its depth is not limited by the
+ * Java stack.
  */
 public class ParseTreePrinter {
+	public static final int NO_LIMIT = Integer.MAX_VALUE;
+	private static final String ELISION = "...";
 	private static final int INDENT_INCREMENT = 4;
+	private static final char[] SPACES = new char[64];
+	static {
+		Arrays.fill(SPACES, ' ');
+	}
 	// making terminator static causes OS-dependent failures in some FileFixturesTestCase subclasses.
 	private String terminator = System.getProperty("line.separator");
 
@@ -46,32 +67,89 @@ public class ParseTreePrinter {
 	 * @return string representation of AST
 	 */
 	static public String print(ParseNode node) {
-		ParseTreePrinter printer = new ParseTreePrinter(0);
-		return printer.makeString(node);
+		StringWriter result = new StringWriter();
+		print(node, result);
+		return result.toString();
+	}
+	/** Writes the representation of the AST subtree rooted at the given node to a Writer.
+	 * 
+	 * @param node	root of the subtree to print
+	 * @param out	the Writer to print to; it is flushed, but not closed.
+	 */
+	static public void print(ParseNode node, Writer out) {
+		print(node, out, NO_LIMIT, NO_LIMIT);
+	}
+	static public void print(ParseNode node, PrintStream out) {
+		print(node, out, NO_LIMIT, NO_LIMIT);
+	}
+	static public void print(ParseNode node, PrintStream out, int maxDepth, int maxNodes) {
+		print(node, new OutputStreamWriter(out), maxDepth, maxNodes);
+	}
+	/** Writes the representation of the AST subtree rooted at the given node, up to
+	 *  some limits.  Where children are left out because of maxDepth, a line "..." is
+	 *  printed in their place.  When maxNodes is reached, a line "..." is printed and
+	 *  printing stops.
+	 * 
+	 * @param node		root of the subtree to print
+	 * @param out		the Writer to print to; it is flushed, but not closed.
+	 * @param maxDepth	the depth of the deepest nodes to print; the root is at depth 0.  NO_LIMIT for no limit.
+	 * @param maxNodes	the number of nodes to print at most.  NO_LIMIT for no limit.
+	 */
+	static public void print(ParseNode node, Writer out, int maxDepth, int maxNodes) {
+		PrintWriter writer = (out instanceof PrintWriter) ? (PrintWriter)out : new PrintWriter(out);
+		ParseTreePrinter printer = new ParseTreePrinter(0, writer, maxDepth, maxNodes);
+		printer.printTree(node);
+		writer.flush();
 	}
 
 
 	// per-instance code
 	private final int baseIndentation;
-	private StringBuffer result;
+	private final PrintWriter result;
+	private final int maxDepth;
+	private final int maxNodes;
 	
-	// Constructor and main interface (makeString).
-	private ParseTreePrinter(int indentAmount) { 
+	// Constructor and main interface (printTree).
+	private ParseTreePrinter(int indentAmount, PrintWriter result, int maxDepth, int maxNodes) { 
 		super();
 		this.baseIndentation = indentAmount;
-	}	
-	private String makeString(ParseNode node) {
-		result = new StringBuffer();
-		appendIndentedSubtree(node, baseIndentation);
-		return result.toString();
+		this.result = result;
+		this.maxDepth = maxDepth;
+		this.maxNodes = maxNodes;
 	}
 
-	// main logic for printing indented trees.
-	private void appendIndentedSubtree(ParseNode node, int indentAmount) {
-		appendIndentedLineFor(node, indentAmount);
-		
-		for(ParseNode child : node.children) {
-			appendIndentedSubtree(child, indentAmount+INDENT_INCREMENT);
+	// main logic for printing indented trees: a preorder walk, with the nodes
+	// still to print, and their depths, on a stack.
+	private void printTree(ParseNode root) {
+		List<ParseNode> pending = new ArrayList<ParseNode>();
+		List<Integer> pendingDepths = new ArrayList<Integer>();
+		pending.add(root);
+		pendingDepths.add(0);
+		int numPrinted = 0;
+
+		while(!pending.isEmpty()) {
+			ParseNode node = pending.remove(pending.size() - 1);
+			int depth = pendingDepths.remove(pendingDepths.size() - 1);
+			int indentAmount = baseIndentation + depth * INDENT_INCREMENT;
+
+			if(numPrinted == maxNodes) {
+				appendIndentedElision(indentAmount);
+				return;
+			}
+			appendIndentedLineFor(node, indentAmount);
+			numPrinted++;
+
+			List<ParseNode> children = node.getChildren();
+			if(depth == maxDepth) {
+				if(!children.isEmpty()) {
+					appendIndentedElision(indentAmount + INDENT_INCREMENT);
+				}
+				continue;
+			}
+			for(int i = children.size() - 1; i >= 0; i--) {
+				pending.add(children.get(i));
+				pendingDepths.add(depth + 1);
+			}
 		}
 	}
 	
@@ -80,9 +158,14 @@ public class ParseTreePrinter {
 		indent(indentAmount);
 		appendLineFor(node);
 	}
+	private void appendIndentedElision(int indentAmount) {
+		indent(indentAmount);
+		result.write(ELISION);
+		result.write(terminator);
+	}
 	private void indent(int indent) {
-		for(int i=0; i<indent; i++) {
-			result.append(' ');
+		for(int remaining = indent; remaining > 0; remaining -= SPACES.length) {
+			result.write(SPACES, 0, Math.min(remaining, SPACES.length));
 		}
 	}
 	private void appendLineFor(ParseNode node) {
@@ -91,31 +174,32 @@ public class ParseTreePrinter {
 		appendType(node);
 		appendAllocatedSize(node);
 		
-		result.append(terminator);
+		result.write(terminator);
 	}
 	
 	// methods for the four pieces of information that we print;
 	// each one appends only if the current printLevel allows it to.
 	private void appendNodeClass(ParseNode node) {
 		if(printLevel.printNodeClass()) {
-			result.append(node.getClass().getSimpleName() + " ");
+			result.write(node.getClass().getSimpleName());
+			result.write(' ');
 		}
 	}
 	private void appendToken(ParseNode node) {
 		if(printLevel.printToken()) {
-			result.append(node.getToken().toString() + " ");
+			result.print(node.getToken().toString());
+			result.write(' ');
 		}
 	}
 	private void appendType(ParseNode node) {
 		if(printLevel.printDecorations()) {
-			result.append(node.getType().infoString() + " ");
+			result.print(node.getType().infoString());
+			result.write(' ');
 		}
 	}
 	private void appendAllocatedSize(ParseNode node) {
 		if(printLevel.printDecorations() && node.hasScope()) {
-			result.append("[scope:" + node.getScope().getAllocatedSize() + " bytes] ");
+			result.print("[scope:" + node.getScope().getAllocatedSize() + " bytes] ");
 		}
 	}
 }
-
-
@@ -4,6 +4,7 @@ import parseTree.ParseNode;
 import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.types.ArrayType;
 import semanticAnalyzer.types.Type;
+import semanticAnalyzer.types.TypeFactory;
 import lexicalAnalyzer.Keyword;
 import lexicalAnalyzer.Lextant;
 import tokens.LextantToken;
@@ -31,9 +32,7 @@ public class ArrayNode extends ParseNode {
 	}
 
 	public void setSubtype(Type subtype) {
-		ArrayType type = new ArrayType();
-		type.setSubtype(subtype);
-		super.setType(type);		
+		super.setType(TypeFactory.arrayOf(subtype));
 	}
 
 	public Type getSubtype() {
@@ -83,9 +82,10 @@ public class ArrayNode extends ParseNode {
 ///////////////////////////////////////////////////////////
 // boilerplate for visitors
 
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 
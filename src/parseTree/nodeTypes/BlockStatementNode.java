@@ -20,9 +20,10 @@ public class BlockStatementNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 	
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 }
@@ -29,8 +29,13 @@ public class BooleanConstantNode extends ParseNode {
 ///////////////////////////////////////////////////////////
 // accept a visitor
 	
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visit(this);
 	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
+	}
+	public boolean visitsChildren() {
+		return false;
+	}
 
 }
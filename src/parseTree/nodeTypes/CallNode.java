@@ -42,9 +42,10 @@ public class CallNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 }
\ No newline at end of file
@@ -17,7 +17,12 @@ public class ErrorNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 			
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visit(this);
 	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
+	}
+	public boolean visitsChildren() {
+		return false;
+	}
 }
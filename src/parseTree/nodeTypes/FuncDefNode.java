@@ -82,12 +82,10 @@ public class FuncDefNode extends ParseNode {
 	//Speciality functions
 	
 	public Binding findVariableBinding() {
-		String identifier = token.getLexeme();
-		
 		for(ParseNode current : pathToRoot()) {
-			if(current.containsBindingOf(identifier)) {
+			if(current.containsBindingOf(token)) {
 				parameterScope = current.getScope();
-				return current.bindingOf(identifier);
+				return current.bindingOf(token);
 			}
 		}
 		return Binding.nullInstance();
@@ -101,9 +99,10 @@ public class FuncDefNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 			
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 }
\ No newline at end of file
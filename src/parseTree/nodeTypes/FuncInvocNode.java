@@ -61,12 +61,10 @@ public class FuncInvocNode extends ParseNode {
 // Speciality functions
 
 	public Binding findVariableBinding() {
-		String identifier = token.getLexeme();
-
 		for(ParseNode current : pathToRoot()) {
-			if(current.containsBindingOf(identifier)) {
+			if(current.containsBindingOf(token)) {
 				declarationScope = current.getScope();
-				return current.bindingOf(identifier);
+				return current.bindingOf(token);
 			}
 		}
 		useBeforeDefineError();
@@ -86,9 +84,10 @@ public class FuncInvocNode extends ParseNode {
 ///////////////////////////////////////////////////////////
 // accept a visitor
 
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 }
\ No newline at end of file
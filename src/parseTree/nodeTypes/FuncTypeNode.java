@@ -1,5 +1,9 @@
 package parseTree.nodeTypes;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import parseTree.ParseNode;
 import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.types.*;
@@ -9,7 +13,7 @@ public class FuncTypeNode extends ParseNode {
 
     public FuncTypeNode(Token token) {
         super(token);
-        this.setType(new FunctionType());
+        this.setType(TypeFactory.functionOf(Collections.<Type>emptyList(), PrimitiveType.VOID));
     }
 
     public FuncTypeNode(ParseNode node) {
@@ -20,22 +24,34 @@ public class FuncTypeNode extends ParseNode {
     // attributes
 
     public Type returnType() {
-        return ((FunctionType) this.getType()).getReturnType();
+        return functionType().getReturnType();
     }
 
+    // function types are canonical, so these replace the type rather than change it.
     public void setReturnType(Type type) {
-        ((FunctionType) this.getType()).setReturnType(type);
+        this.setType(TypeFactory.functionOf(functionType().getTypeList(), type));
     }
 
     public void addChildType(Type type) {
-        ((FunctionType) this.getType()).addType(type);
+        List<Type> typeList = new ArrayList<Type>(functionType().getTypeList());
+        typeList.add(type);
+        this.setType(TypeFactory.functionOf(typeList, functionType().getReturnType()));
+    }
+
+    private FunctionType functionType() {
+        return (FunctionType) this.getType();
     }
 
     ///////////////////////////////////////////////////////////
     // accept a visitor
 
-    public void accept(ParseNodeVisitor visitor) {
+    public void acceptEnter(ParseNodeVisitor visitor) {
         visitor.visit(this);
     }
+    public void acceptLeave(ParseNodeVisitor visitor) {
+    }
+    public boolean visitsChildren() {
+        return false;
+    }
 
 }
\ No newline at end of file
@@ -110,9 +110,10 @@ public class FunctionNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 		
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 
@@ -5,6 +5,7 @@ import parseTree.ParseNodeVisitor;
 import logging.TanLogger;
 import symbolTable.Binding;
 import symbolTable.Scope;
+import symbolTable.ScopeStack;
 import tokens.IdentifierToken;
 import tokens.Token;
 
@@ -59,20 +60,30 @@ public class IdentifierNode extends ParseNode {
 // Speciality functions
 
 	public Binding findVariableBinding() {
-		String identifier = token.getLexeme();
-
 		for(ParseNode current : pathToRoot()) {
-			if(current.containsBindingOf(identifier)) {
+			if(current.containsBindingOf(token)) {
 				declarationScope = current.getScope();
-				return current.bindingOf(identifier);
+				return current.bindingOf(token);
 			}
 		}
 		useBeforeDefineError();
 		return Binding.nullInstance();
 	}
 
+	// as above, but through the scopes a pass has entered rather than up the tree.
+	public Binding findVariableBinding(ScopeStack scopes) {
+		if(scopes.isDefined(token)) {
+			declarationScope = scopes.declarationScopeOf(token);
+			return scopes.lookup(token);
+		}
+		useBeforeDefineError();
+		return Binding.nullInstance();
+	}
+
 	public Scope getDeclarationScope() {
-		findVariableBinding();
+		if(declarationScope == null) {
+			findVariableBinding();
+		}
 		return declarationScope;
 	}
 	public void useBeforeDefineError() {
@@ -84,9 +95,10 @@ public class IdentifierNode extends ParseNode {
 ///////////////////////////////////////////////////////////
 // accept a visitor
 		
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 
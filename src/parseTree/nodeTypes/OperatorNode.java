@@ -3,12 +3,15 @@ package parseTree.nodeTypes;
 import parseTree.ParseNode;
 import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.signatures.FunctionSignature;
+import symbolTable.MemoryLocation;
 import lexicalAnalyzer.Lextant;
 import tokens.LextantToken;
 import tokens.Token;
 
 public class OperatorNode extends ParseNode {
 	FunctionSignature sig;
+	private MemoryLocation savedValueLocation = null;		// set when later nodes reuse this node's value
+	private MemoryLocation reusedValueLocation = null;	// set when an earlier node has computed this node's value
 	
 	public OperatorNode(Token token) {
 		super(token);
@@ -37,6 +40,28 @@ public class OperatorNode extends ParseNode {
 	public FunctionSignature getSignature() {
 		return sig;
 	}
+
+	////////////////////////////////////////////////////////////
+	// common subexpressions
+
+	public void saveValueIn(MemoryLocation location) {
+		this.savedValueLocation = location;
+	}
+	public boolean savesValue() {
+		return savedValueLocation != null;
+	}
+	public MemoryLocation getSavedValueLocation() {
+		return savedValueLocation;
+	}
+	public void reuseValueFrom(MemoryLocation location) {
+		this.reusedValueLocation = location;
+	}
+	public boolean reusesValue() {
+		return reusedValueLocation != null;
+	}
+	public MemoryLocation getReusedValueLocation() {
+		return reusedValueLocation;
+	}
 	////////////////////////////////////////////////////////////
 	// convenience factory
 
@@ -51,9 +76,10 @@ public class OperatorNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 			
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 
@@ -52,9 +52,10 @@ public class ReturnNode extends ParseNode {
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 
-	public void accept(ParseNodeVisitor visitor) {
+	public void acceptEnter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+	}
+	public void acceptLeave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 }
\ No newline at end of file
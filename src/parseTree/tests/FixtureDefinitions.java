@@ -0,0 +1,17 @@
+package parseTree.tests;
+
+public class FixtureDefinitions {
+	public static final String INPUT_DIRECTORY = "input/";
+
+	public static final String PARSER_INPUT_FILENAMES[] = {
+			"src/applications/tests/fixtures/coinTest.tan",
+			INPUT_DIRECTORY + "currentTest.tan",
+			INPUT_DIRECTORY + "test-emptyArray.tan",
+			INPUT_DIRECTORY + "test-functions.tan",
+			INPUT_DIRECTORY + "test-nested_brackets.tan",
+			INPUT_DIRECTORY + "test-precedence.tan",
+			INPUT_DIRECTORY + "test-type_conversion.tan",
+			INPUT_DIRECTORY + "test-while.tan",
+			INPUT_DIRECTORY + "test-const_err.tan",
+	};
+}
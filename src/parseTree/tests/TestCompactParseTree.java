@@ -0,0 +1,51 @@
+package parseTree.tests;
+
+import static parseTree.tests.FixtureDefinitions.*;
+
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.CompactParseTree;
+import parseTree.ParseNode;
+import parseTree.ParseNodeKind;
+import parseTree.ParseTreePrinter;
+import parser.Parser;
+import junit.framework.TestCase;
+
+public class TestCompactParseTree extends TestCase {
+
+	public void testRebuildsTheSameTree() {
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_AND_TOKEN);
+		for(String filename: PARSER_INPUT_FILENAMES) {
+			ParseNode original = Parser.parse(LexicalAnalyzer.make(filename));
+			CompactParseTree tree = CompactParseTree.from(original);
+			ParseNode rebuilt = tree.toParseNode();
+			assertEquals(filename, ParseTreePrinter.print(original), ParseTreePrinter.print(rebuilt));
+
+			CompactParseTree again = CompactParseTree.from(rebuilt);
+			assertEquals(filename, tree.size(), again.size());
+			for(int node = 0; node < tree.size(); node++) {
+				assertSame(filename, tree.tokenAt(node), again.tokenAt(node));
+				assertSame(filename, tree.typeAt(node), again.typeAt(node));
+				assertEquals(filename, tree.isEmptyArrayAt(node), again.isEmptyArrayAt(node));
+			}
+		}
+	}
+
+	public void testPreorderRows() {
+		ParseNode original = Parser.parse(LexicalAnalyzer.make(PARSER_INPUT_FILENAMES[0]));
+		CompactParseTree tree = CompactParseTree.from(original);
+
+		assertEquals(0, tree.root());
+		assertEquals(ParseNodeKind.PROGRAM, tree.kindAt(tree.root()));
+		assertSame(original.getToken(), tree.tokenAt(tree.root()));
+		assertEquals(original.nChildren(), tree.nChildren(tree.root()));
+
+		int child = tree.firstChild(tree.root());
+		assertEquals(1, child);
+		for(ParseNode expected: original.getChildren()) {
+			assertEquals(ParseNodeKind.of(expected), tree.kindAt(child));
+			assertSame(expected.getToken(), tree.tokenAt(child));
+			child = tree.nextSibling(child);
+		}
+		assertEquals(CompactParseTree.NO_NODE, child);
+	}
+}
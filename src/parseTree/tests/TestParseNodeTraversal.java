@@ -0,0 +1,112 @@
+package parseTree.tests;
+
+import static parseTree.tests.FixtureDefinitions.*;
+
+import inputHandler.TextLocation;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.ParseNodeKindVisitor;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.IntegerConstantNode;
+import parseTree.nodeTypes.OperatorNode;
+import parser.Parser;
+import tokens.NumberToken;
+import junit.framework.TestCase;
+
+public class TestParseNodeTraversal extends TestCase {
+
+	public void testSameOrderAsAccept() {
+		for(String filename: PARSER_INPUT_FILENAMES) {
+			ParseNode tree = Parser.parse(LexicalAnalyzer.make(filename));
+
+			RecordingVisitor recursive = new RecordingVisitor();
+			tree.accept(recursive);
+			RecordingVisitor iterative = new RecordingVisitor();
+			tree.acceptIteratively(iterative);
+
+			assertEquals(filename, recursive.toString(), iterative.toString());
+		}
+	}
+
+	public void testKindVisitorSameOrderAsAccept() {
+		for(String filename: PARSER_INPUT_FILENAMES) {
+			ParseNode tree = Parser.parse(LexicalAnalyzer.make(filename));
+
+			RecordingVisitor recursive = new RecordingVisitor();
+			tree.accept(recursive);
+			RecordingKindVisitor switched = new RecordingKindVisitor();
+			tree.acceptIteratively(switched);
+
+			assertEquals(filename, recursive.toString(), switched.toString());
+		}
+	}
+
+	public void testDeepTree() {
+		final int depth = 100000;
+		ParseNode node = new IntegerConstantNode(NumberToken.make(TextLocation.nullInstance(), "1", 1));
+		for(int i = 0; i < depth; i++) {
+			node = OperatorNode.withChildren(Punctuator.SUBTRACT.prototype(), node);
+		}
+
+		CountingVisitor visitor = new CountingVisitor();
+		node.acceptIteratively(visitor);
+		assertEquals(depth, visitor.enters);
+		assertEquals(depth, visitor.leaves);
+		assertEquals(1, visitor.leafs);
+	}
+
+
+	private static class RecordingVisitor extends ParseNodeVisitor.Default {
+		private StringBuilder events = new StringBuilder();
+
+		public void defaultVisitEnter(ParseNode node) {
+			record("enter", node);
+		}
+		public void defaultVisitLeave(ParseNode node) {
+			record("leave", node);
+		}
+		public void defaultVisitForLeaf(ParseNode node) {
+			record("leaf", node);
+		}
+		private void record(String event, ParseNode node) {
+			events.append(event).append(' ')
+				  .append(node.getClass().getSimpleName()).append(' ')
+				  .append(node.getToken().getLexeme()).append('\n');
+		}
+		public String toString() {
+			return events.toString();
+		}
+	}
+	private static class RecordingKindVisitor extends ParseNodeKindVisitor {
+		private RecordingVisitor recorder = new RecordingVisitor();
+
+		public void defaultVisitEnter(ParseNode node) {
+			recorder.defaultVisitEnter(node);
+		}
+		public void defaultVisitLeave(ParseNode node) {
+			recorder.defaultVisitLeave(node);
+		}
+		public void defaultVisitForLeaf(ParseNode node) {
+			recorder.defaultVisitForLeaf(node);
+		}
+		public String toString() {
+			return recorder.toString();
+		}
+	}
+	private static class CountingVisitor extends ParseNodeVisitor.Default {
+		private int enters = 0;
+		private int leaves = 0;
+		private int leafs = 0;
+
+		public void defaultVisitEnter(ParseNode node) {
+			enters++;
+		}
+		public void defaultVisitLeave(ParseNode node) {
+			leaves++;
+		}
+		public void defaultVisitForLeaf(ParseNode node) {
+			leafs++;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package parseTree.tests;
+
+import static parseTree.tests.FixtureDefinitions.*;
+
+import java.io.StringWriter;
+
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.Parser;
+import junit.framework.TestCase;
+
+public class TestParseTreePrinter extends TestCase {
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	private static final ParseTreePrinter.Level[] LEVELS = {
+		ParseTreePrinter.Level.NODE_CLASS_AND_TOKEN,
+		ParseTreePrinter.Level.NODE_CLASS_ONLY,
+		ParseTreePrinter.Level.TOKEN_ONLY,
+	};
+
+	@Override
+	protected void tearDown() {
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.FULL);
+	}
+
+	public void testWriterGetsSameText() {
+		for(ParseTreePrinter.Level level: LEVELS) {
+			ParseTreePrinter.setPrintLevel(level);
+			for(String filename: PARSER_INPUT_FILENAMES) {
+				ParseNode tree = Parser.parse(LexicalAnalyzer.make(filename));
+				StringWriter out = new StringWriter();
+				ParseTreePrinter.print(tree, out);
+				assertEquals(filename + " at " + level, ParseTreePrinter.print(tree), out.toString());
+			}
+		}
+	}
+
+	public void testDepthLimit() {
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_ONLY);
+		ParseNode tree = Parser.parse(LexicalAnalyzer.make(PARSER_INPUT_FILENAMES[0]));
+		StringWriter out = new StringWriter();
+		ParseTreePrinter.print(tree, out, 0, ParseTreePrinter.NO_LIMIT);
+
+		assertEquals("ProgramNode " + LINE_SEPARATOR + "    ..." + LINE_SEPARATOR, out.toString());
+	}
+
+	public void testNodeLimit() {
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_ONLY);
+		ParseNode tree = Parser.parse(LexicalAnalyzer.make(PARSER_INPUT_FILENAMES[0]));
+		String[] allLines = ParseTreePrinter.print(tree).split(LINE_SEPARATOR);
+		StringWriter out = new StringWriter();
+		ParseTreePrinter.print(tree, out, ParseTreePrinter.NO_LIMIT, 3);
+		String[] lines = out.toString().split(LINE_SEPARATOR);
+
+		assertEquals(4, lines.length);
+		for(int i = 0; i < 3; i++) {
+			assertEquals(allLines[i], lines[i]);
+		}
+		assertEquals("...", lines[3].trim());
+	}
+}
@@ -0,0 +1,57 @@
+package parser;
+
+import java.util.BitSet;
+
+import lexicalAnalyzer.Lextant;
+import tokens.Token;
+
+/** An immutable set of token kinds (see TokenKinds), used for the FIRST set of a
+ *  production.  Sets are built once, when the Parser class is loaded; testing a
+ *  token against one is a bit lookup and allocates nothing.
+ */
+class FirstSet {
+	private final BitSet kinds;
+
+	private FirstSet(BitSet kinds) {
+		this.kinds = kinds;
+	}
+	static FirstSet of(Lextant... lextants) {
+		BitSet kinds = new BitSet(TokenKinds.COUNT);
+		for(Lextant lextant: lextants) {
+			kinds.set(TokenKinds.kindOf(lextant));
+		}
+		return new FirstSet(kinds);
+	}
+	static FirstSet ofKinds(int... tokenKinds) {
+		BitSet kinds = new BitSet(TokenKinds.COUNT);
+		for(int kind: tokenKinds) {
+			kinds.set(kind);
+		}
+		return new FirstSet(kinds);
+	}
+	FirstSet union(FirstSet... others) {
+		BitSet kinds = (BitSet)this.kinds.clone();
+		for(FirstSet other: others) {
+			kinds.or(other.kinds);
+		}
+		return new FirstSet(kinds);
+	}
+
+	boolean contains(Token token) {
+		return kinds.get(TokenKinds.kindOf(token));
+	}
+
+	/** Send this set's token kinds to a production in a dispatch table.  Kinds that
+	 *  already have a production keep it, so sets are assigned in order of priority.
+	 * @param table a table from TokenKinds.newDispatchTable().
+	 * @param production the production number; 0 is reserved for "no production".
+	 */
+	void assignTo(byte[] table, int production) {
+		assert production != 0;
+		for(int kind = kinds.nextSetBit(0); kind >= 0; kind = kinds.nextSetBit(kind + 1)) {
+			if(table[kind] == 0) {
+				table[kind] = (byte)production;
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import inputHandler.SourceBuffer;
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.ParallelLexer;
+import lexicalAnalyzer.Punctuator;
+import lexicalAnalyzer.TokenBuffer;
+import lexicalAnalyzer.TokenBufferScanner;
+import parseTree.ParseNode;
+
+/** Parses the top-level function definitions of a program on several threads.
+ * <p>
+ *  The leading <code>subr</code> definitions are found by brace matching in the
+ *  TokenBuffer: each runs from its <code>subr</code> to the brace that closes its
+ *  body.  Each is parsed on a ForkJoinPool by its own Parser, which keeps its syntax
+ *  errors instead of logging them.  The program is then parsed on the calling
+ *  thread, which takes each definition that starts where it is reading, logs that
+ *  definition's errors, and reads on from where that definition's parse ended.
+ * <p>
+ *  Brace matching is only a guess at where the serial parser will be.  A definition
+ *  with syntax errors may be parsed past its closing brace, or short of it; from
+ *  then on the remaining definitions do not start where the parser is reading, and
+ *  the calling thread parses them itself.  Since a definition's parse depends only
+ *  on the tokens from its start, the tree and the errors are the same, in the same
+ *  order, as those of a serial parse of the buffer.
+ */
+public class ParallelParser {
+	private static final int MINIMUM_DEFINITIONS = 2;		// parse serially below this.
+	private static final int NOT_FOUND = -1;
+
+	public static ParseNode parse(String filename) {
+		return parse(ParallelLexer.lex(filename));
+	}
+	public static ParseNode parse(SourceBuffer source) {
+		return parse(ParallelLexer.lex(source));
+	}
+	public static ParseNode parse(TokenBuffer buffer) {
+		return parse(buffer, ForkJoinPool.commonPool());
+	}
+	public static ParseNode parse(TokenBuffer buffer, ForkJoinPool pool) {
+		List<Integer> starts = definitionStarts(buffer);
+		if(starts.size() < MINIMUM_DEFINITIONS) {
+			return Parser.parse(new TokenBufferScanner(buffer));
+		}
+
+		List<ParsedDefinition> definitions = new ArrayList<ParsedDefinition>();
+		for(int start: starts) {
+			ParsedDefinition definition = new ParsedDefinition(buffer, start);
+			pool.execute(definition);
+			definitions.add(definition);
+		}
+		return Parser.parse(buffer, definitions);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// finding the definitions.  Only keywords and punctuators are looked at, so no
+	// tokens are built.
+
+	// the positions of the subr keywords of the leading definitions that close.
+	static List<Integer> definitionStarts(TokenBuffer buffer) {
+		List<Integer> result = new ArrayList<Integer>();
+		int position = 0;
+		while(buffer.lextantAt(position) == Keyword.SUBR) {
+			int end = definitionEnd(buffer, position);
+			if(end == NOT_FOUND) {
+				break;
+			}
+			result.add(position);
+			position = end;
+		}
+		return result;
+	}
+	// just past the brace that closes the body of the definition at start, or NOT_FOUND
+	// if another definition or main comes before the body, or the body does not close.
+	private static int definitionEnd(TokenBuffer buffer, int start) {
+		int position = start + 1;
+		for( ; position < buffer.size(); position++) {
+			Lextant lextant = buffer.lextantAt(position);
+			if(lextant == Punctuator.OPEN_BRACE) {
+				break;
+			}
+			if(lextant == Keyword.SUBR || lextant == Keyword.MAIN) {
+				return NOT_FOUND;
+			}
+		}
+
+		int depth = 0;
+		for( ; position < buffer.size(); position++) {
+			Lextant lextant = buffer.lextantAt(position);
+			if(lextant == Punctuator.OPEN_BRACE) {
+				depth++;
+			}
+			else if(lextant == Punctuator.CLOSE_BRACE && --depth == 0) {
+				return position + 1;
+			}
+		}
+		return NOT_FOUND;
+	}
+}
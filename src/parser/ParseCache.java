@@ -0,0 +1,292 @@
+package parser;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import inputHandler.SourceBuffer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import logging.TanLogger;
+import parseTree.CompactParseTree;
+import parseTree.CompactParseTreeFormat;
+import parseTree.ParseNode;
+
+/** Keeps parse trees on disk, so that a file that has not changed is not lexed
+ *  or parsed again.
+ * <p>
+ *  Each tree is a file in the cache directory, written in CompactParseTreeFormat
+ *  and named by a SHA-256 hash of the source text and of a fingerprint of the
+ *  compiler: the bytes of every class in the packages that decide what tree a text
+ *  parses to.  A rebuilt lexer, parser, or tree therefore never reads trees that an
+ *  older one wrote.  If those classes cannot be read, nothing is cached.
+ *  On a hit the file is read with one bulk read; the source is still read, to hash
+ *  it and to resolve token locations.
+ * <p>
+ *  Only trees parsed without any error messages are stored, since a tree from the
+ *  cache comes without its messages.  Failing to read or write the cache is never
+ *  an error: the file is just parsed.
+ */
+public class ParseCache {
+	public static final String CACHE_DIRECTORY_PROPERTY = "tan.parseCache";
+	public static final String PARALLEL_PARSE_PROPERTY = "tan.parallelParse";
+	private static final String EXTENSION = ".ast";
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String CLASS_EXTENSION = ".class";
+	private static final String TESTS_DIRECTORY = "tests";
+
+	// with their subpackages, except tests.
+	private static final String[] fingerprintedPackages = {
+		"inputHandler",
+		"lexicalAnalyzer",
+		"tokens",
+		"parser",
+		"parseTree",
+		"semanticAnalyzer/types",
+	};
+	private static byte[] compilerFingerprint = null;
+	private static boolean fingerprintTaken = false;
+
+	private Path directory;
+	private byte[] fingerprint;
+
+	/** Parse a file, through the cache in the directory named by the system property
+	 *  tan.parseCache, or without a cache if that property is not set.  A file that
+	 *  is not in the cache is lexed and parsed on several threads if the system
+	 *  property tan.parallelParse is "true".
+	 * @param filename the name of the file to parse.
+	 * @return the parse tree of the file.
+	 */
+	public static ParseNode parse(String filename) {
+		SourceBuffer source = SourceBuffer.fromFilename(filename);
+		String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+		if(directory == null) {
+			return parseWithoutCache(source);
+		}
+		return new ParseCache(Paths.get(directory)).parse(source);
+	}
+
+	public ParseCache(Path directory) {
+		this(directory, compilerFingerprint());
+	}
+	/** A cache whose entries are keyed by the given fingerprint instead of that of
+	 *  the running compiler.
+	 * @param directory the directory that holds the entries.
+	 * @param fingerprint the compiler fingerprint, or null to cache nothing.
+	 */
+	public ParseCache(Path directory, byte[] fingerprint) {
+		this.directory = directory;
+		this.fingerprint = fingerprint;
+	}
+
+	/** Get the parse tree of a source from the cache, or parse it and store the tree.
+	 * @param source the text to parse.
+	 * @return the parse tree; a tree from the cache is a new tree each time.
+	 */
+	public ParseNode parse(SourceBuffer source) {
+		if(fingerprint == null) {
+			return parseWithoutCache(source);
+		}
+		Path path = pathFor(source);
+		ParseNode cached = load(path, source);
+		if(cached != null) {
+			return cached;
+		}
+
+		int messagesBefore = TanLogger.numMessages();
+		ParseNode result = parseWithoutCache(source);
+		if(TanLogger.numMessages() == messagesBefore) {
+			store(path, result, source);
+		}
+		return result;
+	}
+	// the parallel parse gives the same tree and messages; it is opt-in only because it uses more threads.
+	private static ParseNode parseWithoutCache(SourceBuffer source) {
+		if(Boolean.getBoolean(PARALLEL_PARSE_PROPERTY)) {
+			return ParallelParser.parse(source);
+		}
+		return Parser.parse(LexicalAnalyzer.make(source));
+	}
+	public boolean isCached(SourceBuffer source) {
+		return fingerprint != null && Files.isRegularFile(pathFor(source));
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// reading and writing entries
+
+	private ParseNode load(Path path, SourceBuffer source) {
+		try {
+			byte[] bytes = Files.readAllBytes(path);
+			return CompactParseTreeFormat.fromBytes(bytes, source.getSourceMap()).toParseNode();
+		}
+		catch(IOException | CompactParseTreeFormat.FormatException e) {
+			return null;
+		}
+	}
+	// written to a temporary file first, so that a reader never sees part of an entry.
+	private void store(Path path, ParseNode tree, SourceBuffer source) {
+		Path temporary = null;
+		try {
+			byte[] bytes = CompactParseTreeFormat.toBytes(CompactParseTree.from(tree), source.getSourceMap());
+			Files.createDirectories(directory);
+			temporary = Files.createTempFile(directory, "entry", ".tmp");
+			Files.write(temporary, bytes);
+			moveInto(temporary, path);
+		}
+		catch(IOException | CompactParseTreeFormat.FormatException e) {
+			deleteQuietly(temporary);
+		}
+	}
+	private static void moveInto(Path temporary, Path path) throws IOException {
+		try {
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch(AtomicMoveNotSupportedException e) {
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	private static void deleteQuietly(Path path) {
+		if(path == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch(IOException e) {
+			// the entry was not written; a stray temporary file does no harm.
+		}
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// keys
+
+	private Path pathFor(SourceBuffer source) {
+		MessageDigest digest = newDigest();
+		digest.update(fingerprint);
+		ByteBuffer chunk = ByteBuffer.allocate(8192);
+		chunk.putInt(source.length());
+		for(int i = 0; i < source.length(); i++) {
+			if(chunk.remaining() < 2) {
+				digest.update(chunk.array(), 0, chunk.position());
+				chunk.clear();
+			}
+			chunk.putChar(source.charAt(i));
+		}
+		digest.update(chunk.array(), 0, chunk.position());
+		return directory.resolve(toHex(digest.digest()) + EXTENSION);
+	}
+	private static synchronized byte[] compilerFingerprint() {
+		if(!fingerprintTaken) {
+			compilerFingerprint = fingerprintOfCodeSource();
+			fingerprintTaken = true;
+		}
+		return compilerFingerprint;
+	}
+	// the fingerprint of the directory or jar that this class was loaded from.
+	private static byte[] fingerprintOfCodeSource() {
+		try {
+			CodeSource codeSource = ParseCache.class.getProtectionDomain().getCodeSource();
+			if(codeSource == null) {
+				return null;
+			}
+			Path location = Paths.get(codeSource.getLocation().toURI());
+			if(Files.isDirectory(location)) {
+				return fingerprintOf(location);
+			}
+			try(FileSystem jar = FileSystems.newFileSystem(location, (ClassLoader)null)) {
+				return fingerprintOf(jar.getPath("/"));
+			}
+		}
+		catch(IOException | URISyntaxException | SecurityException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/** Digest the class files of the compiler packages under a class root.
+	 * @param classRoot the directory (or jar root) that holds the compiled classes.
+	 * @return the fingerprint, or null if there are no class files to digest.
+	 * @throws IOException if a class file cannot be read.
+	 */
+	public static byte[] fingerprintOf(Path classRoot) throws IOException {
+		List<String> classNames = new ArrayList<>();
+		for(String fingerprintedPackage: fingerprintedPackages) {
+			addClassFiles(classRoot.resolve(fingerprintedPackage), classRoot, classNames);
+		}
+		if(classNames.isEmpty()) {
+			return null;
+		}
+		Collections.sort(classNames);
+
+		MessageDigest digest = newDigest();
+		digest.update((byte)FORMAT_VERSION);
+		for(String className: classNames) {
+			digest.update(className.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte)0);
+			digest.update(Files.readAllBytes(classRoot.resolve(className)));
+		}
+		return digest.digest();
+	}
+	// adds the names, relative to classRoot, of the class files in a package and its
+	// subpackages, except tests.
+	private static void addClassFiles(Path packageDirectory, Path classRoot, List<String> classNames) throws IOException {
+		if(!Files.isDirectory(packageDirectory)) {
+			return;
+		}
+		try(DirectoryStream<Path> entries = Files.newDirectoryStream(packageDirectory)) {
+			for(Path entry: entries) {
+				if(Files.isDirectory(entry)) {
+					if(!entry.getFileName().toString().equals(TESTS_DIRECTORY)) {
+						addClassFiles(entry, classRoot, classNames);
+					}
+				}
+				else if(entry.getFileName().toString().endsWith(CLASS_EXTENSION)) {
+					classNames.add(nameOf(classRoot.relativize(entry)));
+				}
+			}
+		}
+	}
+	// a relative path with '/' between its elements, as in a jar, whatever the file system.
+	private static String nameOf(Path relativePath) {
+		StringBuilder result = new StringBuilder();
+		for(Path element: relativePath) {
+			if(result.length() > 0) {
+				result.append('/');
+			}
+			result.append(element.toString());
+		}
+		return result.toString();
+	}
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+		}
+	}
+	private static String toHex(byte[] bytes) {
+		StringBuilder result = new StringBuilder(bytes.length * 2);
+		for(byte b: bytes) {
+			result.append(String.format("%02x", b));
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,55 @@
+package parser;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.ParseNode;
+
+/** A top-level function definition parsed on its own, possibly on another thread,
+ *  from a given token position.  It holds the definition's ParseNode, the position
+ *  of the token after it, and its syntax errors, in the order they were found.
+ */
+@SuppressWarnings("serial")
+class ParsedDefinition extends RecursiveAction {
+	private final TokenBuffer buffer;
+	private final int start;
+	private int end;
+	private ParseNode node;
+	private List<String> errors;
+
+	ParsedDefinition(TokenBuffer buffer, int start) {
+		this.buffer = buffer;
+		this.start = start;
+	}
+	@Override
+	protected void compute() {
+		Parser.parseFunctionDefinitionAt(buffer, this);
+	}
+	void complete(int end, ParseNode node, List<String> errors) {
+		this.end = end;
+		this.node = node;
+		this.errors = errors;
+	}
+
+	int getStart() {
+		return start;
+	}
+	// the rest wait for the parse to finish.
+	boolean succeeded() {
+		quietlyJoin();
+		return isCompletedNormally();
+	}
+	int getEnd() {
+		join();
+		return end;
+	}
+	ParseNode getNode() {
+		join();
+		return node;
+	}
+	List<String> getErrors() {
+		join();
+		return errors;
+	}
+}
@@ -2,6 +2,7 @@ package parser;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import logging.TanLogger;
@@ -16,11 +17,118 @@ import lexicalAnalyzer.Keyword;
 import lexicalAnalyzer.Lextant;
 import lexicalAnalyzer.Punctuator;
 import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
+import lexicalAnalyzer.TokenBufferScanner;
 
 public class Parser {
 	private Scanner scanner;
 	private Token nowReading;
 	private Token previouslyRead;
+	private List<String> deferredErrors = null;							// if not null, errors go here instead of to the log.
+	private Iterator<ParsedDefinition> parsedDefinitions = null;		// from ParallelParser; see parseGlobalDefinition.
+	private ParsedDefinition nextParsedDefinition = null;
+
+	////////////////////////////////////////////////////////////
+	// FIRST sets, and tables from token kind to production.
+	// A production's startsX() tests its FIRST set; parseX() switches on its table.
+
+	private static final FirstSet IDENTIFIER_FIRST = FirstSet.ofKinds(TokenKinds.IDENTIFIER).union(FirstSet.of(Punctuator.OPEN_BRACKET));
+	private static final FirstSet TYPE_FIRST = FirstSet.of(Keyword.BOOL, Keyword.CHAR, Keyword.STRING, Keyword.INT, Keyword.FLOAT);
+	private static final FirstSet FUNCTION_TYPE_FIRST = TYPE_FIRST.union(FirstSet.of(Keyword.VOID));
+	private static final FirstSet PRINT_SEPARATOR_FIRST = FirstSet.of(Punctuator.PRINT_SEPARATOR, Punctuator.PRINT_SPACE,
+			Punctuator.PRINT_NEWLINE, Punctuator.PRINT_TAB);
+
+	private static final FirstSet DECLARATION_FIRST = FirstSet.of(Keyword.CONST, Keyword.VAR);
+	private static final FirstSet STATEMENT_FIRST = FirstSet.of(Keyword.SUBR, Keyword.CONST, Keyword.VAR, Keyword.CALL,
+			Keyword.RETURN, Keyword.IF, Keyword.WHILE, Keyword.PRINT, Punctuator.OPEN_BRACE).union(IDENTIFIER_FIRST);
+	private static final FirstSet STATEMENT_WITH_BLOCKS_FIRST = FirstSet.of(Keyword.SUBR, Keyword.IF, Keyword.WHILE, Punctuator.OPEN_BRACE);
+
+	private static final FirstSet UNARY_OPERATORS = FirstSet.of(Punctuator.SUBTRACT, Punctuator.ADD, Punctuator.NOT, Keyword.LENGTH);
+	private static final FirstSet ARRAY_EXPRESSION_FIRST = FirstSet.of(Punctuator.OPEN_BRACKET, Keyword.NEW);
+	private static final FirstSet BOOLEAN_LITERAL_FIRST = FirstSet.of(Keyword.TRUE, Keyword.FALSE);
+	private static final FirstSet LITERAL_FIRST = FirstSet.ofKinds(TokenKinds.INTEGER_LITERAL, TokenKinds.FLOATING_LITERAL,
+			TokenKinds.STRING_LITERAL, TokenKinds.CHARACTER_LITERAL).union(IDENTIFIER_FIRST, BOOLEAN_LITERAL_FIRST, FUNCTION_TYPE_FIRST);
+	private static final FirstSet ATOMIC_EXPRESSION_FIRST = LITERAL_FIRST.union(UNARY_OPERATORS, ARRAY_EXPRESSION_FIRST,
+			FirstSet.of(Punctuator.OPEN_PARENTHESIS, Punctuator.LESSER));
+
+	// binding powers of the binary operators, by Punctuator ordinal; 0 for anything else.
+	// An operand expected after an operator of power p is at grammar level p + 1.
+	private static final int COMPARISON_POWER = 1;
+	private static final int ADDITIVE_POWER = 2;
+	private static final int MULTIPLICATIVE_POWER = 3;
+	private static final int UNARY_POWER = 4;
+	private static final int[] bindingPower = new int[Punctuator.values().length];
+	static {
+		for (Punctuator punctuator: new Punctuator[] {Punctuator.GREATER, Punctuator.GREATEREQUAL, Punctuator.EQUALEQUAL,
+				Punctuator.NOTEQUAL, Punctuator.LESSER, Punctuator.LESSEREQUAL, Punctuator.AND, Punctuator.OR}) {
+			bindingPower[punctuator.ordinal()] = COMPARISON_POWER;
+		}
+		bindingPower[Punctuator.ADD.ordinal()] = ADDITIVE_POWER;
+		bindingPower[Punctuator.SUBTRACT.ordinal()] = ADDITIVE_POWER;
+		bindingPower[Punctuator.MULTIPLY.ordinal()] = MULTIPLICATIVE_POWER;
+		bindingPower[Punctuator.DIVIDE.ordinal()] = MULTIPLICATIVE_POWER;
+	}
+	// grammar levels, named as in the syntax errors for a missing operand.
+	private static final int EXPRESSION_LEVEL = 1;
+	private static final int ATOMIC_LEVEL = 4;
+	private static final int NO_CEILING = ATOMIC_LEVEL + 1;
+	private static final String[] operandNames = {
+			null, "expression", "additiveExpression", "multiplicativeExpression", "atomic expression" };
+
+	// statement productions
+	private static final int FUNCTION_DEFINITION = 1;
+	private static final int DECLARATION = 2;
+	private static final int CALL_STATEMENT = 3;
+	private static final int RETURN_STATEMENT = 4;
+	private static final int IF_STATEMENT = 5;
+	private static final int WHILE_STATEMENT = 6;
+	private static final int PRINT_STATEMENT = 7;
+	private static final int ASSIGNMENT_STATEMENT = 8;
+	private static final int BLOCK_STATEMENT = 9;
+	private static final byte[] statementDispatch = TokenKinds.newDispatchTable();
+	static {
+		FirstSet.of(Keyword.SUBR).assignTo(statementDispatch, FUNCTION_DEFINITION);
+		DECLARATION_FIRST.assignTo(statementDispatch, DECLARATION);
+		FirstSet.of(Keyword.CALL).assignTo(statementDispatch, CALL_STATEMENT);
+		FirstSet.of(Keyword.RETURN).assignTo(statementDispatch, RETURN_STATEMENT);
+		FirstSet.of(Keyword.IF).assignTo(statementDispatch, IF_STATEMENT);
+		FirstSet.of(Keyword.WHILE).assignTo(statementDispatch, WHILE_STATEMENT);
+		FirstSet.of(Keyword.PRINT).assignTo(statementDispatch, PRINT_STATEMENT);
+		IDENTIFIER_FIRST.assignTo(statementDispatch, ASSIGNMENT_STATEMENT);
+		FirstSet.of(Punctuator.OPEN_BRACE).assignTo(statementDispatch, BLOCK_STATEMENT);
+	}
+
+	// atomic expression productions; '[' starts both an array expression and an identifier, and goes to the array.
+	private static final int UNARY_EXPRESSION = 1;
+	private static final int PARENTHESIS_EXPRESSION = 2;
+	private static final int TYPE_CAST_EXPRESSION = 3;
+	private static final int ARRAY_EXPRESSION = 4;
+	private static final int LITERAL = 5;
+	private static final byte[] atomicExpressionDispatch = TokenKinds.newDispatchTable();
+	static {
+		UNARY_OPERATORS.assignTo(atomicExpressionDispatch, UNARY_EXPRESSION);
+		FirstSet.of(Punctuator.OPEN_PARENTHESIS).assignTo(atomicExpressionDispatch, PARENTHESIS_EXPRESSION);
+		FirstSet.of(Punctuator.LESSER).assignTo(atomicExpressionDispatch, TYPE_CAST_EXPRESSION);
+		ARRAY_EXPRESSION_FIRST.assignTo(atomicExpressionDispatch, ARRAY_EXPRESSION);
+		LITERAL_FIRST.assignTo(atomicExpressionDispatch, LITERAL);
+	}
+
+	// literal productions.  Type keywords are in LITERAL_FIRST but have no production here.
+	private static final int INTEGER_LITERAL = 1;
+	private static final int FLOAT_LITERAL = 2;
+	private static final int IDENTIFIER = 3;
+	private static final int BOOLEAN_LITERAL = 4;
+	private static final int STRING_LITERAL = 5;
+	private static final int CHARACTER_LITERAL = 6;
+	private static final byte[] literalDispatch = TokenKinds.newDispatchTable();
+	static {
+		FirstSet.ofKinds(TokenKinds.INTEGER_LITERAL).assignTo(literalDispatch, INTEGER_LITERAL);
+		FirstSet.ofKinds(TokenKinds.FLOATING_LITERAL).assignTo(literalDispatch, FLOAT_LITERAL);
+		IDENTIFIER_FIRST.assignTo(literalDispatch, IDENTIFIER);
+		BOOLEAN_LITERAL_FIRST.assignTo(literalDispatch, BOOLEAN_LITERAL);
+		FirstSet.ofKinds(TokenKinds.STRING_LITERAL).assignTo(literalDispatch, STRING_LITERAL);
+		FirstSet.ofKinds(TokenKinds.CHARACTER_LITERAL).assignTo(literalDispatch, CHARACTER_LITERAL);
+	}
 
 	public static ParseNode parse(Scanner scanner) {
 		Parser parser = new Parser(scanner);
@@ -37,6 +145,41 @@ public class Parser {
 		return parseProgram();
 	}
 
+	////////////////////////////////////////////////////////////
+	// for ParallelParser.  Both work only with a TokenBufferScanner.
+
+	/** Parse one function definition from a given position, as the serial parser
+	 *  would if it reached that position at the start of a globalDefinition, and
+	 *  complete the ParsedDefinition with it.  Errors are kept rather than logged.
+	 */
+	static void parseFunctionDefinitionAt(TokenBuffer buffer, ParsedDefinition result) {
+		TokenBufferScanner scanner = new TokenBufferScanner(buffer);
+		scanner.seek(result.getStart());
+		Parser parser = new Parser(scanner);
+		parser.deferredErrors = new ArrayList<String>();
+		parser.readToken();
+
+		ParseNode definition = parser.parseFunctionDefinition();
+		result.complete(parser.positionOfNowReading(), definition, parser.deferredErrors);
+	}
+	/** Parse a whole program, taking function definitions from the given list
+	 *  whenever one starts where the parser is reading.  Any other definition is
+	 *  parsed here.
+	 */
+	static ParseNode parse(TokenBuffer buffer, List<ParsedDefinition> definitions) {
+		Parser parser = new Parser(new TokenBufferScanner(buffer));
+		parser.parsedDefinitions = definitions.iterator();
+		parser.nextParsedDefinition = parser.parsedDefinitions.hasNext() ? parser.parsedDefinitions.next() : null;
+		return parser.parse();
+	}
+	private int positionOfNowReading() {
+		TokenBufferScanner tokenScanner = (TokenBufferScanner)scanner;
+		if(nowReading instanceof NullToken) {
+			return tokenScanner.getBuffer().size();
+		}
+		return tokenScanner.position() - 1;
+	}
+
 	////////////////////////////////////////////////////////////
 	// "program" is the start symbol S
 	// S -> globalDefinition* MAIN blockStatement
@@ -75,7 +218,7 @@ public class Parser {
 		// globalDefinition*
 		while (startsGlobalDefinition(nowReading)) {			
 			if (startsFunctionDefinition(nowReading)) {
-				ParseNode functionDefinition = parseFunctionDefinition();
+				ParseNode functionDefinition = hasParsedDefinitionHere() ? takeParsedDefinition() : parseFunctionDefinition();
 				functionDefinitions.add(functionDefinition);
 			}
 		}
@@ -90,6 +233,35 @@ public class Parser {
 		return startsFunctionDefinition(token);
 	}
 
+	// Parsed definitions are in source order.  Once one does not start where the
+	// previous one ended, the rest are dropped: the serial parse has gone elsewhere.
+	// One that failed is dropped too, so that parsing it here fails the same way.
+	private boolean hasParsedDefinitionHere() {
+		if(nextParsedDefinition == null) {
+			return false;
+		}
+		if(nextParsedDefinition.getStart() != positionOfNowReading() || !nextParsedDefinition.succeeded()) {
+			nextParsedDefinition = null;
+			parsedDefinitions = null;
+			return false;
+		}
+		return true;
+	}
+	// report the definition's errors as if it were parsed here, then read on from its end.
+	private ParseNode takeParsedDefinition() {
+		ParsedDefinition definition = nextParsedDefinition;
+		nextParsedDefinition = parsedDefinitions.hasNext() ? parsedDefinitions.next() : null;
+
+		for(String message: definition.getErrors()) {
+			error(message);
+		}
+		TokenBufferScanner tokenScanner = (TokenBufferScanner)scanner;
+		tokenScanner.seek(definition.getEnd() - 1);
+		readToken();
+		readToken();
+		return definition.getNode();
+	}
+
 	///////////////////////////////////////////////////////////
 	// mainBlock
 
@@ -118,50 +290,23 @@ public class Parser {
 	
 	// statement-> declaration | printStmt | assignmentStatement | blockStatement
 	private ParseNode parseStatement() {
-		if (!startsStatement(nowReading)) {
-			return syntaxErrorNode("statement");
-		}
-		if (startsFunctionDefinition(nowReading)) {
-			return parseFunctionDefinition();
+		switch (statementDispatch[TokenKinds.kindOf(nowReading)]) {
+		case FUNCTION_DEFINITION:	return parseStatementWithBlocks();
+		case DECLARATION:			return parseDeclaration();
+		case CALL_STATEMENT:		return parseCallStatement();
+		case RETURN_STATEMENT:		return parseReturnStatement();
+		case IF_STATEMENT:			return parseStatementWithBlocks();
+		case WHILE_STATEMENT:		return parseStatementWithBlocks();
+		case PRINT_STATEMENT:		return parsePrintStatement();
+		case ASSIGNMENT_STATEMENT:	return parseAssignmentStatement();
+		case BLOCK_STATEMENT:		return parseStatementWithBlocks();
+		default:					return syntaxErrorNode("statement");
 		}
-		if (startsDeclaration(nowReading)) {
-			return parseDeclaration();
-		}
-		if (startsCallStatement(nowReading)) {
-			return parseCallStatement();
-		}
-		if (startsReturnStatement(nowReading)) {
-			return parseReturnStatement();
-		}
-		if (startsIfStatement(nowReading)) {
-			return parseIfStatement();
-		}
-		if (startsWhileStatement(nowReading)) {
-			return parseWhileStatement();
-		}
-		if (startsPrintStatement(nowReading)) {
-			return parsePrintStatement();
-		}
-		if (startsAssignmentStatement(nowReading)) {
-			return parseAssignmentStatement();
-		}
-		if(startsBlockStatement(nowReading)) {
-			return parseBlockStatement();
-		}
-		return syntaxErrorNode("statement");
 	}
 
 	
 	private boolean startsStatement(Token token) {
-		return startsFunctionDefinition(token) || 
-			   startsPrintStatement(token) ||
-			   startsDeclaration(token) ||
-			   startsAssignmentStatement(token) ||
-			   startsCallStatement(nowReading) ||
-			   startsReturnStatement(nowReading) ||
-			   startsIfStatement(token) ||
-			   startsWhileStatement(token) ||
-			   startsBlockStatement(token);
+		return STATEMENT_FIRST.contains(token);
 	}
 
 	// functionDefinition -> subr type identifier (parameterList) blockStatement
@@ -169,46 +314,13 @@ public class Parser {
 		if (!startsFunctionDefinition(nowReading)) {
 			return syntaxErrorNode("function definition");
 		}
-
-		// subr
-		expect(Keyword.SUBR);
-
-		Token functoken = previouslyRead;
-
-		// type
-		Type returnType = parseFunctionType();
-
-		// identifier            
-		ParseNode identifier = parseIdentifier();
-
-		// parameterList + blockStatement
-		ParseNode FunctionDef = parseFunction(returnType);
-
-		// Create Function def Node
-		ParseNode node = FuncDefNode.withChildren(functoken, identifier, FunctionDef);
-
-		return node;
+		return parseStatementWithBlocks();
 	}
 
 	private boolean startsFunctionDefinition(Token token) {
 		return token.isLextant(Keyword.SUBR);
 	}
 
-	private ParseNode parseFunction(Type returnType) {
-		if (!startsFunction(nowReading)) {
-			return syntaxErrorNode("function");
-		}
-
-		Token functoken = previouslyRead;
-		ParseNode parameterList = parseParameterList(returnType);
-		ParseNode statement = parseBlockStatement();
-
-		// Create Function Node
-		ParseNode FuncNode = FunctionNode.withChildren(functoken, parameterList, statement);
-
-		return FuncNode;
-	}
-
 	private boolean startsFunction(Token token) {
 		return token.isLextant(Punctuator.OPEN_PARENTHESIS);
 	}
@@ -317,74 +429,148 @@ public class Parser {
 		return token.isLextant(Keyword.RETURN);
 	}
 	
-	private ParseNode parseWhileStatement() {
-		if(!startsWhileStatement(nowReading)) {
-			return syntaxErrorNode("while statement");
+	///////////////////////////////////////////////////////////
+	// statements that hold blocks
+
+	// Block statements, ifs, whiles and function definitions are parsed over an explicit
+	// stack of pending statements rather than by recursion, so they nest to any depth
+	// without using the Java stack.  The statement on top fills one block at a time, and
+	// a statement is appended to the block enclosing it once it is complete.
+	//
+	// blockStatement -> { statement* }
+	// ifStatement -> IF expression blockStatement (ELSE blockStatement)?
+	// whileStatement -> WHILE expression blockStatement
+	// functionDefinition -> SUBR type identifier parameterList blockStatement
+	private ParseNode parseStatementWithBlocks() {
+		List<PendingStatement> pending = new ArrayList<PendingStatement>();
+		ParseNode complete = beginStatementWithBlocks(pending);
+
+		while(true) {
+			if(complete != null) {
+				if(pending.isEmpty()) {
+					return complete;
+				}
+				pending.get(pending.size() - 1).block.appendChild(complete);
+				complete = null;
+			}
+
+			PendingStatement statement = pending.get(pending.size() - 1);
+			if(statement.block == null) {
+				if(startsBlockStatement(nowReading)) {
+					statement.block = new BlockStatementNode(nowReading);
+					expect(Punctuator.OPEN_BRACE);
+				}
+				else {
+					complete = blockParsed(pending, syntaxErrorNode("block statement"));
+				}
+			}
+			else if(startsStatementWithBlocks(nowReading)) {
+				complete = beginStatementWithBlocks(pending);
+			}
+			else if(startsStatement(nowReading)) {
+				complete = parseStatement();
+			}
+			else {
+				expect(Punctuator.CLOSE_BRACE);
+				ParseNode block = statement.block;
+				statement.block = null;
+				complete = blockParsed(pending, block);
+			}
 		}
-		// while (expression) {block} 
-		expect(Keyword.WHILE);
-		
-		Token while_Token = previouslyRead;
-		ParseNode expression = parseExpression();
-		ParseNode block = parseBlockStatement();
-		
-		ParseNode While = new WhileNode(while_Token, expression, block); 
-		return While;
-	}
-	
-	private boolean startsWhileStatement(Token token) {
-		return token.isLextant(Keyword.WHILE);
 	}
-	
-	private ParseNode parseIfStatement() {
-		if(!startsIfStatement(nowReading)) {
-			return syntaxErrorNode("if statement");
-		}
-		// if (expression) {block} 
-		expect(Keyword.IF);
-		
-		Token if_Token = previouslyRead;
-		ParseNode expression = parseExpression();
-		ParseNode block = parseBlockStatement();
-		
-		// else {block}
-		if(startsElseStatement(nowReading)) {
-			expect(Keyword.ELSE);
-			ParseNode elseBlock = parseBlockStatement();
-			return IfNode.withChildren(if_Token, expression, block, elseBlock);
-		}
-		else {
-			ParseNode If = new IfNode(if_Token, expression, block); 
-			return If;
-		}
+
+	private boolean startsStatementWithBlocks(Token token) {
+		return STATEMENT_WITH_BLOCKS_FIRST.contains(token);
 	}
-	
-	private boolean startsIfStatement(Token token) {
-		return token.isLextant(Keyword.IF);
+
+	// parse a statement up to its first block and push it.  A function definition without
+	// a parameter list is complete here, with an error in place of its function.
+	private ParseNode beginStatementWithBlocks(List<PendingStatement> pending) {
+		int production = statementDispatch[TokenKinds.kindOf(nowReading)];
+		switch (production) {
+		case FUNCTION_DEFINITION: {
+			expect(Keyword.SUBR);
+			Token functoken = previouslyRead;
+			Type returnType = parseFunctionType();
+			ParseNode identifier = parseIdentifier();
+			if (!startsFunction(nowReading)) {
+				return FuncDefNode.withChildren(functoken, identifier, syntaxErrorNode("function"));
+			}
+			PendingStatement statement = new PendingStatement(production, functoken, previouslyRead);
+			statement.parts.add(identifier);
+			statement.parts.add(parseParameterList(returnType));
+			pending.add(statement);
+			return null;
+		}
+		case IF_STATEMENT:
+		case WHILE_STATEMENT: {
+			expect(Keyword.IF, Keyword.WHILE);
+			PendingStatement statement = new PendingStatement(production, previouslyRead, null);
+			statement.parts.add(parseExpression());
+			pending.add(statement);
+			return null;
+		}
+		default:
+			pending.add(new PendingStatement(production, nowReading, null));
+			return null;
+		}
+	}
+
+	// give a parsed block to the statement on top.  Returns that statement, popped, once
+	// it is complete, or null if it waits on another block.
+	private ParseNode blockParsed(List<PendingStatement> pending, ParseNode block) {
+		PendingStatement statement = pending.get(pending.size() - 1);
+		List<ParseNode> parts = statement.parts;
+		ParseNode result;
+
+		switch (statement.production) {
+		case FUNCTION_DEFINITION:
+			ParseNode function = FunctionNode.withChildren(statement.innerToken, parts.get(1), block);
+			result = FuncDefNode.withChildren(statement.token, parts.get(0), function);
+			break;
+		case IF_STATEMENT:
+			if(parts.size() == 1 && startsElseStatement(nowReading)) {
+				expect(Keyword.ELSE);
+				parts.add(block);
+				return null;
+			}
+			result = (parts.size() == 1) ? new IfNode(statement.token, parts.get(0), block)
+										 : IfNode.withChildren(statement.token, parts.get(0), parts.get(1), block);
+			break;
+		case WHILE_STATEMENT:
+			result = new WhileNode(statement.token, parts.get(0), block);
+			break;
+		default:
+			result = block;
+			break;
+		}
+		pending.remove(pending.size() - 1);
+		return result;
 	}
+
 	private boolean startsElseStatement(Token token) {
 		return token.isLextant(Keyword.ELSE);
 	}
-	
-	private ParseNode parseBlockStatement() {
-		if(!startsBlockStatement(nowReading)) {
-			return syntaxErrorNode("block statement");
-		}
-		ParseNode Block = new BlockStatementNode(nowReading);
-		expect(Punctuator.OPEN_BRACE);
-		
-		while(startsStatement(nowReading)) {
-			ParseNode statement = parseStatement();
-			Block.appendChild(statement);
-		}
-		expect(Punctuator.CLOSE_BRACE);
-		return Block;
-		
-	}
-	
 	private boolean startsBlockStatement(Token token) {
 		return token.isLextant(Punctuator.OPEN_BRACE);
 	}
+
+	// a statement waiting on one of its blocks.  The parts are what it has parsed so far:
+	// the identifier and parameter list of a function definition, the condition of an if or
+	// while, and the then block of an if with an else.  Its block is null between blocks.
+	private static class PendingStatement {
+		final int production;
+		final Token token;
+		final Token innerToken;
+		final List<ParseNode> parts = new ArrayList<ParseNode>(2);
+		ParseNode block = null;
+
+		PendingStatement(int production, Token token, Token innerToken) {
+			this.production = production;
+			this.token = token;
+			this.innerToken = innerToken;
+		}
+	}
 	
 	// printStmt -> PRINT printExpressionList TERMINATOR
 	private ParseNode parsePrintStatement() {
@@ -442,26 +628,25 @@ public class Parser {
 			return;
 		}
 
-		if (nowReading.isLextant(Punctuator.PRINT_NEWLINE)) {
-			readToken();
-			ParseNode child = new NewlineNode(previouslyRead);
-			parent.appendChild(child);
-		} else if (nowReading.isLextant(Punctuator.PRINT_SPACE)) {
-			readToken();
-			ParseNode child = new SpaceNode(previouslyRead);
-			parent.appendChild(child);
-		} else if (nowReading.isLextant(Punctuator.PRINT_TAB)) {
-			readToken();
-			ParseNode child = new TabNode(previouslyRead);
-			parent.appendChild(child);
-		} else if (nowReading.isLextant(Punctuator.PRINT_SEPARATOR)) {
-			readToken();
+		Punctuator separator = (Punctuator)((LextantToken)nowReading).getLextant();
+		readToken();
+		switch (separator) {
+		case PRINT_NEWLINE:
+			parent.appendChild(new NewlineNode(previouslyRead));
+			break;
+		case PRINT_SPACE:
+			parent.appendChild(new SpaceNode(previouslyRead));
+			break;
+		case PRINT_TAB:
+			parent.appendChild(new TabNode(previouslyRead));
+			break;
+		default:
+			break;
 		}
 	}
 
 	private boolean startsPrintSeparator(Token token) {
-		return token.isLextant(Punctuator.PRINT_SEPARATOR, Punctuator.PRINT_SPACE, Punctuator.PRINT_NEWLINE,
-				Punctuator.PRINT_TAB);
+		return PRINT_SEPARATOR_FIRST.contains(token);
 	}
 
 	// declaration -> CONST identifier := expression TERMINATOR
@@ -481,7 +666,7 @@ public class Parser {
 	}
 
 	private boolean startsDeclaration(Token token) {
-		return token.isLextant(Keyword.CONST, Keyword.VAR);
+		return DECLARATION_FIRST.contains(token);
 	}
 
 	// assignmentStmt -> target := expression TERMINATOR
@@ -516,111 +701,138 @@ public class Parser {
 	// unaryExpression -> UNARYOP atomicExpression
 	// booleanOperator -> && | ||
 	// literal -> intNumber | identifier | booleanConstant | charConstant
+	//
+	// The first four levels, with unary operators and parentheses, are parsed by
+	// precedence climbing over an explicit stack (see parseOperatorExpression), so
+	// neither long operator chains nor deep nesting use the Java stack.
 
 	// expr -> comparisonExpression
 	private ParseNode parseExpression() {
-		if (!startsExpression(nowReading)) {
-			return syntaxErrorNode("expression");
-		}
-		return parseComparisonExpression();
+		return parseOperatorExpression();
 	}
 
 	private boolean startsExpression(Token token) {
-		return startsComparisonExpression(token);
+		return startsAtomicExpression(token);
 	}
 
-	// comparisonExpression -> additiveExpression [>|>=|==|!=|<|<= | && | ||
-	// additiveExpression]?
-	private ParseNode parseComparisonExpression() {
-		if (!startsComparisonExpression(nowReading)) {
-			return syntaxErrorNode("comparison expression");
+	private boolean startsAtomicExpression(Token token) {
+		return ATOMIC_EXPRESSION_FIRST.contains(token);
+	}
+
+	// Alternates between reading an operand and reading a binary operator.
+	// An operand is a type cast, array expression, or literal, preceded by any number of
+	// unary operators and open parentheses, which wait on the stack.  A binary operator
+	// first reduces the waiting operators that bind at least as tightly; comparisons do
+	// not associate, so a second comparison at the same level ends the expression, as it
+	// did in the recursive grammar.
+	//
+	// A missing operand is an ErrorNode named for the grammar level that expected it.
+	// That level has then ended, so only operators of lower levels may follow it.
+	private ParseNode parseOperatorExpression() {
+		List<ParseNode> operands = new ArrayList<ParseNode>();
+		List<PendingOperator> operators = new ArrayList<PendingOperator>();
+		int level = EXPRESSION_LEVEL;
+
+		while (true) {
+			// operand
+			int ceiling = NO_CEILING;
+			ParseNode operand = null;
+			while (operand == null) {
+				switch (atomicExpressionDispatch[TokenKinds.kindOf(nowReading)]) {
+				case UNARY_EXPRESSION:
+					operators.add(new PendingOperator(nowReading, UNARY_POWER, true));
+					readToken();
+					level = ATOMIC_LEVEL;
+					break;
+				case PARENTHESIS_EXPRESSION:
+					operators.add(PendingOperator.OPEN_PARENTHESIS);
+					readToken();
+					level = EXPRESSION_LEVEL;
+					break;
+				case TYPE_CAST_EXPRESSION:		operand = parseTypeCastExpression();	break;
+				case ARRAY_EXPRESSION:			operand = parseArrayExpression();		break;
+				case LITERAL:					operand = parseLiteral();				break;
+				default:
+					operand = syntaxErrorNode(operandNames[level]);
+					ceiling = level;
+					break;
+				}
+			}
+			operands.add(operand);
+
+			// binary operator, or the end of a parenthesized expression, or the end.
+			while (true) {
+				int power = bindingPowerOf(nowReading);
+				if (0 < power && power < ceiling) {
+					reduceWhileAtLeast(power + 1, operands, operators);
+					if (!(isNonAssociative(power) && topPower(operators) == power)) {
+						reduceWhileAtLeast(power, operands, operators);
+						operators.add(new PendingOperator(nowReading, power, false));
+						readToken();
+						level = power + 1;
+						break;
+					}
+				}
+				reduceWhileAtLeast(1, operands, operators);
+				if (operators.isEmpty()) {
+					return operands.remove(operands.size() - 1);
+				}
+				operators.remove(operators.size() - 1);
+				expect(Punctuator.CLOSE_PARENTHESIS);
+				ceiling = NO_CEILING;
+			}
 		}
+	}
 
-		ParseNode left = parseAdditiveExpression();
-		if (nowReading.isLextant(Punctuator.GREATER, Punctuator.GREATEREQUAL, Punctuator.EQUALEQUAL,
-				Punctuator.NOTEQUAL, Punctuator.LESSER, Punctuator.LESSEREQUAL, Punctuator.AND, Punctuator.OR)) {
-			Token compareToken = nowReading;
-			readToken();
-			ParseNode right = parseAdditiveExpression();
-
-			return OperatorNode.withChildren(compareToken, left, right);
+	private void reduceWhileAtLeast(int power, List<ParseNode> operands, List<PendingOperator> operators) {
+		while (topPower(operators) >= power) {
+			PendingOperator operator = operators.remove(operators.size() - 1);
+			ParseNode right = operands.remove(operands.size() - 1);
+			if (operator.isUnary) {
+				operands.add(OperatorNode.withChildren(operator.token, right));
+			} else {
+				ParseNode left = operands.remove(operands.size() - 1);
+				operands.add(OperatorNode.withChildren(operator.token, left, right));
+			}
 		}
-		return left;
-
 	}
 
-	private boolean startsComparisonExpression(Token token) {
-		return startsAdditiveExpression(token);
+	// the binding power of the operator on top of the stack; 0 for an open parenthesis or an empty stack.
+	private static int topPower(List<PendingOperator> operators) {
+		if (operators.isEmpty()) {
+			return 0;
+		}
+		return operators.get(operators.size() - 1).power;
 	}
 
-	// additiveExpression -> multiplicativeExpression [+ multiplicativeExpression]*
-	// (left-assoc)
-	// also subtract
-	private ParseNode parseAdditiveExpression() {
-		if (!startsAdditiveExpression(nowReading)) {
-			return syntaxErrorNode("additiveExpression");
+	private static int bindingPowerOf(Token token) {
+		if (!(token instanceof LextantToken)) {
+			return 0;
 		}
-
-		ParseNode left = parseMultiplicativeExpression();
-		while (nowReading.isLextant(Punctuator.ADD, Punctuator.SUBTRACT)) {
-			Token additiveToken = nowReading;
-			readToken();
-			ParseNode right = parseMultiplicativeExpression();
-
-			left = OperatorNode.withChildren(additiveToken, left, right);
+		Lextant lextant = ((LextantToken) token).getLextant();
+		if (!(lextant instanceof Punctuator)) {
+			return 0;
 		}
-		return left;
+		return bindingPower[((Punctuator) lextant).ordinal()];
 	}
 
-	private boolean startsAdditiveExpression(Token token) {
-		return startsMultiplicativeExpression(token);
+	private static boolean isNonAssociative(int power) {
+		return power == COMPARISON_POWER;
 	}
 
-	// multiplicativeExpression -> atomicExpression [MULT atomicExpression]*
-	// (left-assoc)
-	private ParseNode parseMultiplicativeExpression() {
-		if (!startsMultiplicativeExpression(nowReading)) {
-			return syntaxErrorNode("multiplicativeExpression");
-		}
+	// a unary or binary operator waiting for its right operand, or an open parenthesis.
+	private static class PendingOperator {
+		static final PendingOperator OPEN_PARENTHESIS = new PendingOperator(null, 0, false);
 
-		ParseNode left = parseAtomicExpression();
-		while (nowReading.isLextant(Punctuator.MULTIPLY, Punctuator.DIVIDE)) {
-			Token multiplicativeToken = nowReading;
-			readToken();
-			ParseNode right = parseAtomicExpression();
+		final Token token;
+		final int power;
+		final boolean isUnary;
 
-			left = OperatorNode.withChildren(multiplicativeToken, left, right);
+		PendingOperator(Token token, int power, boolean isUnary) {
+			this.token = token;
+			this.power = power;
+			this.isUnary = isUnary;
 		}
-		return left;
-	}
-
-	private boolean startsMultiplicativeExpression(Token token) {
-		return startsAtomicExpression(token);
-	}
-
-	// atomicExpression -> unaryExpression | literal | indexing
-	private ParseNode parseAtomicExpression() {
-		if (!startsAtomicExpression(nowReading)) {
-			return syntaxErrorNode("atomic expression");
-		}
-		if (startsUnaryExpression(nowReading)) {
-			return parseUnaryExpression();
-		}
-		if (startsParenthesisExpression(nowReading)) {
-			return parseParenthesisExpression();
-		}
-		if (startsTypeCastExpression(nowReading)) {
-			return parseTypeCastExpression();
-		}
-		if (startsArrayExpression(nowReading)) {
-			return parseArrayExpression();
-		}
-		return parseLiteral();
-	}
-
-	private boolean startsAtomicExpression(Token token) {
-		return startsLiteral(token) || startsUnaryExpression(token) || startsParenthesisExpression(token)
-				|| startsTypeCastExpression(token) || startsArrayExpression(token);
 	}
 	
 	// new [type] (expression)
@@ -690,54 +902,21 @@ public class Parser {
 	
 	private ArrayType parseArrayType() {
 		expect(Punctuator.OPEN_BRACKET);
-		ArrayType type = new ArrayType();
-
-		PrimitiveType subtype = PrimitiveType.fromToken(nowReading);
+		Type subtype = PrimitiveType.fromToken(nowReading);
 		// Multiple arrays within arrays
 		if (subtype == PrimitiveType.ARRAY) {
-			type.setSubtype(parseArrayType());	
+			subtype = parseArrayType();
 		} else {
-			type.setSubtype(subtype);
 			readToken();
 		}
 
 		expect(Punctuator.CLOSE_BRACKET);
 
-		return type;
+		return TypeFactory.arrayOf(subtype);
 	}
 	
 	private boolean startsArrayExpression(Token token) {
-		return token.isLextant(Punctuator.OPEN_BRACKET) || token.isLextant(Keyword.NEW);
-	}
-
-	private ParseNode parseParenthesisExpression() {
-		if (!startsParenthesisExpression(nowReading)) {
-			return syntaxErrorNode("parenthesis expression");
-		}
-		expect(Punctuator.OPEN_PARENTHESIS);
-		ParseNode inside = parseExpression();
-		expect(Punctuator.CLOSE_PARENTHESIS);
-		return inside;
-	}
-
-	private boolean startsParenthesisExpression(Token token) {
-		return token.isLextant(Punctuator.OPEN_PARENTHESIS);
-	}
-
-	// unaryExpression -> UNARYOP atomicExpression
-	private ParseNode parseUnaryExpression() {
-		if (!startsUnaryExpression(nowReading)) {
-			return syntaxErrorNode("unary expression");
-		}
-		Token operatorToken = nowReading;
-		readToken();
-		ParseNode child = parseAtomicExpression();
-
-		return OperatorNode.withChildren(operatorToken, child);
-	}
-
-	private boolean startsUnaryExpression(Token token) {
-		return token.isLextant(Punctuator.SUBTRACT, Punctuator.ADD, Punctuator.NOT, Keyword.LENGTH);
+		return ARRAY_EXPRESSION_FIRST.contains(token);
 	}
 
 	// typeCastExpression -> <type>(expression)
@@ -774,7 +953,7 @@ public class Parser {
 	}
 
 	private boolean startsType(Token token) {
-		return token.isLextant(Keyword.BOOL, Keyword.CHAR, Keyword.STRING, Keyword.INT, Keyword.FLOAT);
+		return TYPE_FIRST.contains(token);
 	}
 
 	private Type parseFunctionType() {
@@ -787,46 +966,29 @@ public class Parser {
 	}
 
 	private boolean startsFunctionType(Token token) {
-		return token.isLextant(Keyword.BOOL, Keyword.CHAR, Keyword.STRING, Keyword.INT, Keyword.FLOAT, Keyword.VOID);
+		return FUNCTION_TYPE_FIRST.contains(token);
 	}
 	
 
 	// literal -> number | identifier | booleanConstant
 	private ParseNode parseLiteral() {
-		if (!startsLiteral(nowReading)) {
-			return syntaxErrorNode("literal");
-		}
-
-		if (startsIntLiteral(nowReading)) {
-			return parseIntLiteral();
-		}
-		if (startsFloatLiteral(nowReading)) {
-			return parseFloatLiteral();
-		}
-		if (startsIdentifier(nowReading)) {
-			
+		switch (literalDispatch[TokenKinds.kindOf(nowReading)]) {
+		case INTEGER_LITERAL:	return parseIntLiteral();
+		case FLOAT_LITERAL:		return parseFloatLiteral();
+		case IDENTIFIER:
 			ParseNode identifer = parseIdentifier();
 			identifer = parseFunctionInvocation(identifer);
 			
 			return identifer;
+		case BOOLEAN_LITERAL:	return parseBooleanLiteral();
+		case STRING_LITERAL:	return parseStringLiteral();
+		case CHARACTER_LITERAL:	return parseCharLiteral();
+		default:				return syntaxErrorNode("literal");
 		}
-		if (startsBooleanLiteral(nowReading)) {
-			return parseBooleanLiteral();
-		}
-		if (startsStringLiteral(nowReading)) {
-			return parseStringLiteral();
-		}
-		if (startsCharLiteral(nowReading)) {
-			return parseCharLiteral();
-		} 
-
-		return syntaxErrorNode("literal");
 	}
 
 	private boolean startsLiteral(Token token) {
-		return startsIntLiteral(token) || startsFloatLiteral(token) ||
-				startsIdentifier(token) || startsBooleanLiteral(token) ||
-				startsStringLiteral(token) || startsCharLiteral(token) || startsFunctionType(token);
+		return LITERAL_FIRST.contains(token);
 	}
 
 	// number (literal)
@@ -921,8 +1083,7 @@ public class Parser {
 	}
 
 	private boolean startsIdentifier(Token token) {
-		//return token instanceof IdentifierToken
-		return token instanceof IdentifierToken || token.isLextant(Punctuator.OPEN_BRACKET);
+		return IDENTIFIER_FIRST.contains(token);
 	}
 	
 	private boolean previouslyArrayType(Token token) {
@@ -945,7 +1106,7 @@ public class Parser {
 	}
 
 	private boolean startsBooleanLiteral(Token token) {
-		return token.isLextant(Keyword.TRUE, Keyword.FALSE);
+		return BOOLEAN_LITERAL_FIRST.contains(token);
 	}
 
 	private void readToken() {
@@ -956,6 +1117,12 @@ public class Parser {
 	// if the current token is one of the given lextants, read the next token.
 	// otherwise, give a syntax error and read next token (to avoid endless
 	// looping).
+	private void expect(Lextant lextant) {
+		if (!nowReading.isLextant(lextant)) {
+			syntaxError(nowReading, "expecting [" + lextant + "]");
+		}
+		readToken();
+	}
 	private void expect(Lextant... lextants) {
 		if (!nowReading.isLextant(lextants)) {
 			syntaxError(nowReading, "expecting " + Arrays.toString(lextants));
@@ -976,6 +1143,10 @@ public class Parser {
 	}
 
 	private void error(String message) {
+		if(deferredErrors != null) {
+			deferredErrors.add(message);
+			return;
+		}
 		TanLogger log = TanLogger.getLogger("compiler.Parser");
 		log.severe("syntax error: " + message);
 	}
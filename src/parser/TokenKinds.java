@@ -0,0 +1,67 @@
+package parser;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.Punctuator;
+import tokens.CharacterToken;
+import tokens.FloatingLiteralToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NumberToken;
+import tokens.StringToken;
+import tokens.Token;
+
+/** Numbers every kind of token the Parser distinguishes, so that FIRST sets can be
+ *  bitsets and dispatch can be a table lookup.
+ * <p>
+ *  Keywords come first, by ordinal, then punctuators, by ordinal, then one kind
+ *  for each class of token that is not a lextant.  Anything else (the end-of-input
+ *  NullToken, for one) is OTHER.
+ */
+class TokenKinds {
+	static final int PUNCTUATOR_BASE   = Keyword.values().length;
+	static final int IDENTIFIER        = PUNCTUATOR_BASE + Punctuator.values().length;
+	static final int INTEGER_LITERAL   = IDENTIFIER + 1;
+	static final int FLOATING_LITERAL  = IDENTIFIER + 2;
+	static final int STRING_LITERAL    = IDENTIFIER + 3;
+	static final int CHARACTER_LITERAL = IDENTIFIER + 4;
+	static final int OTHER             = IDENTIFIER + 5;
+	static final int COUNT             = IDENTIFIER + 6;
+
+	private TokenKinds() {}
+
+	static int kindOf(Lextant lextant) {
+		if(lextant instanceof Keyword) {
+			return ((Keyword)lextant).ordinal();
+		}
+		return PUNCTUATOR_BASE + ((Punctuator)lextant).ordinal();
+	}
+	static int kindOf(Token token) {
+		if(token instanceof LextantToken) {
+			return kindOf(((LextantToken)token).getLextant());
+		}
+		if(token instanceof IdentifierToken) {
+			return IDENTIFIER;
+		}
+		if(token instanceof NumberToken) {
+			return INTEGER_LITERAL;
+		}
+		if(token instanceof FloatingLiteralToken) {
+			return FLOATING_LITERAL;
+		}
+		if(token instanceof StringToken) {
+			return STRING_LITERAL;
+		}
+		if(token instanceof CharacterToken) {
+			return CHARACTER_LITERAL;
+		}
+		return OTHER;
+	}
+
+	/** Make an empty dispatch table: one production number per token kind, all 0.
+	 *  Fill it with <code>FirstSet.assignTo(...)</code>.
+	 */
+	static byte[] newDispatchTable() {
+		return new byte[COUNT];
+	}
+}
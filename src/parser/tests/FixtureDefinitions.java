@@ -0,0 +1,15 @@
+package parser.tests;
+
+public class FixtureDefinitions {
+	public static final String INPUT_DIRECTORY = "input/";
+	public static final String FIXTURE_DIRECTORY = "src/parser/tests/fixtures/";
+	public static final String PARSER_LOGGER = "compiler.Parser";
+
+	public static final String PARSER_INPUT_FILENAMES[] = {
+			INPUT_DIRECTORY + "currentTest.tan",
+			INPUT_DIRECTORY + "test-functions.tan",
+			INPUT_DIRECTORY + "test-while.tan",
+			INPUT_DIRECTORY + "test-const_err.tan",
+			FIXTURE_DIRECTORY + "subrErrors.tan",
+	};
+}
@@ -0,0 +1,101 @@
+package parser.tests;
+
+import static parser.tests.FixtureDefinitions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.ParallelLexer;
+import lexicalAnalyzer.TokenBuffer;
+import lexicalAnalyzer.TokenBufferScanner;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.ParallelParser;
+import parser.ParseCache;
+import parser.Parser;
+import tests.LogRecorder;
+import junit.framework.TestCase;
+
+public class TestParallelParser extends TestCase {
+	private static final int[] POOL_SIZES = { 1, 4 };
+	private static final int REPETITIONS = 5;
+	private static final int LARGE_FILE_CHUNKS = 3;
+
+	public void testSameTreeAndErrorsAsParser() {
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_AND_TOKEN);
+		for(String filename: PARSER_INPUT_FILENAMES) {
+			TokenBuffer buffer = TokenBuffer.make(filename);
+
+			LogRecorder expectedErrors = LogRecorder.start(PARSER_LOGGER);
+			ParseNode expected = Parser.parse(new TokenBufferScanner(buffer));
+			expectedErrors.stop();
+
+			for(int poolSize: POOL_SIZES) {
+				ForkJoinPool pool = new ForkJoinPool(poolSize);
+				for(int i = 0; i < REPETITIONS; i++) {
+					LogRecorder actualErrors = LogRecorder.start(PARSER_LOGGER);
+					ParseNode actual = ParallelParser.parse(buffer, pool);
+					actualErrors.stop();
+
+					String message = filename + " on " + poolSize + " threads";
+					assertEquals(message, ParseTreePrinter.print(expected), ParseTreePrinter.print(actual));
+					assertEquals(message, expectedErrors.messages(), actualErrors.messages());
+				}
+				pool.shutdown();
+			}
+		}
+	}
+
+	// as the compiler applications parse with tan.parallelParse set, on a file that the
+	// lexer splits into chunks, with a comment across the split.
+	public void testLargeFileThroughParseCache() throws Exception {
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_AND_TOKEN);
+		File file = largeFile();
+		try {
+			LogRecorder expectedErrors = LogRecorder.start(PARSER_LOGGER);
+			ParseNode expected = Parser.parse(LexicalAnalyzer.make(file.getPath()));
+			expectedErrors.stop();
+
+			System.setProperty(ParseCache.PARALLEL_PARSE_PROPERTY, "true");
+			LogRecorder actualErrors = LogRecorder.start(PARSER_LOGGER);
+			ParseNode actual = ParseCache.parse(file.getPath());
+			actualErrors.stop();
+
+			assertEquals(ParseTreePrinter.print(expected), ParseTreePrinter.print(actual));
+			assertEquals(expectedErrors.messages(), actualErrors.messages());
+			assertFalse(expectedErrors.messages().isEmpty());
+		}
+		finally {
+			System.clearProperty(ParseCache.PARALLEL_PARSE_PROPERTY);
+			file.delete();
+		}
+	}
+	// definitions, some missing a terminator, with a comment of definitions in the middle.
+	// The lexer splits at the first newline past the middle, which is inside the comment.
+	private File largeFile() throws Exception {
+		int half = ParallelLexer.DEFAULT_CHUNK_SIZE + ParallelLexer.DEFAULT_CHUNK_SIZE / 2;
+		StringBuilder text = new StringBuilder();
+		appendDefinitions(text, half);
+		text.append("# commented out:\n");
+		appendDefinitions(text, text.length() + half / 4);
+		text.append("#\n");
+		appendDefinitions(text, text.length() + half);
+		text.append("main {\n\tprint 1;\n}\n");
+
+		File file = File.createTempFile("large", ".tan");
+		try(PrintStream out = new PrintStream(new FileOutputStream(file))) {
+			out.print(text);
+		}
+		return file;
+	}
+	private void appendDefinitions(StringBuilder text, int length) {
+		for(int i = 0; text.length() < length; i++) {
+			String terminator = (i == 700) ? "" : ";";
+			text.append("subr int f").append(text.length()).append("(int x) {\n\tconst y := x + ")
+				.append(i).append(terminator).append("\n\treturn y * 2;\n}\n");
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package parser.tests;
+
+import static parser.tests.FixtureDefinitions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import inputHandler.SourceBuffer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.ParseCache;
+import parser.Parser;
+import semanticAnalyzer.types.TypeFactory;
+import tokens.NumberToken;
+import junit.framework.TestCase;
+
+public class TestParseCache extends TestCase {
+	private static final String CLEAN_FILENAME = INPUT_DIRECTORY + "test-functions.tan";
+	private static final String ERROR_FILENAME = FIXTURE_DIRECTORY + "subrErrors.tan";
+
+	private Path directory;
+
+	@Override
+	protected void setUp() throws IOException {
+		directory = Files.createTempDirectory("parseCache");
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_AND_TOKEN);
+	}
+	@Override
+	protected void tearDown() throws IOException {
+		try(DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+			for(Path entry: entries) {
+				Files.delete(entry);
+			}
+		}
+		Files.delete(directory);
+	}
+	private static void deleteTree(Path path) throws IOException {
+		if(Files.isDirectory(path)) {
+			try(DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+				for(Path entry: entries) {
+					deleteTree(entry);
+				}
+			}
+		}
+		Files.delete(path);
+	}
+
+	public void testHitGivesSameTree() {
+		for(String filename: PARSER_INPUT_FILENAMES) {
+			SourceBuffer source = SourceBuffer.fromFilename(filename);
+			ParseCache cache = new ParseCache(directory);
+			String expected = ParseTreePrinter.print(Parser.parse(LexicalAnalyzer.make(source)));
+
+			assertEquals(filename, expected, ParseTreePrinter.print(cache.parse(source)));
+			assertEquals(filename, expected, ParseTreePrinter.print(cache.parse(source)));
+		}
+	}
+
+	public void testStoresOnlyTreesWithoutErrors() {
+		ParseCache cache = new ParseCache(directory);
+		SourceBuffer clean = SourceBuffer.fromFilename(CLEAN_FILENAME);
+		SourceBuffer withErrors = SourceBuffer.fromFilename(ERROR_FILENAME);
+
+		assertFalse(cache.isCached(clean));
+		cache.parse(clean);
+		assertTrue(cache.isCached(clean));
+
+		cache.parse(withErrors);
+		assertFalse(cache.isCached(withErrors));
+	}
+
+	public void testHitKeepsLocations() {
+		ParseCache cache = new ParseCache(directory);
+		SourceBuffer source = SourceBuffer.fromFilename(CLEAN_FILENAME);
+		ParseNode parsed = cache.parse(source);
+		ParseNode loaded = cache.parse(source);
+
+		assertNotSame(parsed, loaded);
+		assertEquals(parsed.getToken().getLocation().toString(), loaded.getToken().getLocation().toString());
+		ParseNode lastParsed = parsed.child(parsed.nChildren() - 1);
+		ParseNode lastLoaded = loaded.child(loaded.nChildren() - 1);
+		assertEquals(lastParsed.getToken().getLocation().toString(), lastLoaded.getToken().getLocation().toString());
+	}
+
+	public void testCorruptEntryIsReparsed() throws IOException {
+		ParseCache cache = new ParseCache(directory);
+		SourceBuffer source = SourceBuffer.fromFilename(CLEAN_FILENAME);
+		String expected = ParseTreePrinter.print(cache.parse(source));
+
+		try(DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+			for(Path entry: entries) {
+				Files.write(entry, new byte[] { 1, 2, 3 });
+			}
+		}
+		assertEquals(expected, ParseTreePrinter.print(cache.parse(source)));
+		assertEquals(expected, ParseTreePrinter.print(cache.parse(source)));
+	}
+
+	public void testChangedCompilerClassInvalidatesEntries() throws IOException {
+		Path classRoot = Files.createTempDirectory("classRoot");
+		try {
+			Path tokenClass = copyClassFile(NumberToken.class, classRoot);
+			copyClassFile(TypeFactory.class, classRoot);
+			byte[] fingerprint = ParseCache.fingerprintOf(classRoot);
+			SourceBuffer source = SourceBuffer.fromFilename(CLEAN_FILENAME);
+			new ParseCache(directory, fingerprint).parse(source);
+			assertTrue(new ParseCache(directory, fingerprint).isCached(source));
+
+			byte[] bytes = Files.readAllBytes(tokenClass);
+			bytes[bytes.length - 1] ^= 1;
+			Files.write(tokenClass, bytes);
+			byte[] changed = ParseCache.fingerprintOf(classRoot);
+
+			assertFalse(Arrays.equals(fingerprint, changed));
+			assertFalse(new ParseCache(directory, changed).isCached(source));
+		}
+		finally {
+			deleteTree(classRoot);
+		}
+	}
+	// class files are named with '/' and UTF-8 however they are stored, so a jar of the
+	// same classes has the same fingerprint as a directory.
+	public void testSameFingerprintFromJar() throws IOException {
+		Path classRoot = Files.createTempDirectory("classRoot");
+		Path jarFile = classRoot.resolveSibling(classRoot.getFileName() + ".jar");
+		Map<String, String> environment = new HashMap<String, String>();
+		environment.put("create", "true");
+		try {
+			try(FileSystem jar = FileSystems.newFileSystem(URI.create("jar:" + jarFile.toUri()), environment)) {
+				for(Path root: new Path[] { classRoot, jar.getPath("/") }) {
+					copyClassFile(NumberToken.class, root);
+					copyClassFile(TypeFactory.class, root);
+				}
+				byte[] fingerprint = ParseCache.fingerprintOf(classRoot);
+				assertNotNull(fingerprint);
+				assertTrue(Arrays.equals(fingerprint, ParseCache.fingerprintOf(jar.getPath("/"))));
+			}
+		}
+		finally {
+			deleteTree(classRoot);
+			Files.deleteIfExists(jarFile);
+		}
+	}
+	private static Path copyClassFile(Class<?> compiled, Path classRoot) throws IOException {
+		String resource = compiled.getName().replace('.', '/') + ".class";
+		Path copy = classRoot.resolve(resource);
+		Files.createDirectories(copy.getParent());
+		try(InputStream in = compiled.getResourceAsStream("/" + resource)) {
+			Files.copy(in, copy);
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,69 @@
+package parser.tests;
+
+import static parser.tests.FixtureDefinitions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import inputHandler.SourceBuffer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.BlockStatementNode;
+import parser.Parser;
+import tests.LogRecorder;
+import junit.framework.TestCase;
+
+public class TestParser extends TestCase {
+	private static final int DEPTH = 20000;
+
+	// blocks, ifs with elses, whiles and function definitions, nested in turn.
+	public void testDeeplyNestedStatements() throws Exception {
+		StringBuilder program = new StringBuilder("main {\n");
+		for(int i = 0; i < DEPTH; i++) {
+			program.append(OPENERS[i % OPENERS.length]).append('\n');
+		}
+		program.append("print 1;\n");
+		for(int i = DEPTH - 1; i >= 0; i--) {
+			program.append(CLOSERS[i % CLOSERS.length]).append('\n');
+		}
+		program.append("}\n");
+
+		LogRecorder errors = LogRecorder.start(PARSER_LOGGER);
+		ParseNode tree = Parser.parse(LexicalAnalyzer.make(sourceFor(program.toString())));
+		errors.stop();
+
+		assertEquals(new ArrayList<String>(), errors.messages());
+		BlockCounter counter = new BlockCounter();
+		tree.acceptIteratively(counter);
+		assertEquals(DEPTH + DEPTH / OPENERS.length, counter.blocks);
+	}
+	private static final String[] OPENERS = { "{", "if true {", "while false {", "subr void f() {" };
+	private static final String[] CLOSERS = { "}", "} else { }", "}", "}" };
+
+
+	private SourceBuffer sourceFor(String text) throws Exception {
+		File file = File.createTempFile("source", ".tan");
+		try {
+			try(PrintStream out = new PrintStream(new FileOutputStream(file))) {
+				out.print(text);
+			}
+			return SourceBuffer.fromFilename(file.getPath());
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	private static class BlockCounter extends ParseNodeVisitor.Default {
+		private int blocks = 0;
+
+		public void defaultVisitEnter(ParseNode node) {
+			if(node instanceof BlockStatementNode) {
+				blocks++;
+			}
+		}
+	}
+}
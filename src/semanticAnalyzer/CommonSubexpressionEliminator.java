@@ -0,0 +1,324 @@
+package semanticAnalyzer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import asmCodeGenerator.operators.SimpleCodeGenerator;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.ParseNodeKind;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.OperatorNode;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import symbolTable.Binding;
+import symbolTable.MemoryLocation;
+import symbolTable.Scope;
+
+/** Common subexpression elimination on a decorated tree, for the ASMCodeGenerator.
+ * <p>
+ *  Expressions built from operators, plain identifiers and constants, all of
+ *  primitive type, are hash-consed: each distinct expression gets one number, and
+ *  equal subtrees get equal numbers.  Within a run of straight-line statements, an
+ *  OperatorNode whose number was already computed reuses that value: the first
+ *  node saves its value in a temporary and the later one loads it from there,
+ *  without evaluating its children.
+ * <p>
+ *  A run ends at anything that may change a variable other than by an assignment
+ *  in the run, or that may jump: an if (after its condition), a while, a block, a
+ *  return, and any statement with a call or a lambda in it.  An assignment drops
+ *  the expressions that read its target.  Values are never kept from the right
+ *  operand of && or ||, which may not be evaluated.
+ * <p>
+ *  The temporaries are in the program's global memory block, after its variables.
+ *  A value lives only within a run, and no run contains a call, so one set of
+ *  temporaries serves every run, even in recursive subroutines.
+ */
+public class CommonSubexpressionEliminator {
+	private Scope temporaryScope;
+
+	private Map<List<Object>, Integer> expressionNumbers = new HashMap<List<Object>, Integer>();
+	private List<Set<Binding>> bindingsRead = new ArrayList<Set<Binding>>();		// by expression number
+	private Map<ParseNode, Integer> nodeNumbers = new IdentityHashMap<ParseNode, Integer>();
+
+	// the run of straight-line statements being looked at
+	private Map<Integer, OperatorNode> available = new HashMap<Integer, OperatorNode>();
+	private Map<Integer, List<MemoryLocation>> temporaries = new HashMap<Integer, List<MemoryLocation>>();		// by size
+	private Map<Integer, Integer> temporariesInUse = new HashMap<Integer, Integer>();
+
+
+	public static ParseNode eliminate(ParseNode ASTree) {
+		if(ASTree.hasScope()) {
+			new CommonSubexpressionEliminator(ASTree.getScope()).eliminateInTree(ASTree);
+		}
+		return ASTree;
+	}
+	public CommonSubexpressionEliminator(Scope temporaryScope) {
+		this.temporaryScope = temporaryScope;
+	}
+
+	// every block, including those of subroutines and lambdas, is a list of statements.
+	private void eliminateInTree(ParseNode root) {
+		Deque<ParseNode> pending = new ArrayDeque<ParseNode>();
+		pending.push(root);
+		while(!pending.isEmpty()) {
+			ParseNode node = pending.pop();
+			if(node.getKind() == ParseNodeKind.MAIN_BLOCK || node.getKind() == ParseNodeKind.BLOCK_STATEMENT) {
+				eliminateInBlock(node);
+			}
+			for(ParseNode child: node.getChildren()) {
+				pending.push(child);
+			}
+		}
+	}
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// runs of statements
+
+	private void eliminateInBlock(ParseNode block) {
+		startRun();
+		for(ParseNode statement: block.getChildren()) {
+			eliminateInStatement(statement);
+		}
+		startRun();
+	}
+	private void eliminateInStatement(ParseNode statement) {
+		switch(ParseNodeKind.of(statement)) {
+		case DECLARATION:
+			if(continuesRun(statement)) {
+				eliminateInExpression(statement.child(1));
+			}
+			break;
+		case ASSIGNMENT_STATEMENT:
+			if(continuesRun(statement)) {
+				eliminateInExpression(statement.child(1));
+				dropExpressionsReading(statement.child(0));
+			}
+			break;
+		case PRINT_STATEMENT:
+			if(continuesRun(statement)) {
+				for(ParseNode child: statement.getChildren()) {
+					eliminateInExpression(child);
+				}
+			}
+			break;
+		case IF:
+			if(continuesRun(statement.child(0))) {
+				eliminateInExpression(statement.child(0));
+			}
+			startRun();
+			break;
+		case WHILE:
+			startRun();
+			if(continuesRun(statement.child(0))) {
+				eliminateInExpression(statement.child(0));
+			}
+			startRun();
+			break;
+		default:
+			startRun();
+			break;
+		}
+	}
+	// false, after ending the run, if the node holds a call or a lambda.
+	private boolean continuesRun(ParseNode node) {
+		Deque<ParseNode> pending = new ArrayDeque<ParseNode>();
+		pending.push(node);
+		while(!pending.isEmpty()) {
+			ParseNode current = pending.pop();
+			switch(ParseNodeKind.of(current)) {
+			case CALL:
+			case FUNC_INVOC:
+			case FUNCTION:
+			case FUNC_DEF:
+			case ERROR:
+				startRun();
+				return false;
+			default:
+				break;
+			}
+			for(ParseNode child: current.getChildren()) {
+				pending.push(child);
+			}
+		}
+		return true;
+	}
+	private void startRun() {
+		available.clear();
+		temporariesInUse.clear();
+	}
+	private void dropExpressionsReading(ParseNode target) {
+		if(!(target instanceof IdentifierNode)) {
+			startRun();
+			return;
+		}
+		Binding binding = ((IdentifierNode)target).getBinding();
+		available.keySet().removeIf(number -> bindingsRead.get(number).contains(binding));
+	}
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// expressions: number every subtree, then reuse or keep values from left to right.
+
+	private void eliminateInExpression(ParseNode expression) {
+		expression.acceptIteratively(new Numberer());
+		expression.acceptIteratively(new Marker());
+		nodeNumbers.clear();
+	}
+
+	private class Numberer extends ParseNodeVisitor.Default {
+		@Override
+		public void defaultVisitLeave(ParseNode node) {
+			number(node);
+		}
+		@Override
+		public void defaultVisitForLeaf(ParseNode node) {
+			number(node);
+		}
+	}
+	private void number(ParseNode node) {
+		List<Object> key = keyFor(node);
+		if(key == null) {
+			return;
+		}
+		Integer number = expressionNumbers.get(key);
+		if(number == null) {
+			number = expressionNumbers.size();
+			expressionNumbers.put(key, number);
+			bindingsRead.add(bindingsReadBy(node));
+		}
+		nodeNumbers.put(node, number);
+	}
+	// what makes two subtrees equal, or null if the subtree is never reused.
+	private List<Object> keyFor(ParseNode node) {
+		if(!isKeptType(node.getType())) {
+			return null;
+		}
+		switch(ParseNodeKind.of(node)) {
+		case BOOLEAN_CONSTANT:
+		case CHARACTER_CONSTANT:
+		case FLOAT_CONSTANT:
+		case INTEGER_CONSTANT:
+			return Arrays.asList(node.getKind(), node.getType(), node.getToken().getLexeme());
+		case IDENTIFIER:
+			IdentifierNode identifier = (IdentifierNode)node;
+			if(identifier.isIndexed() || identifier.getBinding() == null) {
+				return null;
+			}
+			return Arrays.asList(node.getKind(), identifier.getBinding());
+		case OPERATOR:
+			return keyForOperator((OperatorNode)node);
+		default:
+			return null;
+		}
+	}
+	private List<Object> keyForOperator(OperatorNode node) {
+		if(node.getSignature() == null || node.getSignature().getVariant() instanceof SimpleCodeGenerator) {
+			return null;
+		}
+		List<Object> result = new ArrayList<Object>();
+		result.add(node.getKind());
+		result.add(node.getOperator());
+		result.add(node.getType());
+		for(ParseNode child: node.getChildren()) {
+			Integer childNumber = nodeNumbers.get(child);
+			if(childNumber == null) {
+				return null;
+			}
+			result.add(childNumber);
+		}
+		return result;
+	}
+	private static boolean isKeptType(Type type) {
+		return type == PrimitiveType.INTEGER || type == PrimitiveType.FLOAT
+				|| type == PrimitiveType.CHARACTER || type == PrimitiveType.BOOLEAN;
+	}
+	private Set<Binding> bindingsReadBy(ParseNode node) {
+		Set<Binding> result = new HashSet<Binding>();
+		if(node instanceof IdentifierNode) {
+			result.add(((IdentifierNode)node).getBinding());
+		}
+		for(ParseNode child: node.getChildren()) {
+			result.addAll(bindingsRead.get(nodeNumbers.get(child)));
+		}
+		return result;
+	}
+
+	// visits nodes in the order the code evaluates them; a reused node's children are not visited.
+	private class Marker extends ParseNodeVisitor.Default {
+		private ParseNode reused = null;
+		private int conditionalDepth = 0;
+
+		@Override
+		public void defaultVisitEnter(ParseNode node) {
+			if(reused != null) {
+				return;
+			}
+			if(isConditionalOperand(node)) {
+				conditionalDepth++;
+			}
+			Integer number = nodeNumbers.get(node);
+			if(number != null && available.containsKey(number)) {
+				reuse((OperatorNode)node, available.get(number));
+				reused = node;
+			}
+		}
+		@Override
+		public void defaultVisitLeave(ParseNode node) {
+			if(reused != null && reused != node) {
+				return;
+			}
+			if(reused == node) {
+				reused = null;
+			}
+			else {
+				Integer number = nodeNumbers.get(node);
+				if(number != null && node instanceof OperatorNode && conditionalDepth == 0) {
+					available.putIfAbsent(number, (OperatorNode)node);
+				}
+			}
+			if(isConditionalOperand(node)) {
+				conditionalDepth--;
+			}
+		}
+	}
+	private static boolean isConditionalOperand(ParseNode node) {
+		ParseNode parent = node.getParent();
+		if(!(parent instanceof OperatorNode) || parent.nChildren() != 2 || parent.child(1) != node) {
+			return false;
+		}
+		Object operator = ((OperatorNode)parent).getOperator();
+		return operator == Punctuator.AND || operator == Punctuator.OR;
+	}
+	private void reuse(OperatorNode node, OperatorNode original) {
+		if(!original.savesValue()) {
+			original.saveValueIn(temporaryFor(original.getType()));
+		}
+		node.reuseValueFrom(original.getSavedValueLocation());
+	}
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// temporaries: each run starts again at the first temporary of each size.
+
+	private MemoryLocation temporaryFor(Type type) {
+		int size = type.getSize();
+		List<MemoryLocation> ofSize = temporaries.computeIfAbsent(size, s -> new ArrayList<MemoryLocation>());
+		int inUse = temporariesInUse.getOrDefault(size, 0);
+		if(inUse == ofSize.size()) {
+			ofSize.add(temporaryScope.allocateTemporary(size));
+		}
+		temporariesInUse.put(size, inUse + 1);
+		return ofSize.get(inUse);
+	}
+}
@@ -12,9 +12,11 @@ import semanticAnalyzer.signatures.*;
 import semanticAnalyzer.types.*;
 import symbolTable.Binding;
 import symbolTable.Scope;
+import symbolTable.ScopeStack;
 import tokens.Token;
 
 class PreSemanticAnalysisVisitor extends ParseNodeVisitor.Default {
+	private ScopeStack scopes = new ScopeStack();		// the scopes enclosing the node being visited
 	
 	@Override
 	public void visitLeave(ParseNode node) {
@@ -28,12 +30,21 @@ class PreSemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	public void visitEnter(ProgramNode node) {
 		Scope scope = Scope.createProgramScope();
 		node.setScope(scope);
+		scopes.push(scope);
+	}
+	@Override
+	public void visitLeave(ProgramNode node) {
+		scopes.pop();
 	}
 	@Override
 	public void visitEnter(MainBlockNode node) {
 		createSubscope(node);
 	}
 	@Override
+	public void visitLeave(MainBlockNode node) {
+		scopes.pop();
+	}
+	@Override
 	public void visitEnter(BlockStatementNode node) {
 		if (node.getParent() instanceof FunctionNode) {
 			createProcedureScope(node);
@@ -41,6 +52,10 @@ class PreSemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 			createSubscope(node);
 		}
 	}
+	@Override
+	public void visitLeave(BlockStatementNode node) {
+		scopes.pop();
+	}
 
 	
 	///////////////////////////////////////////////////////////////////////////
@@ -48,16 +63,19 @@ class PreSemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	private void createParameterScope(ParseNode node) {
 		Scope scope = Scope.createParameterScope();
 		node.setScope(scope);
+		scopes.push(scope);
 	}
 	private void createProcedureScope(ParseNode node) {
-		Scope baseScope = node.getLocalScope();
+		Scope baseScope = scopes.current();
 		Scope scope = baseScope.createProcedureScope();
 		node.setScope(scope);
+		scopes.push(scope);
 	}
 	private void createSubscope(ParseNode node) {
-		Scope baseScope = node.getLocalScope();
+		Scope baseScope = scopes.current();
 		Scope scope = baseScope.createSubscope();
 		node.setScope(scope);
+		scopes.push(scope);
 	}
 	private void enterScope(ParseNode node) {
 		node.getScope().enter();
@@ -101,23 +119,24 @@ class PreSemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 			FuncParamTypeNode params = (FuncParamTypeNode) node.child(0);
 			
 			List<Type> childTypes = new ArrayList<Type>();
-			FunctionType functionType = new FunctionType();
+			List<Type> typeList = new ArrayList<Type>();
 
 			params.getChildren().forEach((child) -> {
-				functionType.addType(child.getType());
+				typeList.add(child.getType());
 				childTypes.add(getType(child));
 			});
 			
 			Type returnType = getType(params);
 			
 			FunctionSignature signature = new FunctionSignature(ASMOpcode.Nop, childTypes, returnType);
-			functionType.setReturnType(returnType);
+			FunctionType functionType = TypeFactory.functionOf(typeList, returnType);
 			
 			node.setSignature(signature);
 			node.setType(functionType);
 		}
 		
 		leaveScope(node);
+		scopes.pop();
 	}	
 	@Override
 	public void visitLeave(FuncParamNode node) {
@@ -192,8 +211,7 @@ class PreSemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	///////////////////////////////////////////////////////////////////////////
 	// helper methods for binding
 	private void addBinding(IdentifierNode identifierNode, Type type, String label, FunctionSignature signature) {
-		Scope scope = identifierNode.getLocalScope();
-		Binding binding = scope.createBinding(identifierNode, type);
+		Binding binding = scopes.createBinding(identifierNode, type);
 		binding.setMutability(false);
 		binding.setSignature(signature);
 		binding.setLabel(label);
@@ -46,13 +46,13 @@ import semanticAnalyzer.types.Type;
 import symbolTable.Binding;
 import symbolTable.Binding.Constancy;
 import symbolTable.Scope;
+import symbolTable.ScopeStack;
 import tokens.LextantToken;
 import tokens.Token;
 
 class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 
-	// create promotion object
-	public Promotion promotion = new Promotion();
+	private ScopeStack scopes = new ScopeStack();		// the scopes enclosing the node being visited
 
 	@Override
 	public void visitLeave(ParseNode node) {
@@ -70,8 +70,10 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 		leaveScope(node);
 	}
 	public void visitEnter(MainBlockNode node) {
+		scopes.push(node.getScope());
 	}
 	public void visitLeave(MainBlockNode node) {
+		scopes.pop();
 	}
 	public void visitEnter(BlockStatementNode node) {
 		//enterSubscope(node);
@@ -96,8 +98,10 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	}
 	private void enterScope(ParseNode node) {
 		node.getScope().enter();
+		scopes.push(node.getScope());
 	}		
 	private void leaveScope(ParseNode node) {
+		scopes.pop();
 		node.getScope().leave();
 	}
 
@@ -107,8 +111,13 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	public void visitLeave(FuncDefNode node) {
 	}
 
+	@Override
+	public void visitEnter(FunctionNode node){
+		scopes.push(node.getScope());
+	}
 	@Override
 	public void visitLeave(FunctionNode node){
+		scopes.pop();
 	}
 	
 	@Override
@@ -192,7 +201,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 			returnType = node.child(0).getType();
 		}
 
-		if (returnType.equals(functionReturnType)) {
+		if (returnType == functionReturnType) {
 			node.setType(returnType);
 		} else {
 			node.setType(PrimitiveType.ERROR);
@@ -246,7 +255,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 		}
 		target.setType(identifierType);
 		
-		if(!expressionType.equals(identifierType)) {
+		if(expressionType != identifierType) {
 			typeCheckError(node, Arrays.asList(identifierType, expressionType));
 			//semanticError("Types don't match in AssignmentStatement");
 			return;
@@ -285,45 +294,46 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	// expressions
 	@Override
 	public void visitLeave(OperatorNode node) {
-		List<Type> childTypes;  
-		if(node.nChildren() == 1) {
-			ParseNode child = node.child(0);
-			childTypes = Arrays.asList(child.getType());
-		}
-		else {
-			assert node.nChildren() == 2;
-			ParseNode left  = node.child(0);
-			ParseNode right = node.child(1);
-			
-			childTypes = Arrays.asList(left.getType(), right.getType());		
-		}
-		
 		Lextant operator = operatorFor(node);
 		
 		if (operator == Keyword.LENGTH) {
-			if (childTypes.get(0) instanceof ArrayType) {
+			if (node.child(0).getType() instanceof ArrayType) {
 				FunctionSignature signature = FunctionSignatures.signaturesOf(operator).get(0);
 				node.setSignature(signature);		
 				node.setType(signature.resultType());
 			} else {
-				typeCheckError(node, childTypes);
+				typeCheckError(node, childTypes(node));
 				//node.setType(PrimitiveType.ERROR);
 			}
 		}
 		else {
-			FunctionSignature signature = FunctionSignatures.signature(operator, childTypes);
-			//Object variant = signature.getVariant();
+			FunctionSignature signature;
+			if(node.nChildren() == 1) {
+				signature = FunctionSignatures.signature(operator, node.child(0).getType());
+			}
+			else {
+				assert node.nChildren() == 2;
+				signature = FunctionSignatures.signature(operator, node.child(0).getType(), node.child(1).getType());
+			}
 					
-			if(signature.accepts(childTypes)) {
+			if(!signature.isNull()) {
 				node.setType(signature.resultType());
 				node.setSignature(signature);
 			}
 			else {
-				typeCheckError(node, childTypes);
+				typeCheckError(node, childTypes(node));
 				//node.setType(PrimitiveType.ERROR);
 			}
 		}
 	}
+	// only for error messages: the signature lookups above take the types directly.
+	private List<Type> childTypes(ParseNode node) {
+		List<Type> result = new ArrayList<Type>();
+		for(ParseNode child: node.getChildren()) {
+			result.add(child.getType());
+		}
+		return result;
+	}
 	
 	@Override
 	public void visitLeave(TypeCastingNode node){
@@ -424,7 +434,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 	@Override
 	public void visitLeave(IdentifierNode node) {
 		if(!isBeingDeclared(node) && !isFunctionIdentifier(node) && !isFunctionParameter(node)) {		
-			Binding binding = node.findVariableBinding();
+			Binding binding = node.findVariableBinding(scopes);
 			node.setBinding(binding);
 			
 			Type type = node.getBinding().getType();
@@ -440,8 +450,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 		return (parent instanceof DeclarationNode) && (node == parent.child(0));
 	}
 	private void addBinding(IdentifierNode identifierNode, Type type, Constancy constancy) {
-		Scope scope = identifierNode.getLocalScope();
-		Binding binding = scope.createBinding(identifierNode, type, constancy);
+		Binding binding = scopes.createBinding(identifierNode, type, constancy);
 		identifierNode.setBinding(binding);
 	}
 	
@@ -467,13 +476,9 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 		Token token = node.getToken();
 
 		// Check promotion
-		if (node instanceof OperatorNode && promotion.promotable((OperatorNode) node))
-			return;
-		if (node instanceof ArrayNode && promotion.promotable((ArrayNode) node))
-			return;
-		if (node instanceof FuncDefNode && promotion.promotable((FuncDefNode) node))
+		if (node instanceof OperatorNode && Promotion.promote((OperatorNode) node))
 			return;
-		if (node instanceof AssignmentStatementNode && promotion.promotable(node))
+		if (node instanceof ArrayNode && Promotion.promote((ArrayNode) node))
 			return;
 
 			
@@ -10,7 +10,7 @@ public class SemanticAnalyzer {
 		SemanticAnalyzer analyzer = new SemanticAnalyzer(ASTree);
 		PreSemanticAnalysisVisitor spv = new PreSemanticAnalysisVisitor();
 		
-		ASTree.accept(spv);
+		ASTree.acceptIteratively(spv);
 		return analyzer.analyze();
 	}
 	public SemanticAnalyzer(ParseNode ASTree) {
@@ -19,8 +19,7 @@ public class SemanticAnalyzer {
 	
 	public ParseNode analyze() {
 		SemanticAnalysisVisitor visitor = new SemanticAnalysisVisitor();
-		ASTree.accept(visitor);
-		visitor.promotion.promote();
+		ASTree.acceptIteratively(visitor);
 		
 		return ASTree;
 	}
@@ -58,6 +58,12 @@ public class FunctionSignature {
 	public boolean isNull() {
 		return false;
 	}
+	public int nParams() {
+		return paramTypes.length;
+	}
+	public Type paramType(int index) {
+		return paramTypes[index];
+	}
 	
 	
 	///////////////////////////////////////////////////////////////
@@ -79,7 +85,7 @@ public class FunctionSignature {
 		if(valueType == PrimitiveType.ERROR && ALL_TYPES_ACCEPT_ERROR_TYPES) {
 			return true;
 		}	
-		return variableType.equals(valueType);
+		return variableType == valueType;
 	}
 	
 	// Null object pattern
@@ -11,8 +11,9 @@ import asmCodeGenerator.operators.ArrayLengthCodeGenerator;
 import asmCodeGenerator.operators.CharToBoolCodeGenerator;
 import asmCodeGenerator.operators.IntToBoolCodeGenerator;
 import asmCodeGenerator.operators.IntToCharCodeGenerator;
-import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
 import semanticAnalyzer.types.Type;
+import semanticAnalyzer.types.TypeFactory;
 import semanticAnalyzer.types.TypeVariable;
 
 import static semanticAnalyzer.types.PrimitiveType.*;
@@ -23,8 +24,14 @@ import lexicalAnalyzer.Punctuator;
 public class FunctionSignatures extends ArrayList<FunctionSignature> {
 	private static final long serialVersionUID = -4907792488209670697L;
 	private static Map<Object, FunctionSignatures> signaturesForKey = new HashMap<Object, FunctionSignatures>();
+	private static FunctionSignatures[] signaturesForPunctuator = new FunctionSignatures[Punctuator.values().length];
+	private static final int TYPE_IDS = PrimitiveType.values().length;
 
 	Object key;
+	// the accepting signature for primitive operand types, by type ID (unary)
+	// or by left ID * TYPE_IDS + right ID (binary).
+	private FunctionSignature[] unaryDispatch;
+	private FunctionSignature[] binaryDispatch;
 
 	public FunctionSignatures(Object key, FunctionSignature... functionSignatures) {
 		this.key = key;
@@ -32,6 +39,25 @@ public class FunctionSignatures extends ArrayList<FunctionSignature> {
 			add(functionSignature);
 		}
 		signaturesForKey.put(key, this);
+		if (key instanceof Punctuator) {
+			signaturesForPunctuator[((Punctuator) key).ordinal()] = this;
+		}
+		buildDispatchTables();
+	}
+
+	// every combination of primitive operand types, resolved once by acceptingSignature.
+	private void buildDispatchTables() {
+		PrimitiveType[] types = PrimitiveType.values();
+		unaryDispatch = new FunctionSignature[TYPE_IDS];
+		binaryDispatch = new FunctionSignature[TYPE_IDS * TYPE_IDS];
+		for (PrimitiveType operand : types) {
+			unaryDispatch[operand.getId()] = acceptingSignature(Arrays.asList(operand));
+		}
+		for (PrimitiveType left : types) {
+			for (PrimitiveType right : types) {
+				binaryDispatch[left.getId() * TYPE_IDS + right.getId()] = acceptingSignature(Arrays.asList(left, right));
+			}
+		}
 	}
 
 	public Object getKey() {
@@ -61,6 +87,10 @@ public class FunctionSignatures extends ArrayList<FunctionSignature> {
 	public static FunctionSignatures nullSignatures = new FunctionSignatures(0, FunctionSignature.nullInstance());
 
 	public static FunctionSignatures signaturesOf(Object key) {
+		if (key instanceof Punctuator) {
+			FunctionSignatures signatures = signaturesForPunctuator[((Punctuator) key).ordinal()];
+			return (signatures == null) ? nullSignatures : signatures;
+		}
 		if (signaturesForKey.containsKey(key)) {
 			return signaturesForKey.get(key);
 		}
@@ -72,6 +102,25 @@ public class FunctionSignatures extends ArrayList<FunctionSignature> {
 		return signatures.acceptingSignature(types);
 	}
 
+	// as above, for one or two operands.  Primitive operands are looked up in the
+	// dispatch tables; any other type (arrays, functions) takes the linear scan.
+	public static FunctionSignature signature(Object key, Type operandType) {
+		FunctionSignatures signatures = FunctionSignatures.signaturesOf(key);
+		if (operandType instanceof PrimitiveType) {
+			return signatures.unaryDispatch[operandType.getId()];
+		}
+		return signatures.acceptingSignature(Arrays.asList(operandType));
+	}
+
+	public static FunctionSignature signature(Object key, Type leftType, Type rightType) {
+		FunctionSignatures signatures = FunctionSignatures.signaturesOf(key);
+		if (leftType instanceof PrimitiveType && rightType instanceof PrimitiveType) {
+			int index = leftType.getId() * TYPE_IDS + rightType.getId();
+			return signatures.binaryDispatch[index];
+		}
+		return signatures.acceptingSignature(Arrays.asList(leftType, rightType));
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////
 	// Put the signatures for operators in the following static block.
 
@@ -145,7 +194,7 @@ public class FunctionSignatures extends ArrayList<FunctionSignature> {
 				new FunctionSignature(ASMOpcode.Nop, INTEGER, INTEGER, INTEGER), // int to int
 				new FunctionSignature(ASMOpcode.Nop, FLOAT, FLOAT, FLOAT), // float to float
 				new FunctionSignature(ASMOpcode.Nop, STRING, STRING, STRING), // string to string
-				new FunctionSignature(ASMOpcode.Nop, T_list, new ArrayType(T), new ArrayType(T), new ArrayType(T)), // array to array
+				new FunctionSignature(ASMOpcode.Nop, T_list, TypeFactory.arrayOf(T), TypeFactory.arrayOf(T), TypeFactory.arrayOf(T)), // array to array
 
 				new FunctionSignature(ASMOpcode.Nop, CHARACTER, INTEGER, INTEGER), 
 				new FunctionSignature(ASMOpcode.ConvertF, INTEGER, FLOAT, FLOAT),
@@ -173,7 +222,7 @@ public class FunctionSignatures extends ArrayList<FunctionSignature> {
 				new FunctionSignature(ASMOpcode.BNegate, BOOLEAN, BOOLEAN));
 		
 		new FunctionSignatures(Keyword.LENGTH,
-				new FunctionSignature(new ArrayLengthCodeGenerator(), new ArrayType(), INTEGER));
+				new FunctionSignature(new ArrayLengthCodeGenerator(), TypeFactory.anyArray(), INTEGER));
 
 		// First, we use the operator itself (in this case the Punctuator ADD) as the
 		// key.
@@ -1,302 +1,159 @@
 package semanticAnalyzer.signatures;
 
-import java.util.*;
-import lexicalAnalyzer.*;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.Punctuator;
 import parseTree.ParseNode;
 import parseTree.nodeTypes.ArrayNode;
-import parseTree.nodeTypes.FuncInvocNode;
-import parseTree.nodeTypes.TypeCastingNode;
 import parseTree.nodeTypes.OperatorNode;
-import semanticAnalyzer.types.*;
+import parseTree.nodeTypes.TypeCastingNode;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
 import tokens.LextantToken;
 
+/** Promotion of the operands of operators, and of the elements of arrays, whose
+ *  types match no signature as they are.
+ * <p>
+ *  Primitive types are promoted up the lattice CHARACTER -> INTEGER -> FLOAT, at a
+ *  cost of one per step.  An operator is resolved by pricing each of its signatures
+ *  once, as the total cost of promoting the operands to its parameter types, and
+ *  taking the cheapest; of equally cheap signatures, the first is taken.  An array
+ *  takes the highest type in the lattice among its elements.
+ * <p>
+ *  The casts go into the tree as soon as the node is resolved: one TypeCastingNode
+ *  per step, above the promoted operand.
+ */
 public class Promotion {
-    HashMap<ParseNode, List<TypeLiteral>> promotionList;
-
-    // create a constructor
-    public Promotion() {
-        promotionList = new HashMap<ParseNode, List<TypeLiteral>>();
-    }
-
-    public void addPromotion(ParseNode node, List<TypeLiteral> castTypes) {
-        promotionList.put(node, castTypes);
-    }
-
-    public void removePromotion(ParseNode node) {
-        promotionList.remove(node);
-    }
-
-    public boolean promotable(OperatorNode node) {
-        Lextant operator = operatorFor(node);
-
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
-        FunctionSignature signature = FunctionSignatures.signature(operator, childTypes);
-
-        // Check for cast to integer
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.INTEGER);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER)));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setSignature(signature);
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        // Check for cast to float
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER),
-                            new TypeLiteral(PrimitiveType.FLOAT)));
-                }
-            }
-
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.INTEGER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.FLOAT)));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setSignature(signature);
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        return false;
-    }
-
-    public boolean promotable(ArrayNode node) {
-        // Skip promotion on arrays being cloned
-        // if (node.getToken().isLextant(Keyword.CLONE)) return false;
-
-        List<Type> childTypes = new ArrayList<Type>();
-        List<Type> castTypes = new ArrayList<Type>();
-
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
-        node.getChildren().forEach((child) -> castTypes.add(child.getType()));
-
-        // Attempt to promote index for empty arrays
-        if (node.isEmpty()) {
-            if (childTypes.get(0) == PrimitiveType.CHARACTER) {
-                castTypes.set(0, PrimitiveType.INTEGER);
-                addPromotion(node.child(0), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER)));
-                return true;
-            } else {
-                return false;
-            }
-        }
-
-        int numType = 0;
-        int totalNum = node.nChildren();
-
-        // Check for cast to integer
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                castTypes.set(i, PrimitiveType.INTEGER);
-                addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER)));
-            }
-        }
-
-        numType = Collections.frequency(castTypes, PrimitiveType.INTEGER);
-        if (numType == totalNum) {
-            node.setSubtype(PrimitiveType.INTEGER);
-            return true;
-        } else {
-            promotionList.clear();
-            castTypes.clear();
-            node.getChildren().forEach((child) -> castTypes.add(child.getType()));
-        }
-
-        // Check for cast to float
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                castTypes.set(i, PrimitiveType.FLOAT);
-                addPromotion(node.child(i),
-                        Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER), new TypeLiteral(PrimitiveType.FLOAT)));
-            }
-
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                castTypes.set(i, PrimitiveType.FLOAT);
-                addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.FLOAT)));
-            }
-        }
-
-        numType = Collections.frequency(castTypes, PrimitiveType.FLOAT);
-        if (numType == totalNum) {
-            node.setSubtype(PrimitiveType.FLOAT);
-            return true;
-        } else {
-            promotionList.clear();
-            castTypes.clear();
-            node.getChildren().forEach((child) -> castTypes.add(child.getType()));
-        }
-
-        return false;
-    }
-
-    public boolean promotable(ParseNode node) {
-        Lextant operator = operatorFor(node);
-
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
-        FunctionSignature signature = FunctionSignatures.signature(operator, childTypes);
-
-        // Check for cast to integer
-        for (int i = 1; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.INTEGER);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER)));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        // Check for cast to float
-        for (int i = 1; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER),
-                            new TypeLiteral(PrimitiveType.FLOAT)));
-                }
-            }
-
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.INTEGER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(new TypeLiteral(PrimitiveType.FLOAT)));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        return false;
-    }
-
-    private Lextant operatorFor(ParseNode node) {
-        LextantToken token = (LextantToken) node.getToken();
-        return token.getLextant();
-    }
-
-    public boolean promotable(FuncInvocNode node) {
-        FunctionSignature signature;
-
-        if (node.child(0).getType() instanceof FunctionType) {
-            FunctionType type = (FunctionType) node.child(0).getType();
-            signature = type.getSignature();
-        } else {
-            signature = node.findVariableBinding().getSignature();
-        }
-
-        assert signature != null;
-
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
-        childTypes.remove(0);
-
-        // Check for cast to integer
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.INTEGER);
-                if (signature.accepts(childTypes)) {
-                    addPromotion(node.child(i + 1), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER)));
-                } else {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        // Check for cast to float
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                if (signature.accepts(childTypes)) {
-                    addPromotion(node.child(i + 1), Arrays.asList(new TypeLiteral(PrimitiveType.INTEGER), new TypeLiteral(PrimitiveType.FLOAT)));
-                } else {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                }
-            }
-
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                if (signature.accepts(childTypes)) {
-                    addPromotion(node.child(i + 1), Arrays.asList(new TypeLiteral(PrimitiveType.FLOAT)));
-                } else {
-                    childTypes.set(i, PrimitiveType.INTEGER);
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        return false;
-    }
-
-    public void promote() {
-        for (Map.Entry<ParseNode, List<TypeLiteral>> entry : promotionList.entrySet()) {
-            ParseNode node = entry.getKey();
-            List<TypeLiteral> casts = entry.getValue();
-
-            for (TypeLiteral typeLiteral : casts) {
-                ParseNode parentNode = node.getParent();
-
-                // Configure CastNode
-                List<Type> childTypes = Arrays.asList(node.getType(), typeLiteral.getLiteraltype());
-                FunctionSignature signature = FunctionSignatures.signature(Punctuator.CAST, childTypes);
-                TypeCastingNode cast = TypeCastingNode.withChildren(Punctuator.CAST.prototype(), node, typeLiteral);
-                cast.setSignature(signature);
-                cast.setType(signature.resultType());
-
-                parentNode.replaceChild(node, cast);
-                node = cast;
-            }
-        }
-    }
-
-}
\ No newline at end of file
+	public static final int NOT_PROMOTABLE = -1;
+	private static final Type[] lattice = { PrimitiveType.CHARACTER, PrimitiveType.INTEGER, PrimitiveType.FLOAT };
+
+	/** Resolve an operator whose operand types match none of its signatures.
+	 * @return true, after casting the operands and setting the node's signature
+	 *         and type, if some signature matches after promotion.
+	 */
+	public static boolean promote(OperatorNode node) {
+		FunctionSignature best = null;
+		int bestCost = Integer.MAX_VALUE;
+		for (FunctionSignature signature : FunctionSignatures.signaturesOf(operatorFor(node))) {
+			int cost = cost(signature, node);
+			if (cost != NOT_PROMOTABLE && cost < bestCost) {
+				best = signature;
+				bestCost = cost;
+			}
+		}
+		if (best == null) {
+			return false;
+		}
+
+		for (int i = 0; i < node.nChildren(); i++) {
+			promoteChild(node, i, best.paramType(i));
+		}
+		node.setSignature(best);
+		node.setType(best.resultType());
+		return true;
+	}
+
+	/** Resolve an array whose elements are not all of one type, or whose length
+	 *  (for an empty array) is not an integer.
+	 * @return true, after casting the elements and setting the node's subtype, if
+	 *         they all promote to one type.
+	 */
+	public static boolean promote(ArrayNode node) {
+		if (node.isEmpty()) {
+			int rank = rank(node.child(0).getType());
+			if (rank == NOT_PROMOTABLE || rank > rank(PrimitiveType.INTEGER)) {
+				return false;
+			}
+			promoteChild(node, 0, PrimitiveType.INTEGER);
+			return true;
+		}
+
+		Type subtype = null;
+		for (ParseNode child : node.getChildren()) {
+			Type type = child.getType();
+			if (rank(type) == NOT_PROMOTABLE) {
+				return false;
+			}
+			if (subtype == null || rank(type) > rank(subtype)) {
+				subtype = type;
+			}
+		}
+		for (int i = 0; i < node.nChildren(); i++) {
+			promoteChild(node, i, subtype);
+		}
+		node.setSubtype(subtype);
+		return true;
+	}
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// costs
+
+	/** The number of steps up the lattice from one type to another.
+	 * @return 0 for a type and itself, or for ERROR, which every type accepts;
+	 *         NOT_PROMOTABLE if the first type does not promote to the second.
+	 */
+	public static int cost(Type from, Type to) {
+		if (from == PrimitiveType.ERROR || to == from) {
+			return 0;
+		}
+		int fromRank = rank(from);
+		int toRank = rank(to);
+		if (fromRank == NOT_PROMOTABLE || toRank < fromRank) {
+			return NOT_PROMOTABLE;
+		}
+		return toRank - fromRank;
+	}
+	private static int cost(FunctionSignature signature, ParseNode node) {
+		if (signature.isNull() || signature.nParams() != node.nChildren()) {
+			return NOT_PROMOTABLE;
+		}
+		int result = 0;
+		for (int i = 0; i < node.nChildren(); i++) {
+			int cost = cost(node.child(i).getType(), signature.paramType(i));
+			if (cost == NOT_PROMOTABLE) {
+				return NOT_PROMOTABLE;
+			}
+			result += cost;
+		}
+		return result;
+	}
+	private static int rank(Type type) {
+		for (int i = 0; i < lattice.length; i++) {
+			if (lattice[i] == type) {
+				return i;
+			}
+		}
+		return NOT_PROMOTABLE;
+	}
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// casts
+
+	// a child not in the lattice (an ERROR, or one already of the type) is left alone.
+	private static void promoteChild(ParseNode node, int index, Type type) {
+		ParseNode child = node.child(index);
+		int fromRank = rank(child.getType());
+		if (fromRank == NOT_PROMOTABLE) {
+			return;
+		}
+		for (int step = fromRank + 1; step <= rank(type); step++) {
+			child = castTo(child, lattice[step]);
+		}
+	}
+	private static ParseNode castTo(ParseNode node, Type type) {
+		ParseNode parent = node.getParent();
+		FunctionSignature signature = FunctionSignatures.signature(Punctuator.CAST, node.getType(), type);
+		TypeCastingNode cast = TypeCastingNode.withChildren(Punctuator.CAST.prototype(), node, type);
+		cast.setSignature(signature);
+		cast.setType(signature.resultType());
+
+		parent.replaceChild(node, cast);
+		return cast;
+	}
+
+	private static Lextant operatorFor(ParseNode node) {
+		LextantToken token = (LextantToken) node.getToken();
+		return token.getLextant();
+	}
+}
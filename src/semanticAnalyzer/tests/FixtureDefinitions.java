@@ -0,0 +1,8 @@
+package semanticAnalyzer.tests;
+
+public class FixtureDefinitions {
+	public static final String FIXTURE_DIRECTORY = "src/semanticAnalyzer/tests/fixtures/";
+
+	public static final String CSE_INPUT_FILENAME = FIXTURE_DIRECTORY + "commonSubexpressions.tan";
+	public static final String PROMOTION_INPUT_FILENAME = FIXTURE_DIRECTORY + "promotions.tan";
+}
@@ -0,0 +1,69 @@
+package semanticAnalyzer.tests;
+
+import static semanticAnalyzer.tests.FixtureDefinitions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.OperatorNode;
+import parser.Parser;
+import semanticAnalyzer.CommonSubexpressionEliminator;
+import semanticAnalyzer.SemanticAnalyzer;
+import junit.framework.TestCase;
+
+public class TestCommonSubexpressionEliminator extends TestCase {
+	private ParseNode tree;
+	private int variablesSize;
+	private List<OperatorNode> operators;
+
+	@Override
+	protected void setUp() {
+		tree = SemanticAnalyzer.analyze(Parser.parse(LexicalAnalyzer.make(CSE_INPUT_FILENAME)));
+		variablesSize = tree.getScope().getAllocatedSize();
+		CommonSubexpressionEliminator.eliminate(tree);
+		operators = operatorsInOrder(tree);
+	}
+
+	// (a+b)*(a+b) keeps a+b, which the assignment a := a+b reuses; nothing else is reused.
+	public void testReusesWithinRun() {
+		List<OperatorNode> saving = new ArrayList<OperatorNode>();
+		List<OperatorNode> reusing = new ArrayList<OperatorNode>();
+		for(OperatorNode node: operators) {
+			if(node.savesValue()) {
+				saving.add(node);
+			}
+			if(node.reusesValue()) {
+				reusing.add(node);
+			}
+		}
+		assertEquals(1, saving.size());
+		assertEquals(2, reusing.size());
+		for(OperatorNode node: reusing) {
+			assertSame(saving.get(0).getSavedValueLocation(), node.getReusedValueLocation());
+			assertTrue(operators.indexOf(saving.get(0)) < operators.indexOf(node));
+		}
+	}
+
+	public void testTemporariesFollowVariables() {
+		for(OperatorNode node: operators) {
+			if(node.savesValue()) {
+				assertTrue(node.getSavedValueLocation().getOffset() >= variablesSize);
+			}
+		}
+		assertTrue(tree.getScope().getAllocatedSize() > variablesSize);
+	}
+
+	private static List<OperatorNode> operatorsInOrder(ParseNode tree) {
+		List<OperatorNode> result = new ArrayList<OperatorNode>();
+		tree.acceptIteratively(new ParseNodeVisitor.Default() {
+			@Override
+			public void visitLeave(OperatorNode node) {
+				result.add(node);
+			}
+		});
+		return result;
+	}
+}
@@ -0,0 +1,48 @@
+package semanticAnalyzer.tests;
+
+import java.util.Arrays;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Punctuator;
+import semanticAnalyzer.signatures.FunctionSignature;
+import semanticAnalyzer.signatures.FunctionSignatures;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.TypeFactory;
+import junit.framework.TestCase;
+
+public class TestFunctionSignatures extends TestCase {
+
+	public void testDispatchMatchesLinearScan() {
+		for(Punctuator operator : Punctuator.values()) {
+			for(PrimitiveType operand : PrimitiveType.values()) {
+				assertSame(FunctionSignatures.signature(operator, Arrays.asList(operand)),
+						   FunctionSignatures.signature(operator, operand));
+			}
+			for(PrimitiveType left : PrimitiveType.values()) {
+				for(PrimitiveType right : PrimitiveType.values()) {
+					assertSame(FunctionSignatures.signature(operator, Arrays.asList(left, right)),
+							   FunctionSignatures.signature(operator, left, right));
+				}
+			}
+		}
+	}
+
+	public void testResolvesPrimitiveOperands() {
+		FunctionSignature add = FunctionSignatures.signature(Punctuator.ADD, PrimitiveType.FLOAT, PrimitiveType.FLOAT);
+		assertFalse(add.isNull());
+		assertSame(PrimitiveType.FLOAT, add.resultType());
+
+		FunctionSignature not = FunctionSignatures.signature(Punctuator.NOT, PrimitiveType.BOOLEAN);
+		assertSame(PrimitiveType.BOOLEAN, not.resultType());
+
+		assertTrue(FunctionSignatures.signature(Punctuator.ADD, PrimitiveType.INTEGER, PrimitiveType.FLOAT).isNull());
+	}
+
+	public void testOtherOperandsTakeSlowPath() {
+		ArrayType array = TypeFactory.arrayOf(PrimitiveType.INTEGER);
+		assertSame(FunctionSignatures.signature(Punctuator.ADD, Arrays.asList(array, array)),
+				   FunctionSignatures.signature(Punctuator.ADD, array, array));
+		assertTrue(FunctionSignatures.signature(Keyword.LENGTH, PrimitiveType.INTEGER).isNull());
+	}
+}
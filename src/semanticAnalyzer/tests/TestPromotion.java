@@ -0,0 +1,95 @@
+package semanticAnalyzer.tests;
+
+import static semanticAnalyzer.tests.FixtureDefinitions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.ArrayNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.OperatorNode;
+import parseTree.nodeTypes.TypeCastingNode;
+import parser.Parser;
+import semanticAnalyzer.SemanticAnalyzer;
+import semanticAnalyzer.signatures.Promotion;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import logging.TanLogger;
+import junit.framework.TestCase;
+
+public class TestPromotion extends TestCase {
+	private List<OperatorNode> operators = new ArrayList<OperatorNode>();
+	private List<ArrayNode> arrays = new ArrayList<ArrayNode>();
+	private int messagesBefore;
+
+	@Override
+	protected void setUp() {
+		messagesBefore = TanLogger.numMessages();
+		ParseNode tree = SemanticAnalyzer.analyze(Parser.parse(LexicalAnalyzer.make(PROMOTION_INPUT_FILENAME)));
+		tree.acceptIteratively(new ParseNodeVisitor.Default() {
+			@Override
+			public void visitLeave(OperatorNode node) {
+				operators.add(node);
+			}
+			@Override
+			public void visitLeave(ArrayNode node) {
+				arrays.add(node);
+			}
+		});
+	}
+
+	public void testCosts() {
+		assertEquals(0, Promotion.cost(PrimitiveType.INTEGER, PrimitiveType.INTEGER));
+		assertEquals(1, Promotion.cost(PrimitiveType.CHARACTER, PrimitiveType.INTEGER));
+		assertEquals(1, Promotion.cost(PrimitiveType.INTEGER, PrimitiveType.FLOAT));
+		assertEquals(2, Promotion.cost(PrimitiveType.CHARACTER, PrimitiveType.FLOAT));
+		assertEquals(0, Promotion.cost(PrimitiveType.ERROR, PrimitiveType.FLOAT));
+		assertEquals(Promotion.NOT_PROMOTABLE, Promotion.cost(PrimitiveType.FLOAT, PrimitiveType.INTEGER));
+		assertEquals(Promotion.NOT_PROMOTABLE, Promotion.cost(PrimitiveType.BOOLEAN, PrimitiveType.INTEGER));
+	}
+
+	// c + i, c + f, c * c
+	public void testOperatorsTakeCheapestSignature() {
+		assertEquals(messagesBefore, TanLogger.numMessages());
+		assertEquals(3, operators.size());
+
+		assertSame(PrimitiveType.INTEGER, operators.get(0).getType());
+		assertCastsTo(operators.get(0).child(0), PrimitiveType.INTEGER);
+		assertTrue(operators.get(0).child(1) instanceof IdentifierNode);
+
+		assertSame(PrimitiveType.FLOAT, operators.get(1).getType());
+		assertCastsTo(operators.get(1).child(0), PrimitiveType.FLOAT, PrimitiveType.INTEGER);
+
+		assertSame(PrimitiveType.INTEGER, operators.get(2).getType());
+		assertCastsTo(operators.get(2).child(0), PrimitiveType.INTEGER);
+		assertCastsTo(operators.get(2).child(1), PrimitiveType.INTEGER);
+	}
+
+	// [c, i, 7] and [c, 2.5, i]: each array is promoted on its own.
+	public void testArraysTakeHighestElementType() {
+		assertEquals(2, arrays.size());
+
+		assertSame(PrimitiveType.INTEGER, ((ArrayType)arrays.get(0).getType()).getSubtype());
+		assertCastsTo(arrays.get(0).child(0), PrimitiveType.INTEGER);
+		assertTrue(arrays.get(0).child(1) instanceof IdentifierNode);
+
+		assertSame(PrimitiveType.FLOAT, ((ArrayType)arrays.get(1).getType()).getSubtype());
+		assertCastsTo(arrays.get(1).child(0), PrimitiveType.FLOAT, PrimitiveType.INTEGER);
+		assertCastsTo(arrays.get(1).child(2), PrimitiveType.FLOAT);
+	}
+
+	// the node is a chain of casts to the given types, outermost first, above an identifier.
+	private static void assertCastsTo(ParseNode node, Type... types) {
+		for(Type type: types) {
+			assertTrue(node instanceof TypeCastingNode);
+			assertSame(type, node.getType());
+			assertFalse(((TypeCastingNode)node).getSignature().isNull());
+			node = node.child(0);
+		}
+		assertTrue(node instanceof IdentifierNode);
+	}
+}
@@ -0,0 +1,44 @@
+package semanticAnalyzer.tests;
+
+import java.util.Arrays;
+
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.FunctionType;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import semanticAnalyzer.types.TypeFactory;
+import junit.framework.TestCase;
+
+public class TestTypeFactory extends TestCase {
+
+	public void testArrayTypesAreCanonical() {
+		ArrayType ints = TypeFactory.arrayOf(PrimitiveType.INTEGER);
+		assertSame(ints, TypeFactory.arrayOf(PrimitiveType.INTEGER));
+		assertSame(TypeFactory.arrayOf(ints), TypeFactory.arrayOf(TypeFactory.arrayOf(PrimitiveType.INTEGER)));
+		assertNotSame(ints, TypeFactory.arrayOf(PrimitiveType.FLOAT));
+		assertNotSame(ints, TypeFactory.arrayOf(ints));
+		assertEquals("ARRAY[ARRAY[INTEGER]]", TypeFactory.arrayOf(ints).infoString());
+		assertEquals("ARRAY[]", TypeFactory.anyArray().infoString());
+	}
+
+	public void testFunctionTypesAreCanonical() {
+		Type ints = TypeFactory.arrayOf(PrimitiveType.INTEGER);
+		FunctionType function = TypeFactory.functionOf(Arrays.asList(PrimitiveType.CHARACTER, ints), PrimitiveType.FLOAT);
+		assertSame(function, TypeFactory.functionOf(Arrays.<Type>asList(PrimitiveType.CHARACTER, ints), PrimitiveType.FLOAT));
+		assertNotSame(function, TypeFactory.functionOf(Arrays.<Type>asList(PrimitiveType.CHARACTER, ints), PrimitiveType.INTEGER));
+		assertNotSame(function, TypeFactory.functionOf(Arrays.<Type>asList(ints, PrimitiveType.CHARACTER), PrimitiveType.FLOAT));
+		assertSame(PrimitiveType.FLOAT, function.getSignature().resultType());
+	}
+
+	public void testIdsIndexTables() {
+		for(PrimitiveType type: PrimitiveType.values()) {
+			assertEquals(type.ordinal(), type.getId());
+		}
+		ArrayType floats = TypeFactory.arrayOf(PrimitiveType.FLOAT);
+		ArrayType chars = TypeFactory.arrayOf(PrimitiveType.CHARACTER);
+		assertTrue(floats.getId() >= PrimitiveType.values().length);
+		assertTrue(floats.getId() != chars.getId());
+		assertTrue(chars.getId() < TypeFactory.numberOfIds());
+		assertEquals(floats.getId(), TypeFactory.arrayOf(PrimitiveType.FLOAT).getId());
+	}
+}
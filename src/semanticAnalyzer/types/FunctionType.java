@@ -1,53 +1,51 @@
 package semanticAnalyzer.types;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import asmCodeGenerator.codeStorage.ASMOpcode;
 import semanticAnalyzer.signatures.FunctionSignature;
 
 public class FunctionType implements Type {	
-	private String infoString;
-	private ArrayList<Type> typeList;
-	private Type returnType;
+	private final String infoString;
+	private final List<Type> typeList;
+	private final Type returnType;
+	private final FunctionSignature signature;
+	private final int id;
 	private int sizeInBytes = 8;
 	
-	public FunctionType() {
-		returnType = PrimitiveType.VOID;
-		typeList = new ArrayList<Type>();
-	}
-	public FunctionType(String infoString) {
-		this.infoString = infoString;
+	// made only by TypeFactory.functionOf, which keeps one instance per parameter and return types.
+	FunctionType(List<Type> typeList, Type returnType, int id) {
+		this.typeList = Collections.unmodifiableList(new ArrayList<Type>(typeList));
+		this.returnType = returnType;
+		this.signature = new FunctionSignature(ASMOpcode.Nop, this.typeList, returnType);
+		this.infoString = makeInfoString();
+		this.id = id;
 	}
 	public int getSize() {
 		return sizeInBytes;
 	}
+	public int getId() {
+		return id;
+	}
 	
 // ACCESSORS
 	
 	public FunctionSignature getSignature() {
-		return new FunctionSignature(ASMOpcode.Nop, typeList, returnType);
-	}
-	
-	public void setReturnType(Type type) {
-		this.returnType = type;
-		updateInfoString();
+		return signature;
 	}
 	public Type getReturnType() {
 		return returnType;
 	}
-	
-	public ArrayList<Type> getTypeList() {
+	public List<Type> getTypeList() {
 		return typeList;
 	}
-	public void addType(Type type) {
-		typeList.add(type);
-		updateInfoString();
-	}
 	
 	public String infoString() {
 		return infoString;
 	}
-	private void updateInfoString() {
+	private String makeInfoString() {
 		ArrayList<String> types = new ArrayList<String>();
 		typeList.forEach((type) -> types.add(type.infoString()));
 		
@@ -55,35 +53,6 @@ public class FunctionType implements Type {
 		typeString = typeString.replace('[', '(');
 		typeString = typeString.replace(']', ')');
 		
-		this.infoString = "Returns: " + returnType.infoString() + "\t params: " + typeString;
-	}
-	
-// HELPER FUNCTIONS
-	
-	public boolean equals(Object type2) {
-		if (!(type2 instanceof FunctionType)) {
-			return false;
-		}
-		
-		FunctionType compareType = (FunctionType) type2;
-		
-		// Check that number of arguments is the same
-		if (this.typeList.size() != compareType.typeList.size()) {
-			return false;
-		}
-
-		// Check that each argument is the same
-		for (int i = 0; i < this.typeList.size(); i++) {
-			Type t1 = this.typeList.get(i);
-			Type t2 = compareType.typeList.get(i);
-			
-			if (!t1.equals(t2)) {
-				return false;
-			}
-		}
-
-		// Check that return type is the same
-		return this.returnType.equals(compareType.returnType);
+		return "Returns: " + returnType.infoString() + "\t params: " + typeString;
 	}
-
-}
\ No newline at end of file
+}
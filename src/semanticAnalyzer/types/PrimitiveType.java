@@ -42,6 +42,10 @@ public enum PrimitiveType implements Type {
 		return infoString;
 	}
 	
+	public int getId() {
+		return ordinal();
+	}
+	
 
 	public static PrimitiveType fromToken(Token token) {
 
@@ -14,4 +14,11 @@ public interface Type {
 	 * @return string representation of type.
 	 */
 	public String infoString();
+	
+	/** returns a small number that is different for each type, to index tables by type.
+	 * PrimitiveTypes are numbered by ordinal, below every other type.
+	 * 
+	 * @return the ID of this type
+	 */
+	public int getId();
 }
@@ -0,0 +1,58 @@
+package semanticAnalyzer.types;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Makes the structural types, ArrayType and FunctionType, keeping one instance of
+ *  each: two types are the same type exactly when they are the same object, and
+ *  are compared with ==.  The parts of a structural type are themselves canonical,
+ *  so a table keyed by them finds a type with one probe, however deeply it nests.
+ * <p>
+ *  Every type also has a small int ID.  PrimitiveTypes are numbered by ordinal, and
+ *  every other type is numbered after them in order of creation, so that an ID can
+ *  index a table of facts about types.
+ */
+public class TypeFactory {
+	private static int nextId = PrimitiveType.values().length;
+	private static Map<Type, ArrayType> arrayTypes = new HashMap<Type, ArrayType>();						// by subtype
+	private static Map<List<Type>, FunctionType> functionTypes = new HashMap<List<Type>, FunctionType>();	// by parameter types, then return type
+
+	public static synchronized ArrayType arrayOf(Type subtype) {
+		assert subtype != null;
+		ArrayType result = arrayTypes.get(subtype);
+		if(result == null) {
+			result = new ArrayType(subtype, nextId++);
+			arrayTypes.put(subtype, result);
+		}
+		return result;
+	}
+	// the array of no particular subtype, for a signature that takes any array.
+	public static ArrayType anyArray() {
+		return arrayOf(PrimitiveType.NO_TYPE);
+	}
+
+	public static synchronized FunctionType functionOf(List<Type> paramTypes, Type returnType) {
+		List<Type> key = new ArrayList<Type>(paramTypes);
+		key.add(returnType);
+		FunctionType result = functionTypes.get(key);
+		if(result == null) {
+			result = new FunctionType(paramTypes, returnType, nextId++);
+			functionTypes.put(key, result);
+		}
+		return result;
+	}
+
+	// for types that are not structural, each instance of which is a type of its own.
+	static synchronized int newId() {
+		return nextId++;
+	}
+	/** returns one more than the highest ID given out so far.
+	 * 
+	 * @return the size of a table indexed by every type made so far
+	 */
+	public static synchronized int numberOfIds() {
+		return nextId;
+	}
+}
@@ -4,6 +4,7 @@ import static semanticAnalyzer.types.PrimitiveType.*;
 
 public class TypeLiteral implements Type {
     private Type literaltype;
+    private final int id = TypeFactory.newId();
     public static final TypeLiteral TYPE_INTEGER = new TypeLiteral(INTEGER);
     public static final TypeLiteral TYPE_FLOATING = new TypeLiteral(FLOAT);
     public static final TypeLiteral TYPE_CHARACTER = new TypeLiteral(CHARACTER);
@@ -28,6 +29,11 @@ public class TypeLiteral implements Type {
         return literaltype.getSize();
     }
 
+    @Override
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String infoString() {
         return toString();
@@ -3,6 +3,7 @@ package semanticAnalyzer.types;
 public class TypeVariable implements Type{
 	private String name;
 	private Type typeConstraint;
+	private final int id = TypeFactory.newId();
 
 	public TypeVariable(String name) { 
 		this.setName(name); 
@@ -42,6 +43,11 @@ public class TypeVariable implements Type{
 		return 0;
 	}
 
+	@Override
+	public int getId() {
+		return id;
+	}
+
 	@Override
 	public String infoString() {
 		return toString();
@@ -1,6 +1,9 @@
 package symbolTable;
 
 import asmCodeGenerator.codeStorage.ASMCodeFragment;
+import inputHandler.Locator;
+import inputHandler.PositionedLocator;
+import inputHandler.SourceMap;
 import inputHandler.TextLocation;
 import semanticAnalyzer.signatures.FunctionSignature;
 import semanticAnalyzer.types.PrimitiveType;
@@ -11,7 +14,8 @@ public class Binding {
 	private Boolean mutable = null;
 	private FunctionSignature signature = null;
 	private String label = null;
-	private TextLocation textLocation;
+	private SourceMap sourceMap;
+	private int offset;
 	private MemoryLocation memoryLocation;
 	private String lexeme;
 
@@ -22,20 +26,20 @@ public class Binding {
 
 	private Constancy constancy;
 
-	public Binding(Type type, TextLocation location, MemoryLocation memoryLocation, String lexeme,
+	public Binding(Type type, Locator location, MemoryLocation memoryLocation, String lexeme,
 			Constancy constancy) {
 		super();
 		this.type = type;
-		this.textLocation = location;
+		setLocation(location);
 		this.memoryLocation = memoryLocation;
 		this.lexeme = lexeme;
 		this.constancy = constancy;
 	}
 
-	public Binding(Type type, TextLocation location, MemoryLocation memoryLocation, String lexeme) {
+	public Binding(Type type, Locator location, MemoryLocation memoryLocation, String lexeme) {
 		super();
 		this.type = type;
-		this.textLocation = location;
+		setLocation(location);
 		this.memoryLocation = memoryLocation;
 		this.lexeme = lexeme;
 		this.constancy = Constancy.IS_VARIABLE;
@@ -56,8 +60,15 @@ public class Binding {
 		return type;
 	}
 
+	// as in TokenImp: the location is kept as (sourceMap, offset).
+	private void setLocation(Locator locator) {
+		PositionedLocator positioned = SourceMap.positionedLocator(locator);
+		this.sourceMap = positioned.getSourceMap();
+		this.offset = positioned.getOffset();
+	}
+
 	public TextLocation getLocation() {
-		return textLocation;
+		return sourceMap.locationOf(offset);
 	}
 
 	public MemoryLocation getMemoryLocation() {
@@ -5,6 +5,8 @@ package symbolTable;
 public interface MemoryAllocator {
 	public String getBaseAddress();
 	public MemoryLocation allocate(int sizeInBytes);
+	// memory past everything allocated so far, for use once all variables are allocated.
+	public MemoryLocation allocateAfterMaximum(int sizeInBytes);
 	public void saveState();
 	public void restoreState();
 	public int getMaxAllocatedSize();
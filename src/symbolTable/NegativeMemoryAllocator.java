@@ -29,6 +29,11 @@ public class NegativeMemoryAllocator implements MemoryAllocator {
 		updateMin();
 		return new MemoryLocation(accessor, baseAddress, currentOffset);
 	}
+	@Override
+	public MemoryLocation allocateAfterMaximum(int sizeInBytes) {
+		minOffset -= sizeInBytes;
+		return new MemoryLocation(accessor, baseAddress, minOffset);
+	}
 	private void updateMin() {
 		if(minOffset > currentOffset) {
 			minOffset = currentOffset;
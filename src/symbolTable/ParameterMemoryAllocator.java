@@ -35,6 +35,11 @@ public class ParameterMemoryAllocator implements MemoryAllocator {
 		
 		return mem;
 	}
+	@Override
+	public MemoryLocation allocateAfterMaximum(int sizeInBytes) {
+		minOffset -= sizeInBytes;
+		return new MemoryLocation(accessor, baseAddress, minOffset);
+	}
 	private void updateMin() {
 		if(minOffset > currentOffset) {
 			minOffset = currentOffset;
@@ -30,6 +30,12 @@ public class PositiveMemoryAllocator implements MemoryAllocator {
 		updateMax();
 		return new MemoryLocation(accessor, baseAddress, offset);
 	}
+	@Override
+	public MemoryLocation allocateAfterMaximum(int sizeInBytes) {
+		int offset = maxOffset;
+		maxOffset += sizeInBytes;
+		return new MemoryLocation(accessor, baseAddress, offset);
+	}
 	private void updateMax() {
 		if(maxOffset < currentOffset) {
 			maxOffset = currentOffset;
@@ -1,6 +1,6 @@
 package symbolTable;
 
-import inputHandler.TextLocation;
+import inputHandler.Locator;
 import logging.TanLogger;
 import parseTree.nodeTypes.IdentifierNode;
 import semanticAnalyzer.types.Type;
@@ -84,6 +84,11 @@ public class Scope {
 	public int getAllocatedSize() {
 		return allocator.getMaxAllocatedSize();
 	}
+	// memory for a value the compiler keeps, past all of the scope's variables.
+	// only for use after semantic analysis, when no more variables are allocated.
+	public MemoryLocation allocateTemporary(int sizeInBytes) {
+		return allocator.allocateAfterMaximum(sizeInBytes);
+	}
 
 ///////////////////////////////////////////////////////////////////////
 //bindings
@@ -94,14 +99,14 @@ public class Scope {
 		symbolTable.errorIfAlreadyDefined(token);
 
 		String lexeme = token.getLexeme();
-		Binding binding = allocateNewBinding(type, token.getLocation(), lexeme, constancy);	
-		symbolTable.install(lexeme, binding);
+		Binding binding = allocateNewBinding(type, token, lexeme, constancy);	
+		symbolTable.install(token, binding);
 
 		return binding;
 	}
-	private Binding allocateNewBinding(Type type, TextLocation textLocation, String lexeme, Constancy constancy) {
+	private Binding allocateNewBinding(Type type, Locator location, String lexeme, Constancy constancy) {
 		MemoryLocation memoryLocation = allocator.allocate(type.getSize());
-		return new Binding(type, textLocation, memoryLocation, lexeme, constancy);
+		return new Binding(type, location, memoryLocation, lexeme, constancy);
 	}
 	
 	public Binding createBinding(IdentifierNode identifierNode, Type type) {
@@ -109,14 +114,14 @@ public class Scope {
 		symbolTable.errorIfAlreadyDefined(token);
 
 		String lexeme = token.getLexeme();
-		Binding binding = allocateNewBinding(type, token.getLocation(), lexeme);
-		symbolTable.install(lexeme, binding);
+		Binding binding = allocateNewBinding(type, token, lexeme);
+		symbolTable.install(token, binding);
 
 		return binding;
 	}
-	private Binding allocateNewBinding(Type type, TextLocation textLocation, String lexeme) {
+	private Binding allocateNewBinding(Type type, Locator location, String lexeme) {
 		MemoryLocation memoryLocation = allocator.allocate(type.getSize());
-		return new Binding(type, textLocation, memoryLocation, lexeme);
+		return new Binding(type, location, memoryLocation, lexeme);
 	}
 	
 ///////////////////////////////////////////////////////////////////////
@@ -0,0 +1,130 @@
+package symbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import parseTree.nodeTypes.IdentifierNode;
+import semanticAnalyzer.types.Type;
+import symbolTable.Binding.Constancy;
+import tokens.Token;
+
+/** The scopes enclosing the node a pass is at, innermost last, for resolving
+ *  identifiers without walking up the tree.
+ * <p>
+ *  Every name visible in any of the scopes is in one array, indexed by the
+ *  symbol ID that SymbolTable keys it by and chained to the binding it shadows;
+ *  a lookup is one array access, however deep the scopes are nested.  A pass
+ *  pushes a node's scope on entering the node and pops it on leaving, and
+ *  creates bindings through the stack so that they are visible at once.
+ */
+public class ScopeStack {
+	private List<Scope> scopes = new ArrayList<Scope>();
+	private Entry[] visible = new Entry[64];			// by index of symbol ID
+	private int[] installed = new int[64];			// indices made visible, in order
+	private int installedCount = 0;
+	private int[] firstInstalled = new int[16];		// by depth, into installed
+
+	private static class Entry {
+		final Binding binding;
+		final Scope scope;
+		final Entry shadowed;
+
+		Entry(Binding binding, Scope scope, Entry shadowed) {
+			this.binding = binding;
+			this.scope = scope;
+			this.shadowed = shadowed;
+		}
+	}
+
+
+	///////////////////////////////////////////////////////////////////////
+	// entering and leaving scopes
+
+	// bindings already in the scope (from an earlier pass) become visible.
+	public void push(Scope scope) {
+		if(scopes.size() == firstInstalled.length) {
+			firstInstalled = Arrays.copyOf(firstInstalled, firstInstalled.length * 2);
+		}
+		firstInstalled[scopes.size()] = installedCount;
+		scopes.add(scope);
+
+		SymbolTable symbolTable = scope.getSymbolTable();
+		for(int i = 0; i < symbolTable.size(); i++) {
+			makeVisible(symbolTable.keyAt(i), symbolTable.bindingAt(i));
+		}
+	}
+	public void pop() {
+		assert !scopes.isEmpty();
+		int first = firstInstalled[scopes.size() - 1];
+		for(int i = installedCount - 1; i >= first; i--) {
+			int index = installed[i];
+			visible[index] = visible[index].shadowed;
+		}
+		installedCount = first;
+		scopes.remove(scopes.size() - 1);
+	}
+	public Scope current() {
+		if(scopes.isEmpty()) {
+			return Scope.nullInstance();
+		}
+		return scopes.get(scopes.size() - 1);
+	}
+	public int depth() {
+		return scopes.size();
+	}
+
+
+	///////////////////////////////////////////////////////////////////////
+	// bindings
+
+	public Binding createBinding(IdentifierNode identifierNode, Type type, Constancy constancy) {
+		Binding binding = current().createBinding(identifierNode, type, constancy);
+		makeVisible(SymbolTable.keyOf(identifierNode.getToken()), binding);
+		return binding;
+	}
+	public Binding createBinding(IdentifierNode identifierNode, Type type) {
+		Binding binding = current().createBinding(identifierNode, type);
+		makeVisible(SymbolTable.keyOf(identifierNode.getToken()), binding);
+		return binding;
+	}
+	private void makeVisible(int key, Binding binding) {
+		if(scopes.isEmpty()) {
+			return;
+		}
+		int index = indexOf(key);
+		if(index >= visible.length) {
+			visible = Arrays.copyOf(visible, Math.max(index + 1, visible.length * 2));
+		}
+		visible[index] = new Entry(binding, current(), visible[index]);
+
+		if(installedCount == installed.length) {
+			installed = Arrays.copyOf(installed, installed.length * 2);
+		}
+		installed[installedCount++] = index;
+	}
+
+	public boolean isDefined(Token identifier) {
+		return entryOf(identifier) != null;
+	}
+	// the innermost binding of the identifier, or the null binding.
+	public Binding lookup(Token identifier) {
+		Entry entry = entryOf(identifier);
+		return entry == null ? Binding.nullInstance() : entry.binding;
+	}
+	// the scope holding the innermost binding of the identifier, or null.
+	public Scope declarationScopeOf(Token identifier) {
+		Entry entry = entryOf(identifier);
+		return entry == null ? null : entry.scope;
+	}
+
+	private Entry entryOf(Token identifier) {
+		int index = indexOf(SymbolTable.keyOf(identifier));
+		return index < visible.length ? visible[index] : null;
+	}
+	// lexer IDs are non-negative and the IDs of unnumbered tokens are below -1;
+	// they take the even and odd indices.
+	private static int indexOf(int key) {
+		return key >= 0 ? key << 1 : ((-2 - key) << 1) | 1;
+	}
+}
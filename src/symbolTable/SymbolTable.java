@@ -1,57 +1,152 @@
 package symbolTable;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
+import lexicalAnalyzer.IdentifierTable;
 import logging.TanLogger;
 
+import tokens.IdentifierToken;
 import tokens.Token;
 
+/** The bindings of one scope, keyed by the symbol IDs that the lexer gives identifiers.
+ * <p>
+ *  The table is open-addressed with linear probing over an int array of entry
+ *  indices; entries are kept in parallel arrays, in order of installation, so a
+ *  lookup compares ints and boxes nothing, and iteration is over a compact prefix.
+ *  Nothing is allocated until the first install, since most block scopes declare
+ *  nothing.
+ * <p>
+ *  All the identifiers of one program come from one lexer, so their IDs agree.
+ *  A token that no lexer numbered is keyed by its lexeme, through an ID from a
+ *  table of its own, kept apart from lexer IDs by being negative.
+ */
 public class SymbolTable {
-	private Map<String, Binding> table;
-	
-	public SymbolTable() {
-		table = new HashMap<String, Binding>();
-	}
-	
-	
+	private static final int INITIAL_CAPACITY = 8;		// must be a power of two
+	private static final int EMPTY = -1;
+	private static final IdentifierTable unnumbered = new IdentifierTable();
+
+	private int[] slots = null;		// entry index, or EMPTY
+	private int[] keys;				// by entry
+	private Binding[] bindings;		// by entry
+	private int size = 0;
+
+
 	////////////////////////////////////////////////////////////////
 	// installation and lookup of identifiers
 
-	public Binding install(String identifier, Binding binding) {
-		table.put(identifier, binding);
+	public Binding install(Token identifier, Binding binding) {
+		int key = keyOf(identifier);
+		if(slots == null) {
+			allocate();
+		}
+		int slot = findSlot(key);
+		if(slots[slot] != EMPTY) {
+			bindings[slots[slot]] = binding;
+			return binding;
+		}
+
+		if(size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			bindings = Arrays.copyOf(bindings, size * 2);
+		}
+		keys[size] = key;
+		bindings[size] = binding;
+		slots[slot] = size;
+		size++;
+		if(2 * size > slots.length) {
+			rehash(slots.length * 2);
+		}
 		return binding;
 	}
-	public Binding lookup(String identifier) {
-		return table.getOrDefault(identifier, Binding.nullInstance());
+	public Binding lookup(Token identifier) {
+		int entry = entryOf(identifier);
+		return entry == EMPTY ? Binding.nullInstance() : bindings[entry];
+	}
+	public boolean containsKey(Token identifier) {
+		return entryOf(identifier) != EMPTY;
+	}
+
+	// the entry index of an identifier, or EMPTY.
+	private int entryOf(Token identifier) {
+		if(slots == null) {
+			return EMPTY;
+		}
+		return slots[findSlot(keyOf(identifier))];
+	}
+	// the key of an identifier: its symbol ID, or a negative ID for its lexeme.  ScopeStack keys by it too.
+	static int keyOf(Token identifier) {
+		if(identifier instanceof IdentifierToken) {
+			int symbolId = ((IdentifierToken)identifier).getSymbolId();
+			if(symbolId != IdentifierToken.NO_SYMBOL_ID) {
+				return symbolId;
+			}
+		}
+		synchronized(unnumbered) {
+			return -2 - unnumbered.intern(identifier.getLexeme());
+		}
+	}
+
+	// the slot holding this key, or the empty slot where it belongs.
+	private int findSlot(int key) {
+		int mask = slots.length - 1;
+		int slot = spread(key) & mask;
+		while(slots[slot] != EMPTY && keys[slots[slot]] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	private void allocate() {
+		slots = newSlots(INITIAL_CAPACITY);
+		keys = new int[INITIAL_CAPACITY / 2];
+		bindings = new Binding[INITIAL_CAPACITY / 2];
+	}
+	private void rehash(int capacity) {
+		slots = newSlots(capacity);
+		int mask = capacity - 1;
+		for(int entry = 0; entry < size; entry++) {
+			int slot = spread(keys[entry]) & mask;
+			while(slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = entry;
+		}
+	}
+	private static int spread(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
 	}
-	
+	private static int[] newSlots(int capacity) {
+		int[] result = new int[capacity];
+		Arrays.fill(result, EMPTY);
+		return result;
+	}
+
 	///////////////////////////////////////////////////////////////////////
-	// Map delegates	
-	
-	public boolean containsKey(String identifier) {
-		return table.containsKey(identifier);
+	// iteration, in order of installation
+
+	public int size() {
+		return size;
 	}
-	public Set<String> keySet() {
-		return table.keySet();
+	public Binding bindingAt(int index) {
+		assert index < size;
+		return bindings[index];
 	}
-	public Collection<Binding> values() {
-		return table.values();
+	int keyAt(int index) {
+		assert index < size;
+		return keys[index];
 	}
-	
+
 	///////////////////////////////////////////////////////////////////////
 	//error reporting
 
 	public void errorIfAlreadyDefined(Token token) {
-		if(containsKey(token.getLexeme())) {		
+		if(containsKey(token)) {
 			multipleDefinitionError(token);
 		}
 	}
 	protected static void multipleDefinitionError(Token token) {
 		TanLogger log = TanLogger.getLogger("compiler.symbolTable");
-		log.severe("variable \"" + token.getLexeme() + 
+		log.severe("variable \"" + token.getLexeme() +
 				          "\" multiply defined at " + token.getLocation());
 	}
 
@@ -60,9 +155,9 @@ public class SymbolTable {
 
 	public String toString() {
 		StringBuffer result = new StringBuffer("    symbol table: \n");
-		table.entrySet().forEach((entry) -> {
-			result.append("        " + entry + "\n");
-		});
+		for(int entry = 0; entry < size; entry++) {
+			result.append("        " + bindings[entry].getLexeme() + "=" + bindings[entry] + "\n");
+		}
 		return result.toString();
 	}
 }
@@ -0,0 +1,89 @@
+package symbolTable.tests;
+
+import inputHandler.TextLocation;
+import parseTree.nodeTypes.IdentifierNode;
+import semanticAnalyzer.types.PrimitiveType;
+import symbolTable.Binding;
+import symbolTable.Scope;
+import symbolTable.ScopeStack;
+import tokens.IdentifierToken;
+import junit.framework.TestCase;
+
+public class TestScopeStack extends TestCase {
+	private static final int DEPTH = 10000;
+
+	public void testInnerBindingShadowsUntilPopped() {
+		ScopeStack scopes = new ScopeStack();
+		Scope program = Scope.createProgramScope();
+		scopes.push(program);
+		Binding outer = scopes.createBinding(identifier("x"), PrimitiveType.INTEGER);
+
+		Scope block = program.createSubscope();
+		scopes.push(block);
+		assertSame(outer, scopes.lookup(token("x")));
+		Binding inner = scopes.createBinding(identifier("x"), PrimitiveType.FLOAT);
+		assertSame(inner, scopes.lookup(token("x")));
+		assertSame(block, scopes.declarationScopeOf(token("x")));
+
+		scopes.pop();
+		assertSame(outer, scopes.lookup(token("x")));
+		assertSame(program, scopes.declarationScopeOf(token("x")));
+		scopes.pop();
+		assertFalse(scopes.isDefined(token("x")));
+		assertSame(Binding.nullInstance(), scopes.lookup(token("x")));
+	}
+
+	// bindings made before the scope is pushed, as the first pass makes subroutine names.
+	public void testPushedScopeBringsItsBindings() {
+		Scope program = Scope.createProgramScope();
+		Binding made = program.createBinding(identifier("f"), PrimitiveType.INTEGER);
+
+		ScopeStack scopes = new ScopeStack();
+		scopes.push(program);
+		assertSame(made, scopes.lookup(token("f")));
+		assertSame(program, scopes.declarationScopeOf(token("f")));
+	}
+
+	public void testDeepNesting() {
+		ScopeStack scopes = new ScopeStack();
+		Scope scope = Scope.createProgramScope();
+		scopes.push(scope);
+		Binding global = scopes.createBinding(identifier("g"), PrimitiveType.INTEGER);
+		for(int i = 0; i < DEPTH; i++) {
+			scope = scope.createSubscope();
+			scopes.push(scope);
+			scopes.createBinding(identifier("v" + i), PrimitiveType.INTEGER);
+		}
+		assertEquals(DEPTH + 1, scopes.depth());
+		assertSame(global, scopes.lookup(token("g")));
+		for(int i = 0; i < DEPTH; i++) {
+			scopes.pop();
+		}
+		assertFalse(scopes.isDefined(token("v0")));
+		assertSame(global, scopes.lookup(token("g")));
+	}
+
+	// the same name from the lexer, whose symbol ID, not its lexeme, is the key.
+	public void testNumberedTokensResolveBySymbolId() {
+		ScopeStack scopes = new ScopeStack();
+		Scope program = Scope.createProgramScope();
+		scopes.push(program);
+		Binding binding = scopes.createBinding(new IdentifierNode(numbered("x", 3)), PrimitiveType.INTEGER);
+
+		assertSame(binding, scopes.lookup(numbered("x", 3)));
+		assertFalse(scopes.isDefined(numbered("y", 4)));
+		assertFalse(scopes.isDefined(numbered("x", 30000)));
+		scopes.pop();
+		assertFalse(scopes.isDefined(numbered("x", 3)));
+	}
+
+	private static IdentifierNode identifier(String lexeme) {
+		return new IdentifierNode(token(lexeme));
+	}
+	private static IdentifierToken token(String lexeme) {
+		return IdentifierToken.make(TextLocation.nullInstance(), lexeme);
+	}
+	private static IdentifierToken numbered(String lexeme, int symbolId) {
+		return IdentifierToken.make(TextLocation.nullInstance(), lexeme, symbolId);
+	}
+}
@@ -0,0 +1,65 @@
+package symbolTable.tests;
+
+import inputHandler.TextLocation;
+import semanticAnalyzer.types.PrimitiveType;
+import symbolTable.Binding;
+import symbolTable.MemoryLocation;
+import symbolTable.SymbolTable;
+import tokens.IdentifierToken;
+import junit.framework.TestCase;
+
+public class TestSymbolTable extends TestCase {
+	private static final int MANY = 5000;
+
+	public void testEmptyTable() {
+		SymbolTable table = new SymbolTable();
+		assertEquals(0, table.size());
+		assertFalse(table.containsKey(identifier("x", 0)));
+		assertSame(Binding.nullInstance(), table.lookup(identifier("x", 0)));
+	}
+
+	public void testManyBindingsInInstallationOrder() {
+		SymbolTable table = new SymbolTable();
+		Binding[] bindings = new Binding[MANY];
+		for(int i = 0; i < MANY; i++) {
+			bindings[i] = binding("id" + i);
+			table.install(identifier("id" + i, i * 7), bindings[i]);
+		}
+		assertEquals(MANY, table.size());
+		for(int i = 0; i < MANY; i++) {
+			assertSame(bindings[i], table.lookup(identifier("id" + i, i * 7)));
+			assertSame(bindings[i], table.bindingAt(i));
+		}
+		assertFalse(table.containsKey(identifier("id1", 1)));
+	}
+
+	public void testReinstallKeepsPosition() {
+		SymbolTable table = new SymbolTable();
+		table.install(identifier("a", 0), binding("a"));
+		table.install(identifier("b", 1), binding("b"));
+		Binding again = binding("a");
+		table.install(identifier("a", 0), again);
+		assertEquals(2, table.size());
+		assertSame(again, table.bindingAt(0));
+	}
+
+	// tokens without a symbol ID are keyed by lexeme, apart from lexer IDs.
+	public void testUnnumberedTokens() {
+		SymbolTable table = new SymbolTable();
+		Binding numbered = binding("a");
+		table.install(identifier("a", 0), numbered);
+		Binding unnumbered = binding("b");
+		table.install(identifier("b", IdentifierToken.NO_SYMBOL_ID), unnumbered);
+
+		assertSame(numbered, table.lookup(identifier("a", 0)));
+		assertSame(unnumbered, table.lookup(identifier("b", IdentifierToken.NO_SYMBOL_ID)));
+		assertFalse(table.containsKey(identifier("a", IdentifierToken.NO_SYMBOL_ID)));
+	}
+
+	private static IdentifierToken identifier(String lexeme, int symbolId) {
+		return IdentifierToken.make(TextLocation.nullInstance(), lexeme, symbolId);
+	}
+	private static Binding binding(String lexeme) {
+		return new Binding(PrimitiveType.INTEGER, TextLocation.nullInstance(), MemoryLocation.nullInstance(), lexeme);
+	}
+}
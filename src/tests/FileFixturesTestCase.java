@@ -41,7 +41,7 @@ public abstract class FileFixturesTestCase extends TestCase {
 		InputStreamReader reader = readerForFilename(filename);
 		return contentsAsString(reader);
 	}
-	private String contentsAsString(InputStreamReader reader) 
+	public String contentsAsString(InputStreamReader reader) 
 	throws IOException {
 		StringBuffer result = new StringBuffer();
 		char[] buffer = new char[1024];
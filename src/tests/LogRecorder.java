@@ -0,0 +1,39 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/** Collects the messages logged to one logger, in order, from start() until stop(). */
+public class LogRecorder extends Handler {
+	private Logger logger;
+	private List<String> messages = new ArrayList<String>();
+
+	public static LogRecorder start(String loggerName) {
+		LogRecorder result = new LogRecorder(Logger.getLogger(loggerName));
+		result.logger.addHandler(result);
+		return result;
+	}
+	private LogRecorder(Logger logger) {
+		this.logger = logger;
+	}
+	public void stop() {
+		logger.removeHandler(this);
+	}
+	public List<String> messages() {
+		return messages;
+	}
+
+	@Override
+	public void publish(LogRecord record) {
+		messages.add(record.getMessage());
+	}
+	@Override
+	public void flush() {
+	}
+	@Override
+	public void close() {
+	}
+}
@@ -8,6 +8,9 @@ public class CharacterToken extends TokenImp {
 	protected CharacterToken(Locator locator, String lexeme) {
 		super(locator, lexeme);
 	}
+	protected CharacterToken(Locator locator, CharSequence text, int start) {
+		super(locator, text, start, 1);
+	}
 	protected void setValue(char value) {
 		this.value = value;
 	}
@@ -20,6 +23,13 @@ public class CharacterToken extends TokenImp {
 		result.setValue(lexeme.charAt(0));
 		return result;
 	}
+	/** Make a token whose lexeme is the single character text[start], without copying it.
+	 */
+	public static CharacterToken make(Locator locator, CharSequence text, int start) {
+		CharacterToken result = new CharacterToken(locator, text, start);
+		result.setValue(text.charAt(start));
+		return result;
+	}
 	
 	@Override
 	protected String rawString() {
@@ -9,6 +9,9 @@ public class FloatingLiteralToken extends TokenImp {
 	protected FloatingLiteralToken(Locator locator, String lexeme) {
 		super(locator, lexeme);
 	}
+	protected FloatingLiteralToken(Locator locator, CharSequence text, int start, int length) {
+		super(locator, text, start, length);
+	}
 	protected void setValue(double value) {
 		this.value = value;
 	}
@@ -17,15 +20,33 @@ public class FloatingLiteralToken extends TokenImp {
 	}
 	
 	public static FloatingLiteralToken make(Locator locator, String lexeme) {
+		return make(locator, lexeme, valueOf(lexeme));
+	}
+	public static FloatingLiteralToken make(Locator locator, String lexeme, double value) {
 		FloatingLiteralToken result = new FloatingLiteralToken(locator, lexeme);
-		if( Double.parseDouble(lexeme) == Double.POSITIVE_INFINITY || Double.parseDouble(lexeme) == Double.NEGATIVE_INFINITY){
+		result.setValue(value);
+		return result;
+	}
+	/** Make a token whose lexeme is the slice text[start, start+length), without copying it.
+	 * @param value the value of the literal, already converted by the lexer.
+	 */
+	public static FloatingLiteralToken make(Locator locator, CharSequence text, int start, int length, double value) {
+		FloatingLiteralToken result = new FloatingLiteralToken(locator, text, start, length);
+		result.setValue(value);
+		return result;
+	}
+	/** Convert a floating-point literal, reporting a lexical error if it is too large.
+	 * @param lexeme the text of the literal.
+	 * @return the value of the literal, or 0 if it is too large.
+	 */
+	public static double valueOf(String lexeme) {
+		double value = Double.parseDouble(lexeme);
+		if( value == Double.POSITIVE_INFINITY || value == Double.NEGATIVE_INFINITY){
 			TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
 			log.severe( "Lexical error: " + lexeme + " Float representation exceeded");
+			return 0;
 		}
-		else {
-			result.setValue(Double.parseDouble(lexeme));
-		}
-		return result;
+		return value;
 	}
 	
 	@Override
@@ -3,15 +3,29 @@ package tokens;
 import inputHandler.Locator;
 
 public class IdentifierToken extends TokenImp {
-	protected IdentifierToken(Locator locator, String lexeme) {
-		super(locator, lexeme.intern());
+	public static final int NO_SYMBOL_ID = -1;
+	private int symbolId;
+
+	// lexemes from an IdentifierTable are already interned.
+	protected IdentifierToken(Locator locator, String lexeme, int symbolId) {
+		super(locator, symbolId == NO_SYMBOL_ID ? lexeme.intern() : lexeme);
+		this.symbolId = symbolId;
 	}
 	
 	public static IdentifierToken make(Locator locator, String lexeme) {
-		IdentifierToken result = new IdentifierToken(locator, lexeme);
+		return make(locator, lexeme, NO_SYMBOL_ID);
+	}
+	public static IdentifierToken make(Locator locator, String lexeme, int symbolId) {
+		IdentifierToken result = new IdentifierToken(locator, lexeme, symbolId);
 		return result;
 	}
 
+	/** Get the ID given to this identifier by the lexer's IdentifierTable.
+	 * @return the symbol ID, or NO_SYMBOL_ID for a token not made by a lexer.
+	 */
+	public int getSymbolId() {
+		return symbolId;
+	}
 
 	@Override
 	protected String rawString() {
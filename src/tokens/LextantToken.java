@@ -15,6 +15,9 @@ public final class LextantToken extends TokenImp {
 	public Lextant getLextant() {
 		return lextant;
 	}
+	public boolean isLextant(Lextant lextant) {
+		return this.lextant == lextant;
+	}
 	public boolean isLextant(Lextant ...lextants) {
 		for(Lextant lextant: lextants) {
 			if(this.lextant == lextant)
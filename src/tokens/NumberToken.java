@@ -9,6 +9,9 @@ public class NumberToken extends TokenImp {
 	protected NumberToken(Locator locator, String lexeme) {
 		super(locator, lexeme);
 	}
+	protected NumberToken(Locator locator, CharSequence text, int start, int length) {
+		super(locator, text, start, length);
+	}
 	protected void setValue(int value) {
 		this.value = value;
 	}
@@ -17,16 +20,39 @@ public class NumberToken extends TokenImp {
 	}
 	
 	public static NumberToken make(Locator locator, String lexeme) {
+		return make(locator, lexeme, valueOf(lexeme));
+	}
+	public static NumberToken make(Locator locator, String lexeme, int value) {
 		NumberToken result = new NumberToken(locator, lexeme);
+		result.setValue(value);
+		return result;
+	}
+	/** Make a token whose lexeme is the slice text[start, start+length), without copying it.
+	 */
+	public static NumberToken make(Locator locator, CharSequence text, int start, int length) {
+		return make(locator, text, start, length, valueOf(text, start, length));
+	}
+	public static NumberToken make(Locator locator, CharSequence text, int start, int length, int value) {
+		NumberToken result = new NumberToken(locator, text, start, length);
+		result.setValue(value);
+		return result;
+	}
+	/** Convert an integer literal, reporting a lexical error if it is too large.
+	 * @param lexeme the digits of the literal.
+	 * @return the value of the literal, or 0 if it is too large.
+	 */
+	public static int valueOf(String lexeme) {
+		return valueOf(lexeme, 0, lexeme.length());
+	}
+	public static int valueOf(CharSequence text, int start, int length) {
 		try {
-			Integer.parseInt(lexeme);
-			result.setValue(Integer.parseInt(lexeme));
+			return Integer.parseInt(text, start, start + length, 10);
 		}
 			catch (NumberFormatException e) {
 				TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
-				log.severe( "Lexical error: " + lexeme + " Integer representation exceeded");
+				log.severe( "Lexical error: " + text.subSequence(start, start + length) + " Integer representation exceeded");
 			}
-		return result;
+		return 0;
 	}
 	
 	@Override
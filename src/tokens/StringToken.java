@@ -3,26 +3,30 @@ package tokens;
 import inputHandler.Locator;
 
 public class StringToken extends TokenImp {
-	protected String value;
-	
 	protected StringToken(Locator locator, String lexeme) {
 		super(locator, lexeme);
 	}
-	protected void setValue(String value) {
-		this.value = value;
+	protected StringToken(Locator locator, CharSequence text, int start, int length) {
+		super(locator, text, start, length);
 	}
+	// the value of a string literal is its lexeme: the text between the quotes.
 	public String getValue() {
-		return value;
+		return getLexeme();
 	}
 	
 	public static StringToken make(Locator locator, String lexeme) {
 		StringToken result = new StringToken(locator, lexeme);
-		result.setValue(lexeme);
+		return result;
+	}
+	/** Make a token whose lexeme is the slice text[start, start+length), without copying it.
+	 */
+	public static StringToken make(Locator locator, CharSequence text, int start, int length) {
+		StringToken result = new StringToken(locator, text, start, length);
 		return result;
 	}
 	
 	@Override
 	protected String rawString() {
-		return "string, " + value;
+		return "string, " + getValue();
 	}
 }
\ No newline at end of file
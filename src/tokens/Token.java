@@ -8,6 +8,7 @@ public interface Token extends Locator {
 	public String getLexeme();
 	public TextLocation getLocation();
 	public String fullString();
+	public boolean isLextant(Lextant lextant);
 	public boolean isLextant(Lextant ...lextants);
 }
 
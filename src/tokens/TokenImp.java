@@ -2,25 +2,49 @@ package tokens;
 
 import lexicalAnalyzer.Lextant;
 import inputHandler.Locator;
+import inputHandler.PositionedLocator;
+import inputHandler.SourceMap;
 import inputHandler.TextLocation;
 
-public abstract class TokenImp implements Token {
-	private TextLocation location;
-	private String lexeme;
+public abstract class TokenImp implements Token, PositionedLocator {
+	private SourceMap sourceMap;
+	private int offset;
+	private CharSequence text;		// the lexeme is this slice of text.
+	private int start;
+	private int length;
 
 	protected TokenImp(Locator locator, String lexeme) {
+		this(locator, lexeme, 0, lexeme.length());
+	}
+	/** Make a token whose lexeme is a slice of some text, usually the source.
+	 *  The lexeme String is not made until <code>getLexeme()</code> is called.
+	 */
+	protected TokenImp(Locator locator, CharSequence text, int start, int length) {
 		super();
-		this.location =locator.getLocation();
-		this.lexeme = lexeme;
+		PositionedLocator positioned = SourceMap.positionedLocator(locator);
+		this.sourceMap = positioned.getSourceMap();
+		this.offset = positioned.getOffset();
+		this.text = text;
+		this.start = start;
+		this.length = length;
 	}
 
+	// a String lexeme is the whole of itself, and is returned without a copy.
 	@Override
 	public String getLexeme() {
-		return lexeme;
+		return text.subSequence(start, start + length).toString();
 	}
 	@Override
 	public TextLocation getLocation() {
-		return location;
+		return sourceMap.locationOf(offset);
+	}
+	@Override
+	public SourceMap getSourceMap() {
+		return sourceMap;
+	}
+	@Override
+	public int getOffset() {
+		return offset;
 	}
 	
 	/** A string (not surrounded by parentheses) representing the subclass information.
@@ -36,13 +60,18 @@ public abstract class TokenImp implements Token {
 	 * @return string with all token info.
 	 */
 	public String fullString() {
+		TextLocation location = getLocation();
 		String locationString = location == null ? "(no text location)" : location.toString();
 		return "(" + rawString() + 
 			   ", " + locationString +
-			   ", " + lexeme +
+			   ", " + getLexeme() +
 			   ")";
 	}
 	
+	@Override
+	public boolean isLextant(Lextant lextant) {
+		return false;
+	}
 	@Override
 	public boolean isLextant(Lextant ...lextants) {
 		return false;